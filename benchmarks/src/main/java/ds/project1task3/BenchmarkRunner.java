@@ -0,0 +1,68 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code BenchmarkRunner} class runs every benchmark with the GC profiler, so the results include the
+ * allocation rate next to throughput and time per operation, and writes them as JMH JSON to
+ * {@code benchmarks/results/jmh-<label>.json}. The label defaults to the project version; pass another one to
+ * keep several runs. Any further arguments are handed to JMH unchanged, e.g. a benchmark name pattern.
+ */
+
+package ds.project1task3;
+
+// Import jmh and the necessary Java classes
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public final class BenchmarkRunner {
+    // Folder that keeps the results of every run for comparison across releases
+    private static final Path RESULTS = Paths.get("benchmarks", "results");
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args Optional result label followed by JMH command line options.
+     * @throws Exception If JMH fails or the results cannot be written.
+     */
+    public static void main(String[] args) throws Exception {
+        String label = args.length > 0 && !args[0].startsWith("-") ? args[0] : "1.0-SNAPSHOT";
+        String[] jmhArgs = args.length > 0 && !args[0].startsWith("-")
+                ? Arrays.copyOfRange(args, 1, args.length) : args;
+        run(label, jmhArgs);
+    }
+
+    private static void run(String label, String[] jmhArgs)
+            throws IOException, RunnerException, CommandLineOptionException {
+        Files.createDirectories(RESULTS);
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULTS.resolve("jmh-" + label + ".json").toString());
+        // Defaults that the command line may override
+        if (!commandLine.getForkCount().hasValue()) {
+            options.forks(1);
+        }
+        if (!commandLine.getWarmupIterations().hasValue()) {
+            options.warmupIterations(3);
+        }
+        if (!commandLine.getMeasurementIterations().hasValue()) {
+            options.measurementIterations(5);
+        }
+        new Runner(options.build()).run();
+    }
+}
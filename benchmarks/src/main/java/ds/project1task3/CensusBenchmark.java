@@ -0,0 +1,50 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Benchmarks of the Census population path: parsing the recorded Census response into the population index,
+ * and the in-memory lookup every request makes afterwards.
+ */
+
+package ds.project1task3;
+
+// Import jmh and the necessary Java classes
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CensusBenchmark {
+    private static final int STATES = 50;
+
+    private StatePopulationIndex index;
+
+    @Setup
+    public void setUp() {
+        String census = Fixtures.census();
+        index = new StatePopulationIndex(() -> census, Duration.ofDays(1));
+        index.refresh();
+    }
+
+    @Benchmark
+    public boolean parse() {
+        return index.refresh();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void lookup(Blackhole bh) {
+        for (int i = 0; i < STATES; i++) {
+            bh.consume(index.getByOrdinal(i));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code CompareResults} class compares two JMH JSON result files written by {@link BenchmarkRunner}, for
+ * example the last release against the current build. For every benchmark and mode it prints the baseline and
+ * candidate scores and the change, and the normalized allocation rate from the GC profiler. A slowdown beyond
+ * the threshold (10% by default) is flagged and makes the program exit with status 1, so it can gate a release.
+ */
+
+package ds.project1task3;
+
+// Import gson and the necessary Java classes
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class CompareResults {
+    // Secondary metric of the GC profiler with the bytes allocated per operation
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private CompareResults() {
+    }
+
+    /**
+     * Compares two result files.
+     *
+     * @param args The baseline file, the candidate file and an optional threshold in percent.
+     * @throws IOException If a file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <candidate.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        Map<String, JsonObject> baseline = load(args[0]);
+        Map<String, JsonObject> candidate = load(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        boolean regressed = false;
+        System.out.printf("%-60s %14s %14s %9s %14s%n", "benchmark", "baseline", "candidate", "change", "alloc B/op");
+        for (Map.Entry<String, JsonObject> entry : candidate.entrySet()) {
+            JsonObject before = baseline.get(entry.getKey());
+            JsonObject after = entry.getValue();
+            double newScore = score(after);
+            if (before == null) {
+                System.out.printf("%-60s %14s %14.3f %9s %14s%n", entry.getKey(), "-", newScore, "new", allocation(after));
+                continue;
+            }
+            double oldScore = score(before);
+            double change = (newScore - oldScore) / oldScore * 100.0;
+            // Higher is better for throughput, lower is better for time per operation
+            boolean throughput = "thrpt".equals(after.get("mode").getAsString());
+            boolean worse = throughput ? change < -threshold : change > threshold;
+            regressed |= worse;
+            System.out.printf("%-60s %14.3f %14.3f %8.1f%% %14s%s%n", entry.getKey(), oldScore, newScore, change,
+                    allocation(after), worse ? "  REGRESSION" : "");
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    /**
+     * Reads a JMH JSON result file into its runs keyed by benchmark and mode.
+     */
+    private static Map<String, JsonObject> load(String file) throws IOException {
+        Map<String, JsonObject> runs = new LinkedHashMap<>();
+        try (Reader in = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            JsonArray results = JsonParser.parseReader(in).getAsJsonArray();
+            for (JsonElement element : results) {
+                JsonObject run = element.getAsJsonObject();
+                runs.put(run.get("benchmark").getAsString() + " [" + run.get("mode").getAsString() + "]", run);
+            }
+        }
+        return runs;
+    }
+
+    private static double score(JsonObject run) {
+        return run.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+    }
+
+    private static String allocation(JsonObject run) {
+        JsonObject secondary = run.getAsJsonObject("secondaryMetrics");
+        if (secondary == null || !secondary.has(ALLOCATION)) {
+            return "-";
+        }
+        return String.format("%.1f", secondary.getAsJsonObject(ALLOCATION).get("score").getAsDouble());
+    }
+}
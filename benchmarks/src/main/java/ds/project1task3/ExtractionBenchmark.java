@@ -0,0 +1,105 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Benchmarks of the Wikipedia extraction paths: flag and seal URLs (separately and in one pass), capital and
+ * governor (separately and in one walk over the infobox) and the Jsoup parse they depend on. Every operation covers the recorded page of one state; each
+ * invocation walks all 50 states so no single layout dominates.
+ */
+
+package ds.project1task3;
+
+// Import jmh and the necessary Java classes
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExtractionBenchmark {
+    private static final int STATES = 50;
+
+    private Project1Task3Model model;
+    private List<String> html;
+    // Pages whose document is already parsed, to measure the selectors alone
+    private List<WikipediaPageProvider.Page> parsedPages;
+
+    @Setup
+    public void setUp() {
+        model = new Project1Task3Model();
+        html = Fixtures.wikipediaPages();
+        parsedPages = new ArrayList<>();
+        for (int i = 0; i < html.size(); i++) {
+            WikipediaPageProvider.Page page = new WikipediaPageProvider.Page("https://en.wikipedia.org/wiki/"
+                    + StateRegistry.wikipediaTitle(i), html.get(i));
+            page.document();
+            parsedPages.add(page);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void flagURL(Blackhole bh) {
+        for (String page : html) {
+            bh.consume(model.getFlagURL(page));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void sealURL(Blackhole bh) {
+        for (String page : html) {
+            bh.consume(model.getSealURL(page));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void symbolURLsOnePass(Blackhole bh) {
+        for (String page : html) {
+            bh.consume(SymbolImageExtractor.extract(page));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void parseDocument(Blackhole bh) {
+        for (String page : html) {
+            bh.consume(Jsoup.parse(page, "https://en.wikipedia.org/"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void capital(Blackhole bh) {
+        for (WikipediaPageProvider.Page page : parsedPages) {
+            bh.consume(model.getCapital(page));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void governor(Blackhole bh) {
+        for (WikipediaPageProvider.Page page : parsedPages) {
+            bh.consume(model.getGovernor(page));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void infoboxOnePass(Blackhole bh) {
+        for (WikipediaPageProvider.Page page : parsedPages) {
+            bh.consume(InfoboxExtractor.extract(page.document()));
+        }
+    }
+}
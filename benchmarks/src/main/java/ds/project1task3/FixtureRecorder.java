@@ -0,0 +1,102 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code FixtureRecorder} class records the upstream responses used by the benchmarks and replayed by
+ * {@link StubUpstreamServer}. It fetches the Census population response, the Wikipedia page of every state and
+ * the Commons uploader of every flag and seal through {@link HttpFetcher}, exactly as the application does, and
+ * writes them under the given fixtures folder (by default
+ * {@code benchmarks/src/main/resources/fixtures}). Run it again and commit the result to refresh the fixtures.
+ *
+ * With {@code --synthetic} it records nothing and writes the responses of {@link SyntheticPages} in the same
+ * layout instead, for a machine with no network.
+ */
+
+package ds.project1task3;
+
+// Import gson and the necessary Java classes
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+import com.google.gson.GsonBuilder;
+
+public final class FixtureRecorder {
+
+    private FixtureRecorder() {
+    }
+
+    /**
+     * Records every fixture, or writes synthetic ones.
+     *
+     * @param args Optional {@code --synthetic}, then an optional fixtures folder.
+     * @throws IOException If a fixture cannot be fetched or written.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        boolean synthetic = arguments.remove("--synthetic");
+        Path root = Paths.get(arguments.isEmpty() ? "benchmarks/src/main/resources/fixtures" : arguments.get(0));
+        String[] pages = new String[StateRegistry.COUNT];
+        if (synthetic) {
+            for (int i = 0; i < StateRegistry.COUNT; i++) {
+                pages[i] = SyntheticPages.page(i, StubUpstreamServer.IMAGE_HOST);
+            }
+            write(root, SyntheticPages.census(), pages, SyntheticPages.credits());
+            return;
+        }
+
+        HttpFetcher fetcher = new HttpFetcher();
+        String census = fetcher.fetch(Upstream.CENSUS, StatePopulationIndex.CENSUS_URL);
+        if (census == null) {
+            throw new IOException("Could not fetch " + StatePopulationIndex.CENSUS_URL);
+        }
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            pages[i] = fetcher.fetch(Upstream.WIKIPEDIA,
+                    "https://en.wikipedia.org/wiki/" + StateRegistry.wikipediaTitle(i), new InfoboxEndDetector());
+            if (pages[i] == null) {
+                throw new IOException("Could not fetch the Wikipedia page of " + StateRegistry.name(i));
+            }
+        }
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            for (SymbolImageExtractor.Symbol symbol : SymbolImageExtractor.Symbol.values()) {
+                files.add(StateRegistry.commonsFile(i, symbol));
+            }
+        }
+        Map<String, String> credits = new CommonsCreditResolver(CommonsCreditResolver.DEFAULT_API_URL, fetcher,
+                Duration.ofMinutes(1)).resolve(files);
+        fetcher.shutdown();
+        write(root, census, pages, credits);
+    }
+
+    /**
+     * Writes the fixtures in the layout {@link Fixtures} reads, replacing any written before.
+     *
+     * @param root The fixtures folder.
+     * @param census The Census population response.
+     * @param pages The Wikipedia page of every state, in ordinal order.
+     * @param credits The uploader by Commons file name.
+     */
+    private static void write(Path root, String census, String[] pages, Map<String, String> credits)
+            throws IOException {
+        Files.createDirectories(root.resolve("wikipedia"));
+        Files.writeString(root.resolve("census.json"), census, StandardCharsets.UTF_8);
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            Path file = root.resolve("wikipedia").resolve(StateRegistry.wikipediaTitle(i) + ".html.gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                out.write(pages[i].getBytes(StandardCharsets.UTF_8));
+            }
+            System.out.println("Wrote " + file);
+        }
+        Files.writeString(root.resolve("commons.json"),
+                new GsonBuilder().setPrettyPrinting().create().toJson(new TreeMap<>(credits)), StandardCharsets.UTF_8);
+        System.out.println("Wrote " + credits.size() + " Commons credits");
+    }
+}
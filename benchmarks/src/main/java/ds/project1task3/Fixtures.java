@@ -0,0 +1,111 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code Fixtures} class loads the recorded upstream responses the benchmarks run against.
+ *
+ * The Census response is stored as {@code fixtures/census.json} and the Wikipedia page of every state as
+ * {@code fixtures/wikipedia/<title>.html.gz}, gzip compressed and exactly as {@link HttpFetcher} returns it
+ * (streamed up to the end of the infobox, line terminators dropped). The uploader of every flag and seal file on
+ * Wikimedia Commons is stored as {@code fixtures/commons.json}, a JSON object keyed by file name.
+ * {@link FixtureRecorder} records them.
+ *
+ * The fixtures committed with the benchmarks are the synthetic ones written by {@code FixtureRecorder --synthetic},
+ * because they were generated on a machine that cannot reach Census, Wikipedia or Commons. {@link SyntheticPages}
+ * describes how close they are to the real pages. Record the real responses on a machine with network access
+ * before comparing results with production numbers.
+ */
+
+package ds.project1task3;
+
+// Import gson and the necessary Java classes
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+final class Fixtures {
+    // Classpath folder that holds the fixtures
+    static final String ROOT = "fixtures/";
+
+    private Fixtures() {
+    }
+
+    /**
+     * @return The recorded Census population response.
+     */
+    static String census() {
+        return read(ROOT + "census.json", false);
+    }
+
+    /**
+     * @return The recorded Wikipedia page of every state, in ordinal order of {@link StateRegistry}.
+     */
+    static List<String> wikipediaPages() {
+        List<String> pages = new ArrayList<>();
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            pages.add(read(wikipediaPath(StateRegistry.wikipediaTitle(i)), true));
+        }
+        return pages;
+    }
+
+    /**
+     * @param title The Wikipedia title of a state, e.g. "New_York_(state)".
+     * @return The recorded page of the state, or null if it has not been recorded.
+     */
+    static String wikipediaPageIfRecorded(String title) {
+        return readIfPresent(wikipediaPath(title), true);
+    }
+
+    /**
+     * @return The recorded Census population response, or null if it has not been recorded.
+     */
+    static String censusIfRecorded() {
+        return readIfPresent(ROOT + "census.json", false);
+    }
+
+    /**
+     * @return The recorded uploader by Commons file name, empty if the credits have not been recorded.
+     */
+    static Map<String, String> commonsCredits() {
+        String json = readIfPresent(ROOT + "commons.json", false);
+        if (json == null) {
+            return Map.of();
+        }
+        return new Gson().fromJson(json, new TypeToken<Map<String, String>>() { }.getType());
+    }
+
+    /**
+     * @param title The Wikipedia title of a state, e.g. "New_York_(state)".
+     * @return The fixture path of its page.
+     */
+    static String wikipediaPath(String title) {
+        return ROOT + "wikipedia/" + title + ".html.gz";
+    }
+
+    private static String read(String path, boolean gzip) {
+        String fixture = readIfPresent(path, gzip);
+        if (fixture == null) {
+            throw new IllegalStateException("Missing fixture " + path
+                    + ", record the fixtures with ds.project1task3.FixtureRecorder first");
+        }
+        return fixture;
+    }
+
+    private static String readIfPresent(String path, boolean gzip) {
+        InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(path);
+        if (in == null) {
+            return null;
+        }
+        try (InputStream body = gzip ? new GZIPInputStream(in) : in) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
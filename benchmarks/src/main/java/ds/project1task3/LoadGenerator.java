@@ -0,0 +1,357 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code LoadGenerator} class drives mixed population and symbols ({@code type1}) and facts ({@code type2})
+ * traffic for random states from a fixed number of closed-loop workers, and reports the request rate, latency
+ * percentiles and heap allocation per request. Requests made during the warmup period are not measured.
+ *
+ * With {@code --target} it sends {@code GET /Information} to a deployed application, whose upstream context
+ * parameters point at a {@link StubUpstreamServer}; a progressive symbols page counts as done once its event
+ * stream has ended, and the allocation comes from the application's {@code /metrics}. Without a target it
+ * starts a {@link StubUpstreamServer} and the application's service in this process and makes the same lookups
+ * {@code /Information} makes, so no servlet container is needed; {@code --record-cache false} measures the
+ * assembly of every record instead of the record cache:
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ds.project1task3.LoadGenerator \
+ *     --threads 32 --duration 30 --warmup 5 --type1 0.5 --latency wikipedia=300,commons=600
+ * java -cp benchmarks/target/benchmarks.jar ds.project1task3.LoadGenerator \
+ *     --target http://localhost:8080/Project1Task3-1.0-SNAPSHOT --threads 32 --duration 30
+ * </pre>
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class LoadGenerator {
+    // Link to the event stream of a progressive symbols page
+    private static final Pattern EVENTS = Pattern.compile("new EventSource\\(\"([^\"]+)\"\\)");
+    // The allocation counter written by MetricsServlet
+    private static final Pattern ALLOCATED = Pattern.compile("(?m)^state_lookup_allocated_bytes_total (\\d+)");
+    // Quantiles reported for every information type
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private LoadGenerator() {
+    }
+
+    /**
+     * One request of the workload.
+     */
+    private interface Client {
+        /**
+         * Makes one request.
+         *
+         * @return true if it succeeded with every field present, false if it was answered but degraded.
+         * @throws Exception if it failed.
+         */
+        boolean request(String state, boolean symbols) throws Exception;
+
+        /**
+         * @return The heap bytes allocated so far by the system under test, or -1 if unknown.
+         */
+        long allocatedBytes() throws Exception;
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args {@code --target}, {@code --threads}, {@code --duration} and {@code --warmup} in seconds,
+     *             {@code --type1} fraction, and {@code --port}, {@code --latency} and {@code --errors} of the
+     *             in-process stub and {@code --record-cache false} to assemble every in-process lookup.
+     * @throws Exception if the in-process stub cannot start.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = StubUpstreamServer.parseOptions(args);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "30"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "5"));
+        double type1 = Double.parseDouble(options.getOrDefault("type1", "0.5"));
+
+        StubUpstreamServer stub = null;
+        StateInformationService service = null;
+        Client client;
+        if (options.containsKey("target")) {
+            client = httpClient(options.get("target"));
+        } else {
+            stub = new StubUpstreamServer(
+                    Integer.parseInt(options.getOrDefault("port", String.valueOf(StubUpstreamServer.DEFAULT_PORT))),
+                    StubUpstreamServer.parsePairs(options.get("latency")),
+                    StubUpstreamServer.parsePairs(options.get("errors")));
+            stub.start();
+            Project1Task3Model model = new Project1Task3Model(Project1Task3Model.DEFAULT_POPULATION_TTL,
+                    new HttpFetcher(), true, stub.endpoints(), null, null);
+            model.start();
+            // Without the record cache every lookup assembles its record, from the page and credit caches
+            RecordCache records = Boolean.parseBoolean(options.getOrDefault("record-cache", "true"))
+                    ? new RecordCache() : new RecordCache(1, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+            service = new StateInformationService(model, 16, Duration.ofMillis(5000), records);
+            client = inProcessClient(service);
+        }
+
+        try {
+            Result result = run(client, threads, warmupSeconds, durationSeconds, type1);
+            result.print(System.out);
+            if (stub != null) {
+                System.out.println("Upstream requests: " + stub.requestCounts());
+            }
+        } finally {
+            if (service != null) {
+                service.shutdown();
+                service.getModel().shutdown();
+            }
+            if (stub != null) {
+                stub.stop();
+            }
+        }
+    }
+
+    /**
+     * Drives the workload from closed-loop workers and collects the latencies of the measured period.
+     */
+    private static Result run(Client client, int threads, long warmupSeconds, long durationSeconds, double type1)
+            throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(client, type1, measureFrom, measureUntil);
+            running[i] = new Thread(workers[i], "load-worker-" + i);
+            running[i].start();
+        }
+        // Read the allocation counter at the edges of the measured period
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+        long allocatedBefore = client.allocatedBytes();
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureUntil - System.nanoTime()));
+        long allocatedAfter = client.allocatedBytes();
+        for (Thread thread : running) {
+            thread.join();
+        }
+        return new Result(workers, durationSeconds,
+                allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore);
+    }
+
+    /**
+     * Makes the same lookups as {@code /Information} on a service in this process.
+     */
+    private static Client inProcessClient(StateInformationService service) {
+        return new Client() {
+            @Override
+            public boolean request(String state, boolean symbols) {
+                StateRecord record = service.lookup(state, symbols, !symbols);
+                return symbols ? record.hasPopulationAndSymbols() : record.hasFacts();
+            }
+
+            @Override
+            public long allocatedBytes() {
+                // Only the lookups are measured, not the workers or the stub upstreams in this process
+                return service.getAllocations().getAllocatedBytes();
+            }
+        };
+    }
+
+    /**
+     * Requests {@code /Information} from a deployed application, following the event stream of a progressive
+     * symbols page to its end.
+     */
+    private static Client httpClient(String target) {
+        String base = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+        URI origin = URI.create(base);
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        return new Client() {
+            @Override
+            public boolean request(String state, boolean symbols) throws Exception {
+                String page = get(URI.create(base + "/Information?states="
+                        + URLEncoder.encode(state, StandardCharsets.UTF_8)
+                        + "&InformationType=" + (symbols ? "type1" : "type2")));
+                Matcher events = EVENTS.matcher(page);
+                if (events.find()) {
+                    // The page is only complete once its event stream has ended
+                    String stream = get(origin.resolve(events.group(1)));
+                    return stream.contains("\"degraded\":false");
+                }
+                return !page.contains("N.A.");
+            }
+
+            @Override
+            public long allocatedBytes() throws Exception {
+                Matcher allocated = ALLOCATED.matcher(get(URI.create(base + "/metrics")));
+                return allocated.find() ? Long.parseLong(allocated.group(1)) : -1;
+            }
+
+            private String get(URI uri) throws IOException, InterruptedException {
+                HttpResponse<InputStream> response = http.send(HttpRequest.newBuilder(uri)
+                        .timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = response.body()) {
+                    String text = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                    if (response.statusCode() != 200) {
+                        throw new IOException("HTTP " + response.statusCode() + " from " + uri);
+                    }
+                    return text;
+                }
+            }
+        };
+    }
+
+    /**
+     * One closed-loop worker: it makes the next request as soon as the previous one has been answered.
+     */
+    private static final class Worker implements Runnable {
+        private final Client client;
+        private final double type1;
+        private final long measureFrom;
+        private final long measureUntil;
+        // Latencies of the measured requests by information type, in nanoseconds
+        final LongList[] latencies = {new LongList(), new LongList()};
+        long degraded;
+        long errors;
+
+        Worker(Client client, double type1, long measureFrom, long measureUntil) {
+            this.client = client;
+            this.type1 = type1;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now = System.nanoTime();
+            while (now - measureUntil < 0) {
+                List<String> states = StateRegistry.names();
+                String state = states.get(random.nextInt(states.size()));
+                boolean symbols = random.nextDouble() < type1;
+                boolean complete;
+                try {
+                    complete = client.request(state, symbols);
+                } catch (Exception e) {
+                    complete = false;
+                    if (now - measureFrom >= 0) {
+                        errors++;
+                    }
+                }
+                long end = System.nanoTime();
+                if (now - measureFrom >= 0 && end - measureUntil <= 0) {
+                    latencies[symbols ? 0 : 1].add(end - now);
+                    if (!complete) {
+                        degraded++;
+                    }
+                }
+                now = end;
+            }
+        }
+    }
+
+    /**
+     * The merged measurements of every worker.
+     */
+    private static final class Result {
+        private final long[][] latencies = new long[2][];
+        private final long degraded;
+        private final long errors;
+        private final long durationSeconds;
+        private final long allocatedBytes;
+
+        Result(Worker[] workers, long durationSeconds, long allocatedBytes) {
+            long degradedSum = 0;
+            long errorSum = 0;
+            for (int type = 0; type < 2; type++) {
+                LongList merged = new LongList();
+                for (Worker worker : workers) {
+                    merged.addAll(worker.latencies[type]);
+                }
+                latencies[type] = merged.sorted();
+            }
+            for (Worker worker : workers) {
+                degradedSum += worker.degraded;
+                errorSum += worker.errors;
+            }
+            this.degraded = degradedSum;
+            this.errors = errorSum;
+            this.durationSeconds = durationSeconds;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        void print(PrintStream out) {
+            long requests = latencies[0].length + latencies[1].length;
+            out.printf("Requests: %d in %d s, %.1f requests/s%n", requests, durationSeconds,
+                    (double) requests / durationSeconds);
+            out.printf("Degraded: %d, failed: %d%n", degraded, errors);
+            long[] all = new long[(int) requests];
+            System.arraycopy(latencies[0], 0, all, 0, latencies[0].length);
+            System.arraycopy(latencies[1], 0, all, latencies[0].length, latencies[1].length);
+            Arrays.sort(all);
+            printLatencies(out, "all", all);
+            printLatencies(out, "type1", latencies[0]);
+            printLatencies(out, "type2", latencies[1]);
+            if (allocatedBytes >= 0 && requests > 0) {
+                out.printf("Allocation: %.1f KB/request%n", allocatedBytes / 1024.0 / requests);
+            } else {
+                out.println("Allocation: not available");
+            }
+        }
+
+        private static void printLatencies(PrintStream out, String label, long[] sorted) {
+            if (sorted.length == 0) {
+                return;
+            }
+            StringBuilder line = new StringBuilder(String.format("Latency %-5s ms:", label));
+            for (double quantile : QUANTILES) {
+                long nanos = sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+                line.append(String.format(" p%s %.2f", trim(quantile * 100), nanos / 1e6));
+            }
+            line.append(String.format(" max %.2f", sorted[sorted.length - 1] / 1e6));
+            out.println(line);
+        }
+
+        private static String trim(double percent) {
+            return percent == Math.rint(percent) ? String.valueOf((long) percent) : String.valueOf(percent);
+        }
+    }
+
+    /**
+     * A growable array of longs, so recording a latency does not box it.
+     */
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LongList other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
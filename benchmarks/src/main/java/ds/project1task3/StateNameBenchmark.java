@@ -0,0 +1,56 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Benchmarks of the state name mapping every request goes through: the "states" request parameter to its
+ * {@link StateRegistry} ordinal, and the ordinal to its Wikipedia title and display name.
+ */
+
+package ds.project1task3;
+
+// Import jmh and the necessary Java classes
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StateNameBenchmark {
+    private static final int STATES = 50;
+
+    // Copies of the names, like the parameters of separate requests, so lookups do not hit on identity
+    private String[] parameters;
+
+    @Setup
+    public void setUp() {
+        parameters = new String[STATES];
+        for (int i = 0; i < STATES; i++) {
+            parameters[i] = new String(StateRegistry.name(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void ordinal(Blackhole bh) {
+        for (String state : parameters) {
+            bh.consume(StateRegistry.ordinal(state));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void roundTrip(Blackhole bh) {
+        for (String state : parameters) {
+            int ordinal = StateRegistry.ordinal(state);
+            bh.consume(StateRegistry.wikipediaTitle(ordinal));
+            bh.consume(StateRegistry.name(ordinal));
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code StubUpstreamServer} class stands in for every upstream of the application on the local machine, so
+ * the application can be load tested with no network. It replays the recorded fixtures (see {@link Fixtures})
+ * and falls back to the synthetic responses of {@link SyntheticPages} for anything that has not been recorded:
+ *
+ * <pre>
+ * port + 0   Census       /census             the population query
+ * port + 1   Wikipedia    /wiki/&lt;title&gt;       the state pages, image URLs rewritten to the image port
+ * port + 2   Commons      /w/api.php          imageinfo queries, answered from fixtures/commons.json
+ * port + 3   Images       /wikipedia/...      a small SVG for every image path
+ * </pre>
+ *
+ * Each upstream listens on its own port so the application sees four hosts, with their own circuit breakers and
+ * outbound lanes, as it does in production. Every response can be delayed and can fail with a 503 at a given
+ * rate, per upstream; the delay is drawn uniformly between half and one and a half times the configured mean.
+ *
+ * Run it with the benchmarks jar and point the context parameters of a deployed application at the URLs it
+ * prints:
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ds.project1task3.StubUpstreamServer \
+ *     --port 18080 --latency census=150,wikipedia=300,commons=600,images=20 --errors wikipedia=0.02
+ * </pre>
+ */
+
+package ds.project1task3;
+
+// Import gson and the necessary Java classes
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.google.gson.Gson;
+
+public final class StubUpstreamServer {
+    /**
+     * The stubbed upstreams, in port order.
+     */
+    enum Stub {
+        CENSUS("census"),
+        WIKIPEDIA("wikipedia"),
+        COMMONS("commons"),
+        IMAGES("images");
+
+        final String label;
+
+        Stub(String label) {
+            this.label = label;
+        }
+
+        static Stub byLabel(String label) {
+            for (Stub stub : values()) {
+                if (stub.label.equals(label)) {
+                    return stub;
+                }
+            }
+            throw new IllegalArgumentException("Unknown upstream " + label + ", expected census, wikipedia,"
+                    + " commons or images");
+        }
+    }
+
+    // Default port of the Census stub, the others follow it
+    static final int DEFAULT_PORT = 18080;
+    // Host of the images linked from the real pages, rewritten to the image stub
+    static final String IMAGE_HOST = "//upload.wikimedia.org";
+    // The image every image path is answered with
+    private static final byte[] IMAGE = ("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"60\" height=\"40\">"
+            + "<rect width=\"60\" height=\"40\" fill=\"#888\"/></svg>").getBytes(StandardCharsets.UTF_8);
+
+    // Mean delay and 503 rate of every upstream
+    private final long[] latencyMillis = new long[Stub.values().length];
+    private final double[] errorRates = new double[Stub.values().length];
+    // Requests answered by every upstream
+    private final AtomicInteger[] requests = new AtomicInteger[Stub.values().length];
+    // The recorded or synthetic responses
+    private final String census;
+    private final Map<String, String> pages = new HashMap<>();
+    private final Map<String, String> credits;
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final ExecutorService executor;
+    private final int port;
+
+    /**
+     * Creates the stub upstreams, loading every response up front.
+     *
+     * @param port Port of the Census stub, the Wikipedia, Commons and image stubs use the next three ports.
+     * @param latencyMillis Mean delay of each upstream's responses in milliseconds, by upstream label.
+     * @param errorRates Fraction of each upstream's responses that fail with a 503, by upstream label.
+     */
+    public StubUpstreamServer(int port, Map<String, Double> latencyMillis, Map<String, Double> errorRates) {
+        this.port = port;
+        for (Stub stub : Stub.values()) {
+            requests[stub.ordinal()] = new AtomicInteger();
+        }
+        latencyMillis.forEach((label, millis) ->
+                this.latencyMillis[Stub.byLabel(label).ordinal()] = millis.longValue());
+        errorRates.forEach((label, rate) -> this.errorRates[Stub.byLabel(label).ordinal()] = rate);
+
+        String recordedCensus = Fixtures.censusIfRecorded();
+        census = recordedCensus != null ? recordedCensus : SyntheticPages.census();
+        String imageHost = "//localhost:" + (port + Stub.IMAGES.ordinal());
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            String title = StateRegistry.wikipediaTitle(i);
+            String page = Fixtures.wikipediaPageIfRecorded(title);
+            // Images are fetched from the image stub instead of the real image host
+            pages.put(title, page != null ? page.replace(IMAGE_HOST, imageHost) : SyntheticPages.page(i, imageHost));
+        }
+        Map<String, String> recordedCredits = Fixtures.commonsCredits();
+        credits = recordedCredits.isEmpty() ? SyntheticPages.credits() : recordedCredits;
+        // Delayed responses sleep, so every request gets its own thread
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stub-upstream");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts listening on the four ports.
+     *
+     * @throws IOException if a port cannot be bound.
+     */
+    public void start() throws IOException {
+        bind(Stub.CENSUS, "/census", exchange -> respond(exchange, "application/json",
+                census.getBytes(StandardCharsets.UTF_8)));
+        bind(Stub.WIKIPEDIA, "/wiki/", this::wikipedia);
+        bind(Stub.COMMONS, "/w/api.php", this::commons);
+        bind(Stub.IMAGES, "/wikipedia/", exchange -> respond(exchange, "image/svg+xml", IMAGE));
+    }
+
+    /**
+     * Stops every stub.
+     */
+    public void stop() {
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return The value of the censusUrl context parameter that points at this stub.
+     */
+    public String censusURL() {
+        return base(Stub.CENSUS) + "/census";
+    }
+
+    /**
+     * @return The value of the wikipediaBaseUrl context parameter that points at this stub.
+     */
+    public String wikipediaBase() {
+        return base(Stub.WIKIPEDIA) + "/wiki/";
+    }
+
+    /**
+     * @return The value of the commonsApiUrl context parameter that points at this stub.
+     */
+    public String commonsApiURL() {
+        return base(Stub.COMMONS) + "/w/api.php";
+    }
+
+    /**
+     * @return The value of the imageBaseUrl context parameter that points at this stub.
+     */
+    public String imageBase() {
+        return base(Stub.IMAGES);
+    }
+
+    /**
+     * @return The endpoints of this stub, for an application running in the same process.
+     */
+    public UpstreamEndpoints endpoints() {
+        return new UpstreamEndpoints(censusURL(), wikipediaBase(), commonsApiURL(), imageBase());
+    }
+
+    /**
+     * @return The number of requests every upstream has answered, by upstream label.
+     */
+    public Map<String, Integer> requestCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Stub stub : Stub.values()) {
+            counts.put(stub.label, requests[stub.ordinal()].get());
+        }
+        return counts;
+    }
+
+    private String base(Stub stub) {
+        return "http://localhost:" + (port + stub.ordinal());
+    }
+
+    private void bind(Stub stub, String path, HttpHandler handler) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port + stub.ordinal()), 128);
+        server.createContext(path, exchange -> {
+            try (exchange) {
+                requests[stub.ordinal()].incrementAndGet();
+                if (!delay(stub)) {
+                    return;
+                }
+                if (ThreadLocalRandom.current().nextDouble() < errorRates[stub.ordinal()]) {
+                    exchange.sendResponseHeaders(503, -1);
+                    return;
+                }
+                handler.handle(exchange);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+        servers.add(server);
+    }
+
+    /**
+     * Sleeps for the injected delay of an upstream.
+     *
+     * @return false if the stub is stopping.
+     */
+    private boolean delay(Stub stub) {
+        long mean = latencyMillis[stub.ordinal()];
+        if (mean <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep((long) (mean * (0.5 + ThreadLocalRandom.current().nextDouble())));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void wikipedia(HttpExchange exchange) throws IOException {
+        String title = exchange.getRequestURI().getPath().substring("/wiki/".length());
+        String page = pages.get(title);
+        if (page == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        respond(exchange, "text/html; charset=UTF-8", page.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Answers an imageinfo query like the MediaWiki API, with formatversion=2.
+     */
+    private void commons(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        int titlesAt = query == null ? -1 : query.indexOf("titles=");
+        if (titlesAt < 0) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+        String titles = URLDecoder.decode(query.substring(titlesAt + "titles=".length()).split("&")[0],
+                StandardCharsets.UTF_8);
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (String title : titles.split("\\|")) {
+            String file = title.startsWith("File:") ? title.substring("File:".length()) : title;
+            String user = credits.get(file);
+            Map<String, Object> page = new HashMap<>();
+            page.put("title", title);
+            if (user == null) {
+                page.put("missing", true);
+            } else {
+                page.put("imageinfo", List.of(Map.of("user", user)));
+            }
+            result.add(page);
+        }
+        String json = new Gson().toJson(Map.of("batchcomplete", true, "query", Map.of("pages", result)));
+        respond(exchange, "application/json", json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Parses {@code key=value} pairs separated by commas.
+     *
+     * @param spec The pairs, may be null.
+     * @return The values by key.
+     */
+    static Map<String, Double> parsePairs(String spec) {
+        Map<String, Double> values = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return values;
+        }
+        for (String pair : spec.split(",")) {
+            String[] keyAndValue = pair.trim().split("=");
+            if (keyAndValue.length != 2) {
+                throw new IllegalArgumentException("Expected key=value but got " + pair);
+            }
+            values.put(keyAndValue[0].trim(), Double.parseDouble(keyAndValue[1].trim()));
+        }
+        return values;
+    }
+
+    /**
+     * Parses {@code --name value} options.
+     *
+     * @param args The command line.
+     * @return The values by option name, without the dashes.
+     */
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean flag = i + 1 == args.length || args[i + 1].startsWith("--");
+            options.put(name, flag ? "true" : args[++i]);
+        }
+        return options;
+    }
+
+    /**
+     * Runs the stub upstreams until the process is stopped.
+     *
+     * @param args {@code --port}, {@code --latency upstream=millis,...} and {@code --errors upstream=rate,...}.
+     * @throws IOException if a port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        StubUpstreamServer stub = new StubUpstreamServer(
+                Integer.parseInt(options.getOrDefault("port", String.valueOf(DEFAULT_PORT))),
+                parsePairs(options.get("latency")), parsePairs(options.get("errors")));
+        stub.start();
+        System.out.println("Stub upstreams are running, set these context parameters in web.xml:");
+        System.out.println("  censusUrl        " + stub.censusURL());
+        System.out.println("  wikipediaBaseUrl " + stub.wikipediaBase());
+        System.out.println("  commonsApiUrl    " + stub.commonsApiURL());
+        System.out.println("  imageBaseUrl     " + stub.imageBase());
+    }
+}
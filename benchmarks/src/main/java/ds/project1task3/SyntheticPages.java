@@ -0,0 +1,424 @@
+/**
+ * The {@code SyntheticPages} class builds stand-ins for the upstream responses the benchmarks run against, for a
+ * machine that cannot reach Census, Wikipedia or Commons.
+ *
+ * A page is shaped and sized after a real state article as {@link HttpFetcher} streams it: the head with its
+ * style and script links and the page configuration blob, the site navigation and table of contents, the
+ * {@code ib-settlement} infobox with about 85 rows (flag and seal cell, capital on row 12, governor on row 17
+ * followed by the lieutenant governor, area, population, demographic and symbol rows with references and
+ * images, and a nested table), and one read chunk of article text after it. That is roughly 95 KB of markup per
+ * state, of which about 30 KB is the infobox. The values are made up and vary per state, but the markup is not
+ * Wikipedia's own, so results are comparable between two runs on these pages and not with production numbers.
+ */
+
+package ds.project1task3;
+
+// Import gson and the necessary Java classes
+import com.google.gson.Gson;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+final class SyntheticPages {
+    // Rows of the Census response that are not states, the application must skip them
+    private static final String[][] OTHER_ROWS = {{"District of Columbia", "11"}, {"Puerto Rico", "72"}};
+
+    private SyntheticPages() {
+    }
+
+    /**
+     * Builds a Census response with a made-up population for every state, plus the rows of the District of
+     * Columbia and Puerto Rico that the real response also has.
+     *
+     * @return The response in the layout of the Census API.
+     */
+    static String census() {
+        List<List<String>> rows = new ArrayList<>();
+        rows.add(List.of("NAME", "P1_001N", "state"));
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            rows.add(List.of(StateRegistry.name(i), String.valueOf(population(i)), StateRegistry.fips(i)));
+        }
+        for (String[] other : OTHER_ROWS) {
+            rows.add(List.of(other[0], "689545", other[1]));
+        }
+        return new Gson().toJson(rows);
+    }
+
+    /**
+     * Builds a made-up uploader for the flag and seal of every state, keyed by Commons file name like the
+     * answers of the imageinfo API.
+     *
+     * @return The uploader of every flag and seal file.
+     */
+    static Map<String, String> credits() {
+        Map<String, String> credits = new TreeMap<>();
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            for (SymbolImageExtractor.Symbol symbol : SymbolImageExtractor.Symbol.values()) {
+                credits.put(StateRegistry.commonsFile(i, symbol), "Uploader " + StateRegistry.fips(i));
+            }
+        }
+        return credits;
+    }
+
+    /**
+     * Builds the page of a state as {@link HttpFetcher} returns it after stopping at the end of the infobox.
+     *
+     * @param ordinal The {@link StateRegistry} ordinal of the state.
+     * @param imageHost The protocol-relative host of the flag and seal images, e.g. "//upload.wikimedia.org".
+     * @return The page, without line terminators.
+     */
+    static String page(int ordinal, String imageHost) {
+        String state = StateRegistry.name(ordinal);
+        String title = StateRegistry.wikipediaTitle(ordinal);
+        StringBuilder page = new StringBuilder(96 * 1024);
+        head(page, state, title, ordinal);
+        navigation(page, state, ordinal);
+        page.append("<main id=\"content\" class=\"mw-body\"><header class=\"mw-body-header vector-page-titlebar\">")
+                .append("<h1 id=\"firstHeading\" class=\"firstHeading mw-first-heading\"><span class=\"mw-page-title-main\">")
+                .append(state).append("</span></h1></header>")
+                .append("<div id=\"bodyContent\" class=\"vector-body\"><div id=\"siteSub\" class=\"noprint\">From Wikipedia, the free encyclopedia</div>")
+                .append("<div id=\"mw-content-text\" class=\"mw-body-content\"><div class=\"mw-content-ltr mw-parser-output\" lang=\"en\" dir=\"ltr\">")
+                .append("<div class=\"shortdescription nomobile noexcerpt noprint searchaux\" style=\"display:none\">U.S. state</div>")
+                .append("<div role=\"note\" class=\"hatnote navigation-not-searchable\">This article is about the U.S. state. For other uses, see <a href=\"/wiki/")
+                .append(title).append("_(disambiguation)\" class=\"mw-disambig\">").append(state).append(" (disambiguation)</a>.</div>");
+        infobox(page, state, title, ordinal, imageHost);
+        article(page, state, title, ordinal);
+        return page.toString();
+    }
+
+    private static void head(StringBuilder page, String state, String title, int ordinal) {
+        page.append("<!DOCTYPE html><html class=\"client-nojs vector-feature-language-in-header-enabled vector-feature-main-menu-pinned-disabled\" lang=\"en\" dir=\"ltr\">")
+                .append("<head><meta charset=\"UTF-8\"><title>").append(state).append(" - Wikipedia</title>")
+                .append("<script>(function(){var className=\"client-js vector-feature-language-in-header-enabled\";")
+                .append("document.documentElement.className=className;}());RLCONF={\"wgBreakFrames\":false,")
+                .append("\"wgSeparatorTransformTable\":[\"\",\"\"],\"wgDigitTransformTable\":[\"\",\"\"],")
+                .append("\"wgDefaultDateFormat\":\"dmy\",\"wgMonthNames\":[\"\",\"January\",\"February\",\"March\",")
+                .append("\"April\",\"May\",\"June\",\"July\",\"August\",\"September\",\"October\",\"November\",\"December\"],")
+                .append("\"wgRequestId\":\"").append(Integer.toHexString(0x5eed0000 + ordinal * 7919)).append("\",")
+                .append("\"wgCanonicalNamespace\":\"\",\"wgCanonicalSpecialPageName\":false,\"wgNamespaceNumber\":0,")
+                .append("\"wgPageName\":\"").append(title).append("\",\"wgTitle\":\"").append(state).append("\",")
+                .append("\"wgCurRevisionId\":").append(1_200_000_000L + ordinal * 104_729L).append(",")
+                .append("\"wgArticleId\":").append(18_000 + ordinal * 131).append(",\"wgCategories\":[");
+        String[] categories = {"Articles with short description", "Short description is different from Wikidata",
+                "Wikipedia indefinitely semi-protected pages", "Use mdy dates", "Coordinates on Wikidata",
+                "Pages using multiple image with auto scaled images", "Articles containing potentially dated statements",
+                "All articles containing potentially dated statements", "Articles with hAudio microformats",
+                "Spoken articles", "Commons category link is on Wikidata", "Articles with VIAF identifiers",
+                "Articles with GND identifiers", "Articles with LCCN identifiers", "Articles with NARA identifiers"};
+        for (int i = 0; i < categories.length; i++) {
+            page.append(i == 0 ? "" : ",").append('"').append(categories[i]).append('"');
+        }
+        page.append(",\"States of the United States\",\"").append(state).append("\"],\"wgPageContentLanguage\":\"en\",")
+                .append("\"wgPageContentModel\":\"wikitext\",\"wgRelevantPageName\":\"").append(title).append("\",")
+                .append("\"wgRelevantArticleId\":").append(18_000 + ordinal * 131).append(",\"wgIsProbablyEditable\":false,")
+                .append("\"wgRestrictionEdit\":[\"autoconfirmed\"],\"wgRestrictionMove\":[\"sysop\"],")
+                .append("\"wgWikibaseItemId\":\"Q").append(1_400 + ordinal * 17).append("\"};")
+                .append("RLSTATE={\"ext.globalCssJs.user.styles\":\"ready\",\"site.styles\":\"ready\",")
+                .append("\"user.styles\":\"ready\",\"ext.globalCssJs.user\":\"ready\",\"user\":\"ready\",")
+                .append("\"user.options\":\"loading\",\"ext.cite.styles\":\"ready\",\"ext.kartographer.style\":\"ready\",")
+                .append("\"skins.vector.search.codex.styles\":\"ready\",\"skins.vector.styles\":\"ready\",")
+                .append("\"skins.vector.icons\":\"ready\",\"jquery.makeCollapsible.styles\":\"ready\",")
+                .append("\"ext.wikimediamessages.styles\":\"ready\",\"ext.visualEditor.desktopArticleTarget.noscript\":\"ready\",")
+                .append("\"ext.uls.interlanguage\":\"ready\",\"wikibase.client.init\":\"ready\"};")
+                .append("RLPAGEMODULES=[\"ext.cite.ux-enhancements\",\"ext.kartographer.link\",\"mediawiki.page.media\",")
+                .append("\"ext.scribunto.logs\",\"site\",\"mediawiki.page.ready\",\"jquery.makeCollapsible\",")
+                .append("\"mediawiki.toc\",\"skins.vector.js\",\"ext.centralNotice.geoIP\",\"ext.gadget.ReferenceTooltips\",")
+                .append("\"ext.gadget.switcher\",\"ext.urlShortener.toolbar\",\"ext.centralauth.centralautologin\",")
+                .append("\"mmv.bootstrap\",\"ext.popups\",\"ext.visualEditor.desktopArticleTarget.init\",")
+                .append("\"ext.echo.centralauth\",\"ext.eventLogging\",\"ext.wikimediaEvents\",\"ext.navigationTiming\",")
+                .append("\"ext.uls.interface\",\"ext.cx.eventlogging.campaigns\",\"wikibase.client.vector-2022\"];</script>");
+        String[] stylesheets = {"ext.cite.styles", "ext.kartographer.style", "ext.uls.interlanguage",
+                "ext.visualEditor.desktopArticleTarget.noscript", "ext.wikimediamessages.styles",
+                "jquery.makeCollapsible.styles", "skins.vector.icons,styles", "skins.vector.search.codex.styles",
+                "wikibase.client.init", "site.styles"};
+        for (String stylesheet : stylesheets) {
+            page.append("<link rel=\"stylesheet\" href=\"/w/load.php?lang=en&amp;modules=").append(stylesheet)
+                    .append("&amp;only=styles&amp;skin=vector-2022\">");
+        }
+        page.append("<script async=\"\" src=\"/w/load.php?lang=en&amp;modules=startup&amp;only=scripts&amp;raw=1&amp;skin=vector-2022\"></script>")
+                .append("<meta name=\"generator\" content=\"MediaWiki 1.43.0-wmf.1\"><meta name=\"referrer\" content=\"origin\">")
+                .append("<meta name=\"format-detection\" content=\"telephone=no\">")
+                .append("<meta property=\"og:image\" content=\"https://upload.wikimedia.org/wikipedia/commons/thumb/Flag_of_")
+                .append(title).append(".svg/1200px-Flag_of_").append(title).append(".svg.png\">")
+                .append("<meta name=\"viewport\" content=\"width=1120\"><meta property=\"og:title\" content=\"")
+                .append(state).append(" - Wikipedia\"><meta property=\"og:type\" content=\"website\">")
+                .append("<link rel=\"alternate\" media=\"only screen and (max-width: 640px)\" href=\"//en.m.wikipedia.org/wiki/")
+                .append(title).append("\"><link rel=\"icon\" href=\"/static/favicon/wikipedia.ico\">")
+                .append("<link rel=\"search\" type=\"application/opensearchdescription+xml\" href=\"/w/rest.php/v1/search\" title=\"Wikipedia (en)\">")
+                .append("<link rel=\"EditURI\" type=\"application/rsd+xml\" href=\"//en.wikipedia.org/w/api.php?action=rsd\">")
+                .append("<link rel=\"canonical\" href=\"https://en.wikipedia.org/wiki/").append(title).append("\">")
+                .append("<link rel=\"dns-prefetch\" href=\"//meta.wikimedia.org\"><link rel=\"dns-prefetch\" href=\"//login.wikimedia.org\">")
+                .append("</head><body class=\"skin-vector skin-vector-search-vue mediawiki ltr sitedir-ltr mw-hide-empty-elt ns-0 ns-subject page-")
+                .append(title).append(" rootpage-").append(title).append(" skin-vector-2022 action-view\">")
+                .append("<a class=\"mw-jump-link\" href=\"#bodyContent\">Jump to content</a>");
+    }
+
+    private static void navigation(StringBuilder page, String state, int ordinal) {
+        page.append("<div class=\"vector-header-container\"><header class=\"vector-header mw-header\">")
+                .append("<nav class=\"vector-main-menu-landmark\" aria-label=\"Site\"><div id=\"vector-main-menu\" class=\"vector-menu\">")
+                .append("<div class=\"vector-menu-content\"><ul class=\"vector-menu-content-list\">");
+        String[] menu = {"Main page", "Contents", "Current events", "Random article", "About Wikipedia", "Contact us",
+                "Help", "Learn to edit", "Community portal", "Recent changes", "Upload file", "Special pages"};
+        for (String item : menu) {
+            page.append("<li id=\"n-").append(item.toLowerCase().replace(' ', '-'))
+                    .append("\" class=\"mw-list-item\"><a href=\"/wiki/Special:").append(item.replace(' ', '_'))
+                    .append("\" title=\"").append(item).append("\"><span>").append(item).append("</span></a></li>");
+        }
+        page.append("</ul></div></div></nav></header></div>")
+                .append("<div class=\"mw-page-container\"><div class=\"mw-page-container-inner\">")
+                .append("<div class=\"vector-column-start\"><nav id=\"mw-panel-toc\" aria-label=\"Contents\" class=\"vector-toc-landmark\">")
+                .append("<div id=\"vector-toc\" class=\"vector-toc vector-pinnable-element\"><ul id=\"mw-panel-toc-list\" class=\"vector-toc-contents\">");
+        String[] sections = {"Etymology", "History", "Prehistory", "Colonial era", "Statehood", "Civil War",
+                "Industrialization", "20th century", "21st century", "Geography", "Climate", "Ecology",
+                "Demographics", "Population", "Ethnicity", "Religion", "Languages", "Economy", "Agriculture",
+                "Energy", "Tourism", "Transportation", "Highways", "Rail", "Aviation", "Law and government",
+                "State government", "Federal representation", "Politics", "Education", "Higher education",
+                "Culture", "Arts", "Sports", "Media", "State symbols", "Notable people", "See also", "Notes",
+                "References", "Further reading", "External links"};
+        for (int i = 0; i < sections.length; i++) {
+            String id = sections[i].replace(' ', '_');
+            page.append("<li id=\"toc-").append(id).append("\" class=\"vector-toc-list-item vector-toc-level-")
+                    .append(i % 5 == 0 ? 1 : 2).append("\"><a class=\"vector-toc-link\" href=\"#").append(id)
+                    .append("\"><div class=\"vector-toc-text\"><span class=\"vector-toc-numb\">").append(i + 1)
+                    .append("</span><span>").append(sections[i]).append("</span></div></a>")
+                    .append("<ul id=\"toc-").append(id).append("-sublist\" class=\"vector-toc-list\"></ul></li>");
+        }
+        page.append("</ul></div></nav></div>")
+                .append("<div class=\"mw-content-container\"><div class=\"vector-page-toolbar\"><nav aria-label=\"Namespaces\">")
+                .append("<ul class=\"vector-menu-content-list\">");
+        // Interlanguage links, a real state page has a couple of hundred of them
+        for (int i = 0; i < 180; i++) {
+            String lang = String.valueOf((char) ('a' + i % 26)) + (char) ('a' + (i / 26 + ordinal) % 26);
+            page.append("<li class=\"interlanguage-link interwiki-").append(lang).append(" mw-list-item\">")
+                    .append("<a href=\"https://").append(lang).append(".wikipedia.org/wiki/").append(state.replace(' ', '_'))
+                    .append("\" title=\"").append(state).append(" – ").append(lang).append("\" lang=\"").append(lang)
+                    .append("\" hreflang=\"").append(lang).append("\" class=\"interlanguage-link-target\"><span>")
+                    .append(state).append("</span></a></li>");
+        }
+        page.append("</ul></nav></div>");
+    }
+
+    private static void infobox(StringBuilder page, String state, String title, int ordinal, String imageHost) {
+        int seed = ordinal + 1;
+        // Row 1: name, row 2: type
+        page.append("<table class=\"infobox ib-settlement vcard\"><tbody>")
+                .append("<tr><th colspan=\"2\" class=\"infobox-above\"><div class=\"fn org\">").append(state)
+                .append("</div></th></tr>")
+                .append("<tr><td colspan=\"2\" class=\"infobox-subheader\"><div class=\"category\">")
+                .append("<a href=\"/wiki/U.S._state\" title=\"U.S. state\">State</a></div></td></tr>");
+        // Row 3: flag and seal
+        page.append("<tr class=\"mergedtoprow\"><td colspan=\"2\" class=\"infobox-full-data maptable\">")
+                .append("<div class=\"ib-settlement-cols\"><div class=\"ib-settlement-cols-row\">")
+                .append(symbolCell(StateRegistry.commonsFile(ordinal, SymbolImageExtractor.Symbol.FLAG), "Flag",
+                        imageHost))
+                .append(symbolCell(StateRegistry.commonsFile(ordinal, SymbolImageExtractor.Symbol.SEAL), "Seal",
+                        imageHost))
+                .append("</div></div></td></tr>");
+        // Rows 4 to 11
+        row(page, "mergedtoprow", "Nickname(s)", "<div class=\"nickname\">The " + state + " State"
+                + ref(seed) + "</div>");
+        row(page, "mergedrow", "Motto(s)", "<i lang=\"la\">" + "Lux et veritas ".repeat(1 + seed % 3).trim()
+                + "</i><br>(Latin for 'light and truth')" + ref(seed + 1));
+        row(page, "mergedrow", "Anthem", "\"<a href=\"/wiki/" + title + "_state_song\">Song of " + state
+                + "</a>\"<span typeof=\"mw:File\"><span><audio id=\"mwe_player_" + seed
+                + "\" controls=\"\" preload=\"none\" data-mwtitle=\"" + title + "_anthem.ogg\"></audio></span></span>");
+        page.append("<tr class=\"mergedtoprow\"><td colspan=\"2\" class=\"infobox-full-data\"><div class=\"ib-settlement-map\">")
+                .append("<span class=\"notpageimage\" typeof=\"mw:File\"><a href=\"/wiki/File:Map_of_USA_").append(title)
+                .append(".svg\" class=\"mw-file-description\"><img alt=\"Map of the United States with ").append(state)
+                .append(" highlighted\" src=\"").append(imageHost).append("/wikipedia/commons/thumb/Map_of_USA_")
+                .append(title).append(".svg/290px-Map_of_USA_").append(title).append(".svg.png\" decoding=\"async\" width=\"290\" height=\"180\" srcset=\"")
+                .append(imageHost).append("/wikipedia/commons/thumb/Map_of_USA_").append(title).append(".svg/435px-Map_of_USA_")
+                .append(title).append(".svg.png 1.5x, ").append(imageHost).append("/wikipedia/commons/thumb/Map_of_USA_")
+                .append(title).append(".svg/580px-Map_of_USA_").append(title)
+                .append(".svg.png 2x\"></a></span></div><div class=\"infobox-caption\">Map of the United States with ")
+                .append(state).append(" highlighted</div></td></tr>");
+        row(page, "mergedtoprow", "Country", "<a href=\"/wiki/United_States\">United States</a>");
+        row(page, "mergedtoprow", "Before statehood", "<a href=\"/wiki/" + title + "_Territory\">" + state
+                + " Territory</a>");
+        row(page, "mergedtoprow", "Admitted to the Union", "<span class=\"nowrap\">" + month(seed) + " "
+                + (1 + seed % 28) + ", " + (1787 + seed * 3) + "</span> (" + (seed) + "th)" + ref(seed + 2));
+        row(page, "mergedtoprow", "Admission order", seed + "th");
+        // Row 12: capital
+        row(page, "mergedtoprow", "Capital", "<a href=\"/wiki/Capital_City_" + title + "\" title=\"Capital City, "
+                + state + "\">Capital City " + seed + "</a>");
+        // Rows 13 to 16
+        row(page, "mergedtoprow", "Largest city", "<a href=\"/wiki/Big_City_" + title + "\">Big City " + seed
+                + "</a>");
+        row(page, "mergedrow", "Largest county or equivalent", "<a href=\"/wiki/Big_County_" + title
+                + "\">Big County</a>");
+        row(page, "mergedrow", "Largest metro and urban areas", "<a href=\"/wiki/Metro_" + title
+                + "\">Greater Big City</a>");
+        page.append("<tr class=\"mergedtoprow\"><th colspan=\"2\" class=\"infobox-header\">")
+                .append("<a href=\"/wiki/Government_of_").append(title).append("\">Government</a></th></tr>");
+        // Row 17: governor, then the lieutenant governor
+        row(page, "mergedrow", fn("<a href=\"/wiki/Governor_of_" + title + "\">Governor</a>"),
+                "<span class=\"nowrap\"><a href=\"/wiki/Governor_Person_" + seed + "\">Governor Person " + seed
+                        + "</a> (<a href=\"/wiki/Party_" + seed % 2 + "\">" + (seed % 2 == 0 ? "D" : "R")
+                        + "</a>)</span>");
+        row(page, "mergedrow", fn("<a href=\"/wiki/Lieutenant_Governor_of_" + title + "\">Lieutenant Governor</a>"),
+                "<span class=\"nowrap\"><a href=\"/wiki/Deputy_Person_" + seed + "\">Deputy Person " + seed
+                        + "</a></span>");
+        row(page, "mergedrow", fn("Legislature"), "<a href=\"/wiki/" + title + "_General_Assembly\">General Assembly</a>");
+        row(page, "mergedrow", fn("Upper house"), "<a href=\"/wiki/" + title + "_Senate\">Senate</a>");
+        row(page, "mergedrow", fn("Lower house"), "<a href=\"/wiki/" + title + "_House\">House of Representatives</a>");
+        row(page, "mergedrow", fn("Judiciary"), "<a href=\"/wiki/" + title + "_Supreme_Court\">Supreme Court of "
+                + state + "</a>");
+        row(page, "mergedtoprow", "U.S. senators", "<a href=\"/wiki/Senator_A_" + seed + "\">Senator A</a> (D)"
+                + "<br><a href=\"/wiki/Senator_B_" + seed + "\">Senator B</a> (R)");
+        // A nested table, as in the delegation row of several real infoboxes
+        page.append("<tr class=\"mergedrow\"><th scope=\"row\" class=\"infobox-label\">U.S. House delegation</th>")
+                .append("<td class=\"infobox-data\"><table class=\"wikitable\" style=\"font-size:90%\"><tbody>");
+        for (int district = 1; district <= 3 + seed % 6; district++) {
+            page.append("<tr><td>").append(district).append("</td><td><a href=\"/wiki/Representative_").append(seed)
+                    .append('_').append(district).append("\">Representative ").append(district)
+                    .append("</a></td><td>").append(district % 2 == 0 ? "D" : "R").append("</td></tr>");
+        }
+        page.append("</tbody></table></td></tr>");
+        // Area, elevation and population rows
+        page.append("<tr class=\"mergedtoprow\"><th colspan=\"2\" class=\"infobox-header\">Area")
+                .append(ref(seed + 3)).append("</th></tr>");
+        String[] areas = {"Total", "Land", "Water", "Area rank", "Length", "Width"};
+        for (int i = 0; i < areas.length; i++) {
+            row(page, "mergedrow", fn(areas[i]), quantity(seed * 1_013 + i * 977, "sq&nbsp;mi", "km<sup>2</sup>")
+                    + ref(seed + 4 + i));
+        }
+        page.append("<tr class=\"mergedtoprow\"><th colspan=\"2\" class=\"infobox-header\">Elevation</th></tr>");
+        String[] elevations = {"Highest elevation", "Mean elevation", "Lowest elevation"};
+        for (int i = 0; i < elevations.length; i++) {
+            row(page, "mergedrow", fn(elevations[i]), quantity(seed * 37 + i * 211, "ft", "m") + ref(seed + 10 + i));
+        }
+        page.append("<tr class=\"mergedtoprow\"><th colspan=\"2\" class=\"infobox-header\">Population")
+                .append(ref(seed + 13)).append("</th></tr>");
+        String[] populations = {"Total", "Rank", "Density", "Density rank", "Median household income",
+                "Income rank"};
+        for (int i = 0; i < populations.length; i++) {
+            row(page, "mergedrow", fn(populations[i]), "<span class=\"nowrap\">" + (population(ordinal) / (i + 1))
+                    + "</span><span class=\"nowrap\"> (" + (1 + (seed + i) % 50) + "th)</span>" + ref(seed + 14 + i));
+        }
+        row(page, "mergedtoprow", "Demonym", state + "n");
+        String[] ethnicities = {"White", "Black or African American", "Hispanic or Latino", "Asian",
+                "Native American", "Pacific Islander", "Two or more races", "Other"};
+        row(page, "mergedtoprow", "Ethnic groups", plainlist(ethnicities, seed) + ref(seed + 30));
+        String[] religions = {"Protestantism", "Catholicism", "Other Christian", "Judaism", "Islam", "Buddhism",
+                "Other religion", "Unaffiliated"};
+        row(page, "mergedtoprow", "Religion", plainlist(religions, seed + 1) + ref(seed + 31));
+        page.append("<tr class=\"mergedtoprow\"><th colspan=\"2\" class=\"infobox-header\">GDP").append(ref(seed + 32))
+                .append("</th></tr>");
+        String[] gdp = {"Total", "Per capita", "Rank", "Growth"};
+        for (int i = 0; i < gdp.length; i++) {
+            row(page, "mergedrow", fn(gdp[i]), "$" + (seed * 31_337 + i * 4_111) + " million" + ref(seed + 33 + i));
+        }
+        page.append("<tr class=\"mergedtoprow\"><th colspan=\"2\" class=\"infobox-header\">Language</th></tr>");
+        row(page, "mergedrow", fn("Official language"), "English");
+        row(page, "mergedrow", fn("Spoken language"), "<div class=\"plainlist\"><ul><li>English "
+                + (80 + seed % 15) + "%</li><li>Spanish " + (2 + seed % 10) + "%</li><li>Other "
+                + (1 + seed % 5) + "%</li></ul></div>" + ref(seed + 20));
+        page.append("<tr class=\"mergedtoprow\"><th colspan=\"2\" class=\"infobox-header\">Time zone</th></tr>");
+        row(page, "mergedrow", fn("Time zone"), "<a href=\"/wiki/Eastern_Time_Zone\">Eastern</a>: "
+                + "<a href=\"/wiki/UTC%E2%88%9205:00\">UTC−05:00</a>");
+        row(page, "mergedrow", fn("Summer (DST)"), "<a href=\"/wiki/UTC%E2%88%9204:00\">UTC−04:00</a>");
+        row(page, "mergedtoprow", "USPS abbreviation", "<span class=\"nowrap\">" + abbreviation(state) + "</span>");
+        row(page, "mergedtoprow", "ISO 3166 code", "<a href=\"/wiki/ISO_3166-2:US\">ISO 3166-2:US</a>");
+        row(page, "mergedtoprow", "Traditional abbreviation", state.substring(0, Math.min(4, state.length())) + ".");
+        row(page, "mergedtoprow", "Latitude", (25 + seed % 24) + "° N to " + (30 + seed % 19) + "° N");
+        row(page, "mergedtoprow", "Longitude", (70 + seed % 40) + "° W to " + (75 + seed % 45) + "° W");
+        row(page, "mergedtoprow", "Coordinates", "<span class=\"geo-inline\"><span class=\"plainlinks nourlexpansion\">"
+                + "<a class=\"external text\" href=\"https://geohack.toolforge.org/geohack.php?pagename=" + title
+                + "&amp;params=" + (30 + seed % 19) + "_N_" + (75 + seed % 45) + "_W_region:US_type:adm1st\">"
+                + "<span class=\"geo-default\"><span class=\"geo-dms\" title=\"Maps, aerial photos, and other data\">"
+                + "<span class=\"latitude\">" + (30 + seed % 19) + "°N</span> <span class=\"longitude\">"
+                + (75 + seed % 45) + "°W</span></span></span></a></span></span>");
+        // The state symbols, each with a small image like the symbol rows of a real infobox
+        page.append("<tr class=\"mergedtoprow\"><th colspan=\"2\" class=\"infobox-header\">State symbols</th></tr>");
+        String[] symbols = {"Bird", "Flower", "Tree", "Mammal", "Insect", "Fish", "Reptile", "Mineral", "Rock",
+                "Beverage", "Dance", "Song"};
+        for (String symbol : symbols) {
+            String file = title + "_state_" + symbol.toLowerCase() + ".jpg";
+            row(page, "mergedrow", fn(symbol), "<span typeof=\"mw:File\"><a href=\"/wiki/File:" + file
+                    + "\" class=\"mw-file-description\"><img src=\"" + imageHost + "/wikipedia/commons/thumb/" + file
+                    + "/40px-" + file + "\" decoding=\"async\" width=\"40\" height=\"30\" class=\"mw-file-element\" "
+                    + "srcset=\"" + imageHost + "/wikipedia/commons/thumb/" + file + "/60px-" + file + " 1.5x, "
+                    + imageHost + "/wikipedia/commons/thumb/" + file + "/80px-" + file + " 2x\"></a></span> "
+                    + "<a href=\"/wiki/State_" + symbol.toLowerCase() + "_of_" + title + "\">State " + symbol.toLowerCase()
+                    + " of " + state + "</a>" + ref(seed + 40));
+        }
+        row(page, "mergedtoprow", "Website", "<span class=\"url\"><a rel=\"nofollow\" class=\"external text\" href=\"https://"
+                + title.toLowerCase() + ".gov\">" + title.toLowerCase() + ".gov</a></span>");
+        page.append("<tr><td colspan=\"2\" class=\"infobox-below\"><div class=\"navbar\">")
+                .append("<a href=\"/wiki/Template:Infobox_U.S._state\">v</a> <a href=\"/wiki/Template_talk:Infobox_U.S._state\">t</a>")
+                .append(" <a href=\"/wiki/Special:EditPage/Template:Infobox_U.S._state\">e</a></div></td></tr>")
+                .append("</tbody></table>");
+    }
+
+    private static void article(StringBuilder page, String state, String title, int ordinal) {
+        // The fetch stops within the read chunk that closes the infobox, so about one chunk of text follows it
+        int target = page.length() + 8192;
+        int paragraph = 0;
+        while (page.length() < target) {
+            page.append("<p><b>").append(state).append("</b> is a <a href=\"/wiki/U.S._state\">state</a> in the ")
+                    .append("<a href=\"/wiki/Region_").append(ordinal % 4).append("\">region ").append(ordinal % 4)
+                    .append("</a> of the United States. It borders ").append(paragraph + 2)
+                    .append(" other states and has a population of ").append(population(ordinal))
+                    .append(" according to the <a href=\"/wiki/2020_United_States_census\">2020 census</a>")
+                    .append(ref(ordinal + paragraph)).append(". Its capital is Capital City ").append(ordinal + 1)
+                    .append(" and its largest city is Big City ").append(ordinal + 1).append(" in <a href=\"/wiki/")
+                    .append(title).append("\">").append(state).append("</a>.</p>");
+            paragraph++;
+        }
+    }
+
+    private static void row(StringBuilder page, String rowClass, String label, String data) {
+        page.append("<tr class=\"").append(rowClass).append("\"><th scope=\"row\" class=\"infobox-label\">")
+                .append(label).append("</th><td class=\"infobox-data\">").append(data).append("</td></tr>");
+    }
+
+    private static String fn(String label) {
+        return "<div class=\"ib-settlement-fn\">&#160;&#8226;&#160;" + label + "</div>";
+    }
+
+    private static String plainlist(String[] items, int seed) {
+        StringBuilder list = new StringBuilder("<div class=\"plainlist\"><ul>");
+        for (int i = 0; i < items.length; i++) {
+            list.append("<li>").append((seed * 7 + i * 13) % 60 + 1).append(".").append(i).append("% <a href=\"/wiki/")
+                    .append(items[i].replace(' ', '_')).append("_Americans\">").append(items[i]).append("</a></li>");
+        }
+        return list.append("</ul></div>").toString();
+    }
+
+    private static String ref(int n) {
+        return "<sup id=\"cite_ref-" + n + "\" class=\"reference\"><a href=\"#cite_note-" + n + "\"><span class=\"cite-bracket\">"
+                + "&#91;</span>" + n + "<span class=\"cite-bracket\">&#93;</span></a></sup>";
+    }
+
+    private static String quantity(int value, String unit, String metricUnit) {
+        return value + "&nbsp;" + unit + " (" + (value * 26 / 10) + "&nbsp;" + metricUnit + ")";
+    }
+
+    private static String symbolCell(String file, String label, String imageHost) {
+        return "<div class=\"ib-settlement-cols-cell\"><span typeof=\"mw:File\"><a href=\"/wiki/File:" + file
+                + "\" class=\"mw-file-description\" title=\"" + label + "\"><img alt=\"" + label + "\" src=\""
+                + imageHost + "/wikipedia/commons/thumb/" + file + "/100px-" + file + ".png\" decoding=\"async\" "
+                + "width=\"100\" height=\"60\" class=\"mw-file-element\" srcset=\"" + imageHost
+                + "/wikipedia/commons/thumb/" + file + "/150px-" + file + ".png 1.5x, " + imageHost
+                + "/wikipedia/commons/thumb/" + file + "/200px-" + file + ".png 2x\" data-file-width=\"750\" "
+                + "data-file-height=\"450\"></a></span><div class=\"ib-settlement-caption\"><a href=\"/wiki/" + label
+                + "_of_the_state\">" + label + "</a></div></div>";
+    }
+
+    private static String month(int seed) {
+        String[] months = {"January", "February", "March", "April", "May", "June", "July", "August", "September",
+                "October", "November", "December"};
+        return months[seed % months.length];
+    }
+
+    private static String abbreviation(String state) {
+        int space = state.indexOf(' ');
+        return space < 0 ? state.substring(0, 2).toUpperCase()
+                : ("" + state.charAt(0) + state.charAt(space + 1)).toUpperCase();
+    }
+
+    private static int population(int ordinal) {
+        return 500_000 + ordinal * 123_457;
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code AllocationMeter} class counts the heap bytes allocated while state lookups are served, so a load
+ * test can divide the difference between two readings by the number of requests it made.
+ *
+ * Only the work it wraps is measured: the thread's allocation counter is read before and after, and the
+ * difference is added to a running total as soon as the work ends. Threads that later exit take nothing away
+ * from the total, and threads that never run a measured task, such as a stub upstream or the workers of a load
+ * generator in the same JVM, add nothing to it. A task that runs inside another measured task on the same
+ * thread is counted once, by the outer one. The internal threads of the HTTP client are not measured.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class AllocationMeter {
+    // The JVM's per-thread allocation counters, null if the JVM does not measure thread allocation
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounters();
+
+    // Bytes allocated by the measured work so far
+    private final LongAdder allocated = new LongAdder();
+    // How many measured tasks are running on the current thread, only the outermost one counts
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * Runs a task and counts the bytes it allocated on the current thread.
+     *
+     * @param task The task.
+     * @return The result of the task.
+     */
+    public <T> T measure(Supplier<T> task) {
+        long before = begin();
+        try {
+            return task.get();
+        } finally {
+            end(before);
+        }
+    }
+
+    /**
+     * Wraps a task so that the bytes it allocates on whichever thread runs it are counted.
+     *
+     * @param task The task.
+     * @return The measured task.
+     */
+    public <T> Callable<T> measured(Callable<T> task) {
+        return () -> {
+            long before = begin();
+            try {
+                return task.call();
+            } finally {
+                end(before);
+            }
+        };
+    }
+
+    /**
+     * Enters a measured task on the current thread.
+     *
+     * @return The thread's allocation counter, or -1 if this task is not the outermost one or is not measured.
+     */
+    private long begin() {
+        if (THREADS == null) {
+            return -1;
+        }
+        if (depth.get()[0]++ > 0) {
+            return -1;
+        }
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Leaves a measured task on the current thread and adds what it allocated.
+     */
+    private void end(long before) {
+        if (THREADS == null) {
+            return;
+        }
+        depth.get()[0]--;
+        if (before >= 0) {
+            long after = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+            if (after > before) {
+                allocated.add(after - before);
+            }
+        }
+    }
+
+    /**
+     * @return The bytes allocated by the measured work so far, or -1 if the JVM does not measure thread
+     *         allocation.
+     */
+    public long getAllocatedBytes() {
+        return THREADS == null ? -1 : allocated.sum();
+    }
+
+    /**
+     * Writes the allocation counter in the Prometheus text format, unless the JVM does not measure it.
+     *
+     * @param out The writer.
+     */
+    public void write(PrintWriter out) {
+        long bytes = getAllocatedBytes();
+        if (bytes < 0) {
+            return;
+        }
+        out.println("# HELP state_lookup_allocated_bytes_total Heap bytes allocated while serving state lookups.");
+        out.println("# TYPE state_lookup_allocated_bytes_total counter");
+        out.println("state_lookup_allocated_bytes_total " + bytes);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounters() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported() || !allocations.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+        return allocations;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code CircuitBreaker} class stops calls to an upstream host while it is unhealthy.
+ *
+ * The breaker starts closed and lets every call through. After {@code failureThreshold} failures in a row it
+ * opens, and every call fails fast without touching the network until {@code openDuration} has passed. It then
+ * lets a single trial call through (half open): a success closes it again, a failure opens it for another
+ * {@code openDuration}. A failure is a timeout, a connection error or a 5xx or 429 response.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CircuitBreaker {
+    /**
+     * The states of a breaker.
+     */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // Failures in a row that open the breaker
+    private final int failureThreshold;
+    // Time the breaker stays open before a trial call is let through
+    private final long openNanos;
+    // Failures in a row since the last success
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // System.nanoTime() at which the breaker opened, valid while open is true
+    private volatile long openedAt;
+    // True while the breaker is open or half open
+    private volatile boolean open;
+    // True while the single trial call of the half open state is running
+    private final AtomicBoolean trialRunning = new AtomicBoolean();
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param failureThreshold Failures in a row that open the breaker.
+     * @param openDuration Time the breaker stays open before a trial call is let through.
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Decides whether a call may go out. Every call that is let through must report its outcome with
+     * {@link #recordSuccess()} or {@link #recordFailure()}.
+     *
+     * @return true if the call may go out, false if it should fail fast.
+     */
+    public boolean allowRequest() {
+        if (!open) {
+            return true;
+        }
+        if (System.nanoTime() - openedAt < openNanos) {
+            return false;
+        }
+        // Half open, let exactly one trial call through
+        return trialRunning.compareAndSet(false, true);
+    }
+
+    /**
+     * Records a successful call, which closes the breaker.
+     */
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (open) {
+            open = false;
+            trialRunning.set(false);
+        }
+    }
+
+    /**
+     * Records a failed call, which opens the breaker once the threshold is reached or the trial call failed.
+     */
+    public void recordFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (open || failures >= failureThreshold) {
+            openedAt = System.nanoTime();
+            open = true;
+            trialRunning.set(false);
+        }
+    }
+
+    /**
+     * Records a call whose outcome says nothing about the health of the host, such as a call cancelled by its
+     * caller. It only frees the trial slot so that the next call can try again.
+     */
+    public void recordAbandoned() {
+        trialRunning.set(false);
+    }
+
+    /**
+     * @return The current state of the breaker.
+     */
+    public State getState() {
+        if (!open) {
+            return State.CLOSED;
+        }
+        return System.nanoTime() - openedAt < openNanos ? State.OPEN : State.HALF_OPEN;
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code CommonsCreditResolver} class finds who uploaded the current version of Wikimedia Commons files,
+ * which is the credit shown next to the flag and seal images.
+ *
+ * Instead of scraping the file history table of one Commons HTML page per file, it asks the MediaWiki API for
+ * the {@code imageinfo} user of up to 50 files in a single query and parses the compact JSON answer with Gson.
+ * The flag and seal of a state are therefore resolved with one request, and the warmup resolves every state
+ * with two. Resolved credits, including files that do not exist, are kept for a TTL; failed queries are not.
+ */
+
+package ds.project1task3;
+
+// Import gson and the necessary Java classes
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CommonsCreditResolver {
+    // Default MediaWiki API endpoint of Wikimedia Commons
+    static final String DEFAULT_API_URL = "https://commons.wikimedia.org/w/api.php";
+    // Most titles the API accepts in one query from a client without the apihighlimits right
+    static final int MAX_TITLES_PER_QUERY = 50;
+
+    // The MediaWiki API endpoint
+    private final String apiURL;
+    // The shared HTTP client
+    private final HttpFetcher fetcher;
+    // How long a resolved credit is reused
+    private final long ttlNanos;
+    // Resolved credits by file name, a null credit means the file has no upload
+    private final Map<String, Credit> credits = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a resolver.
+     *
+     * @param apiURL The MediaWiki API endpoint, e.g. {@link #DEFAULT_API_URL}.
+     * @param fetcher The shared HTTP client.
+     * @param ttl How long a resolved credit is reused.
+     */
+    public CommonsCreditResolver(String apiURL, HttpFetcher fetcher, Duration ttl) {
+        this.apiURL = apiURL;
+        this.fetcher = fetcher;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the uploader of every given file, querying the API only for files that are not cached, at most
+     * {@link #MAX_TITLES_PER_QUERY} files per request.
+     *
+     * @param files File names without the "File:" prefix, e.g. "Flag_of_Ohio.svg".
+     * @return The uploader by file name. Files that do not exist or could not be resolved are left out.
+     */
+    public Map<String, String> resolve(Collection<String> files) {
+        Map<String, String> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long now = System.nanoTime();
+        for (String file : new LinkedHashSet<>(files)) {
+            Credit credit = credits.get(file);
+            if (credit != null && now - credit.resolvedAt < ttlNanos) {
+                if (credit.user != null) {
+                    result.put(file, credit.user);
+                }
+            } else {
+                missing.add(file);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += MAX_TITLES_PER_QUERY) {
+            List<String> batch = missing.subList(from, Math.min(missing.size(), from + MAX_TITLES_PER_QUERY));
+            Map<String, String> users = query(batch);
+            if (users == null) {
+                // The query failed, leave the batch unresolved so that the next call tries again
+                continue;
+            }
+            long resolvedAt = System.nanoTime();
+            for (String file : batch) {
+                String user = users.get(file);
+                credits.put(file, new Credit(user, resolvedAt));
+                if (user != null) {
+                    result.put(file, user);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Asks the API for the current uploader of a batch of files.
+     *
+     * @param files At most {@link #MAX_TITLES_PER_QUERY} file names.
+     * @return The uploader by requested file name, or null if the query failed.
+     */
+    private Map<String, String> query(List<String> files) {
+        StringBuilder titles = new StringBuilder();
+        for (String file : files) {
+            if (titles.length() > 0) {
+                titles.append('|');
+            }
+            titles.append("File:").append(file);
+        }
+        String url = apiURL + "?action=query&format=json&formatversion=2&redirects=1&prop=imageinfo"
+                + "&iiprop=user&iilimit=1&titles=" + URLEncoder.encode(titles.toString(), StandardCharsets.UTF_8);
+        String json = fetcher.fetch(Upstream.COMMONS_API, url);
+        if (json == null) {
+            return null;
+        }
+        Response response;
+        try {
+            response = new Gson().fromJson(json, Response.class);
+        } catch (JsonParseException e) {
+            fetcher.getMetrics().recordFailure("commons_answer", "Unreadable Commons imageinfo answer", e);
+            return null;
+        }
+        if (response == null || response.query == null || response.query.pages == null) {
+            return null;
+        }
+
+        // The API answers with the normalized and redirected titles, map them back to the requested ones
+        Map<String, String> renamed = new HashMap<>();
+        addMappings(renamed, response.query.normalized);
+        addMappings(renamed, response.query.redirects);
+        Map<String, String> usersByTitle = new HashMap<>();
+        for (Page page : response.query.pages) {
+            if (!page.missing && page.imageinfo != null && !page.imageinfo.isEmpty()) {
+                usersByTitle.put(page.title, page.imageinfo.get(0).user);
+            }
+        }
+        Map<String, String> users = new HashMap<>();
+        for (String file : files) {
+            String title = "File:" + file;
+            // Follow normalization and then a redirect, guarding against cycles
+            Set<String> seen = new LinkedHashSet<>();
+            while (renamed.containsKey(title) && seen.add(title)) {
+                title = renamed.get(title);
+            }
+            String user = usersByTitle.get(title);
+            if (user != null) {
+                users.put(file, user);
+            }
+        }
+        return users;
+    }
+
+    private static void addMappings(Map<String, String> renamed, List<Mapping> mappings) {
+        if (mappings != null) {
+            for (Mapping mapping : mappings) {
+                renamed.put(mapping.from, mapping.to);
+            }
+        }
+    }
+
+    /**
+     * A resolved credit and when it was resolved.
+     */
+    private static final class Credit {
+        final String user;
+        final long resolvedAt;
+
+        Credit(String user, long resolvedAt) {
+            this.user = user;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+
+    // The parts of the API answer that are read, filled in by Gson
+    private static final class Response {
+        Query query;
+    }
+
+    private static final class Query {
+        List<Mapping> normalized;
+        List<Mapping> redirects;
+        List<Page> pages;
+    }
+
+    private static final class Mapping {
+        String from;
+        String to;
+    }
+
+    private static final class Page {
+        String title;
+        boolean missing;
+        List<ImageInfo> imageinfo;
+    }
+
+    private static final class ImageInfo {
+        String user;
+    }
+}
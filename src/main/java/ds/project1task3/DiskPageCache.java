@@ -0,0 +1,359 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code DiskPageCache} class keeps fetched response bodies on disk so they survive a restart.
+ *
+ * Each body is stored gzip compressed in its own file, named after a hash of its URL, together with the ETag
+ * and Last-Modified validators the server sent. {@link HttpFetcher} uses the validators to revalidate with
+ * If-None-Match / If-Modified-Since, so an unchanged page costs a 304 and no body transfer. The total size of
+ * the stored bodies is capped and the least recently used entries are evicted first. The entry metadata is
+ * kept in one small JSON index file that is read once at startup. Changes to the index are batched: it is
+ * written by a background thread at most once every {@link #INDEX_DELAY}, outside the cache lock, and once
+ * more when the cache is closed. A failed read or write of the disk is counted and logged through the
+ * {@link UpstreamMetrics} it was opened with.
+ */
+
+package ds.project1task3;
+
+// Import gson and the necessary Java classes
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class DiskPageCache {
+    // Name of the index file inside the cache directory
+    private static final String INDEX_FILE = "index.json";
+    // Time changes to the index are collected before it is written
+    static final Duration INDEX_DELAY = Duration.ofSeconds(5);
+
+    // Directory that holds the index and the compressed bodies
+    private final Path directory;
+    // Upper bound on the total size of the compressed bodies
+    private final long maxBytes;
+    // Counts and logs the failed reads and writes of the disk
+    private final UpstreamMetrics metrics;
+    // Entries by URL in least recently used order
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Total size of the compressed bodies on disk
+    private long totalBytes;
+    // True when the entries have changed since the index was last written, guarded by this
+    private boolean dirty;
+    // True while a write of the index is scheduled, guarded by this
+    private boolean writeScheduled;
+    // Serializes the writes of the index, so an older version never replaces a newer one
+    private final Object indexLock = new Object();
+    // Single daemon thread that writes the index
+    private final ScheduledExecutorService indexWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "page-cache-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Opens the cache in the given directory and loads its index.
+     *
+     * @param directory Directory that holds the cache, created if it does not exist.
+     * @param maxBytes Upper bound on the total size of the compressed bodies.
+     * @throws IOException If the directory cannot be created.
+     */
+    public DiskPageCache(Path directory, long maxBytes) throws IOException {
+        this(directory, maxBytes, new UpstreamMetrics());
+    }
+
+    /**
+     * Opens the cache in the given directory and loads its index, reporting failures to the given counters.
+     *
+     * @param directory Directory that holds the cache, created if it does not exist.
+     * @param maxBytes Upper bound on the total size of the compressed bodies.
+     * @param metrics Counts and logs the failed reads and writes of the disk.
+     * @throws IOException If the directory cannot be created.
+     */
+    public DiskPageCache(Path directory, long maxBytes, UpstreamMetrics metrics) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.metrics = metrics;
+        Files.createDirectories(directory);
+        loadIndex();
+    }
+
+    /**
+     * Returns the cached entry for a URL.
+     *
+     * @param url The URL of the page.
+     * @return The entry, or null if the URL is not cached.
+     */
+    public synchronized Entry get(String url) {
+        return entries.get(url);
+    }
+
+    /**
+     * Reads the body of a cached entry.
+     *
+     * @param entry The entry returned by {@link #get(String)}.
+     * @return The body, or null if it could not be read, in which case the entry is dropped unless it has
+     *         been replaced in the meantime.
+     */
+    public String read(Entry entry) {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(directory.resolve(entry.file)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            drop(entry);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a body and its validators, replacing any previous entry for the URL.
+     *
+     * @param url The URL of the page.
+     * @param body The body to store.
+     * @param etag The ETag sent by the server, or null.
+     * @param lastModified The Last-Modified value sent by the server, or null.
+     * @param complete False if the body is only the prefix of the page that a streaming fetch read.
+     */
+    public void put(String url, String body, String etag, String lastModified, boolean complete) {
+        Entry entry = new Entry(url, fileName(url), etag, lastModified, complete);
+        Path file = directory.resolve(entry.file);
+        Path temp = null;
+        try {
+            // Write to a temporary file first so a reader never sees a partly written body
+            temp = Files.createTempFile(directory, entry.file, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+            entry.size = Files.size(temp);
+            // Move the body into place and record its entry under one lock, so that of two puts of the same URL
+            // the file and the index always keep the same one
+            synchronized (this) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Entry previous = entries.put(url, entry);
+                if (previous != null) {
+                    totalBytes -= previous.size;
+                }
+                totalBytes += entry.size;
+                evict();
+                indexChanged();
+            }
+        } catch (IOException e) {
+            metrics.recordFailure("page_cache_write", "Could not write cache entry for " + url, e);
+            if (temp != null) {
+                delete(temp);
+            }
+        }
+    }
+
+    /**
+     * Drops the entry for a URL.
+     *
+     * @param url The URL of the page.
+     */
+    public synchronized void remove(String url) {
+        Entry entry = entries.remove(url);
+        if (entry != null) {
+            totalBytes -= entry.size;
+            deleteFile(entry);
+            indexChanged();
+        }
+    }
+
+    /**
+     * Drops an entry if it is still the current entry of its URL. A newer entry shares the file name, so
+     * dropping the old one would delete the new body.
+     */
+    private synchronized void drop(Entry entry) {
+        if (entries.get(entry.url) == entry) {
+            remove(entry.url);
+        }
+    }
+
+    /**
+     * Writes any pending change of the index and stops the background writer.
+     */
+    public void close() {
+        indexWriter.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Writes the index now if the entries have changed since it was last written.
+     */
+    void flush() {
+        List<Entry> saved;
+        synchronized (this) {
+            writeScheduled = false;
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            saved = new ArrayList<>(entries.values());
+        }
+        synchronized (indexLock) {
+            saveIndex(saved);
+        }
+    }
+
+    /**
+     * Marks the index as changed and schedules its write unless one is already scheduled. Called with the
+     * lock held.
+     */
+    private void indexChanged() {
+        dirty = true;
+        if (writeScheduled) {
+            return;
+        }
+        try {
+            indexWriter.schedule(this::flush, INDEX_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+            writeScheduled = true;
+        } catch (RejectedExecutionException e) {
+            // The cache has been closed, the change is written by the next flush
+        }
+    }
+
+    /**
+     * Evicts least recently used entries until the cache is within its size cap.
+     */
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.size;
+            deleteFile(eldest);
+        }
+    }
+
+    /**
+     * Reads the index written by a previous run, dropping entries whose body file is gone.
+     */
+    private void loadIndex() {
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return;
+        }
+        try (Reader in = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            List<Entry> saved = new Gson().fromJson(in, new TypeToken<List<Entry>>(){}.getType());
+            if (saved == null) {
+                return;
+            }
+            // The index is saved least recently used first, so insertion order restores the LRU order
+            for (Entry entry : saved) {
+                if (entry.url != null && entry.file != null && Files.exists(directory.resolve(entry.file))) {
+                    entries.put(entry.url, entry);
+                    totalBytes += entry.size;
+                }
+            }
+            evict();
+        } catch (IOException | JsonParseException e) {
+            metrics.recordFailure("page_cache_index_load", "Ignoring unreadable page cache index", e);
+        }
+    }
+
+    /**
+     * Writes the index atomically so that a crash never leaves a truncated index behind.
+     *
+     * @param saved The entries in least recently used order.
+     */
+    private void saveIndex(List<Entry> saved) {
+        try {
+            Path temp = Files.createTempFile(directory, INDEX_FILE, ".tmp");
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                new Gson().toJson(saved, out);
+            }
+            Files.move(temp, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            metrics.recordFailure("page_cache_index_save", "Could not write page cache index", e);
+        }
+    }
+
+    private void deleteFile(Entry entry) {
+        delete(directory.resolve(entry.file));
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            metrics.recordFailure("page_cache_delete", "Could not delete cache file " + file.getFileName(), e);
+        }
+    }
+
+    /**
+     * Names the body file of a URL after the SHA-256 hash of the URL.
+     */
+    private static String fileName(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (byte b : hash) {
+                name.append(String.format("%02x", b));
+            }
+            return name.append(".gz").toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Metadata of one cached body.
+     */
+    public static final class Entry {
+        private final String url;
+        private final String file;
+        private final String etag;
+        private final String lastModified;
+        private final boolean complete;
+        private long size;
+
+        Entry(String url, String file, String etag, String lastModified, boolean complete) {
+            this.url = url;
+            this.file = file;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.complete = complete;
+        }
+
+        /**
+         * @return The ETag sent by the server, or null.
+         */
+        public String etag() {
+            return etag;
+        }
+
+        /**
+         * @return The Last-Modified value sent by the server, or null.
+         */
+        public String lastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return False if the body is only the prefix of the page that a streaming fetch read.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,724 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code HttpFetcher} class is the single HTTP client used by every model method.
+ *
+ * It wraps one shared {@link HttpClient}, which pools and keeps alive connections per host and negotiates
+ * HTTP/2 where the server supports it. Every request has a connect and a read timeout and asks for a
+ * compressed response, which is decoded transparently. A fetch can stream the body and stop early once the
+ * caller has everything it needs, which closes the connection without reading the rest. The TLS context is
+ * set up once, when the fetcher is created, and is scoped to this client instead of replacing the JVM wide
+ * defaults. With a {@link DiskPageCache}, bodies are kept on disk and revalidated with conditional requests.
+ * Every call is recorded in {@link UpstreamMetrics} under the {@link Upstream} it belongs to.
+ *
+ * A {@link ResiliencePolicy} protects callers from slow or failing upstreams. Each upstream has its own request
+ * deadline, which bounds the read of the body as well as the wait for the answer, and each host has a
+ * {@link CircuitBreaker} that fails fast while the host is unhealthy. A slow whole-body fetch is hedged: once it
+ * has taken longer than the upstream's p95 latency, a second identical request is sent, whichever answers first
+ * wins and the other one is cancelled. Every request first waits for its host's {@link OutboundScheduler}, which
+ * caps the load on each host and serves interactive requests first.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+public class HttpFetcher {
+    // Default time allowed to establish a connection
+    static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(3);
+    // Default time allowed for the server to answer a request
+    static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(10);
+    // Identifies this application to the upstreams, Wikimedia rejects requests without a User-Agent
+    static final String USER_AGENT = "Project1Task3/1.0 (state information web application)";
+
+    // The shared client, its connection pool is reused by every request
+    private final HttpClient client;
+    // Time allowed for the server to answer a request to an upstream without a deadline of its own
+    private final Duration readTimeout;
+    // Per-upstream deadlines, breaker settings and hedging
+    private final ResiliencePolicy policy;
+    // Limits how hard every host is hit and lets interactive requests go first
+    private final OutboundScheduler scheduler;
+    // Circuit breakers by host and port
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    // Runs the two requests of a hedged fetch, grows on demand and hands every request straight to a thread
+    private final ExecutorService hedgeExecutor;
+    // Closes the body of a response whose deadline has passed while it was still being read
+    private final ScheduledThreadPoolExecutor bodyDeadlines;
+    // Optional on-disk cache of bodies used for conditional revalidation, null if disabled
+    private final DiskPageCache cache;
+    // Stop condition of a fetch that reads the whole body
+    private static final Predicate<StringBuilder> READ_ALL = content -> false;
+    // Collapses concurrent whole-body fetches of the same URL into one request
+    private final SingleFlight<String, String> urlFlights = new SingleFlight<>();
+    // Latency, bytes, status and failure counters of every upstream, plus extraction misses
+    private final UpstreamMetrics metrics;
+
+    /**
+     * Creates a fetcher with the default timeouts that validates certificates against the JVM trust store.
+     */
+    public HttpFetcher() {
+        this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, false, null, ResiliencePolicy.defaults(),
+                new OutboundScheduler());
+    }
+
+    /**
+     * Creates a fetcher.
+     *
+     * @param connectTimeout Time allowed to establish a connection.
+     * @param readTimeout Time allowed for the server to answer a request.
+     * @param trustAllCertificates If true, certificate chains are not validated. This matches the class
+     *                             example the original code was based on and should only be used in
+     *                             trusted environments.
+     * @param cache On-disk cache used to revalidate pages instead of downloading them again, or null.
+     * @param policy Per-upstream deadlines, circuit breaker settings and hedging.
+     * @param scheduler Per-host concurrency limits, rate limits and priorities of outbound requests.
+     */
+    public HttpFetcher(Duration connectTimeout, Duration readTimeout, boolean trustAllCertificates,
+                       DiskPageCache cache, ResiliencePolicy policy, OutboundScheduler scheduler) {
+        this(connectTimeout, readTimeout, trustAllCertificates, cache, policy, scheduler, new UpstreamMetrics());
+    }
+
+    /**
+     * Creates a fetcher that records its calls in the given counters.
+     *
+     * @param connectTimeout Time allowed to establish a connection.
+     * @param readTimeout Time allowed for the server to answer a request.
+     * @param trustAllCertificates If true, certificate chains are not validated.
+     * @param cache On-disk cache used to revalidate pages instead of downloading them again, or null.
+     * @param policy Per-upstream deadlines, circuit breaker settings and hedging.
+     * @param scheduler Per-host concurrency limits, rate limits and priorities of outbound requests.
+     * @param metrics The counters, shared with the page cache so its failures are reported in the same place.
+     */
+    public HttpFetcher(Duration connectTimeout, Duration readTimeout, boolean trustAllCertificates,
+                       DiskPageCache cache, ResiliencePolicy policy, OutboundScheduler scheduler,
+                       UpstreamMetrics metrics) {
+        this.readTimeout = readTimeout;
+        this.metrics = metrics;
+        this.cache = cache;
+        this.policy = policy;
+        this.scheduler = scheduler;
+        this.hedgeExecutor = new ThreadPoolExecutor(0, 64, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, "hedged-fetch");
+            t.setDaemon(true);
+            return t;
+        });
+        this.bodyDeadlines = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "fetch-deadline");
+            t.setDaemon(true);
+            return t;
+        });
+        // Nearly every body is read in time, drop its cancelled deadline instead of keeping it queued
+        bodyDeadlines.setRemoveOnCancelPolicy(true);
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout);
+        if (trustAllCertificates) {
+            builder.sslContext(createTrustAllContext());
+        }
+        this.client = builder.build();
+    }
+
+    /**
+     * Stops the threads of hedged fetches and body deadlines and writes the pending changes of the disk cache.
+     */
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+        bodyDeadlines.shutdownNow();
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    /**
+     * Fetches the content at a URL as text. Line terminators are dropped, as the extractors expect. If the
+     * upstream allows it, a slow fetch is hedged with a second request.
+     *
+     * @param upstream The upstream the URL belongs to, for the metrics, deadline and hedging.
+     * @param url The URL to fetch.
+     * @return The content, or null if the request failed or the server did not answer with 200.
+     */
+    public String fetch(Upstream upstream, String url) {
+        // Concurrent callers for the same URL share one request and its result
+        return urlFlights.execute(url, () -> policy.hedges(upstream)
+                ? fetchHedged(upstream, url)
+                : fetch(upstream, url, READ_ALL));
+    }
+
+    /**
+     * @return The outbound scheduler, for its queue depth and wait time.
+     */
+    public OutboundScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return The circuit breakers by host and port, for their state.
+     */
+    public Map<String, CircuitBreaker> getBreakers() {
+        return breakers;
+    }
+
+    /**
+     * @return The counters of every upstream call made through this fetcher.
+     */
+    public UpstreamMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The single-flight group of whole-body fetches, for its call and collapse counters.
+     */
+    public SingleFlight<String, String> getUrlFlights() {
+        return urlFlights;
+    }
+
+    /**
+     * Streams the content at a URL as text and stops reading as soon as {@code stopWhen} reports that
+     * everything needed has arrived. The connection is then closed and the rest of the body is never read.
+     * Line terminators are dropped, as the extractors expect.
+     *
+     * @param upstream The upstream the URL belongs to, for the metrics and deadline.
+     * @param url The URL to fetch.
+     * @param stopWhen Called with the content read so far after every chunk, returns true to stop reading.
+     * @return The content read, or null if the request failed or the server did not answer with 200.
+     */
+    public String fetch(Upstream upstream, String url, Predicate<StringBuilder> stopWhen) {
+        // A cached prefix from a streaming fetch is only good enough for another streaming fetch
+        DiskPageCache.Entry cached = cache == null ? null : cache.get(url);
+        if (cached != null && !cached.isComplete() && stopWhen == READ_ALL) {
+            cached = null;
+        }
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure("malformed_url", "Something wrong with URL " + url, e);
+            return null;
+        }
+        // Fail fast while the host is unhealthy
+        CircuitBreaker breaker = breakerFor(uri);
+        if (!breaker.allowRequest()) {
+            metrics.recordShortCircuit(upstream);
+            return null;
+        }
+        // Wait for a slot and a token of the host, interactive requests first. The deadline covers the wait, the
+        // request and the read of the body together
+        long deadlineAt = System.nanoTime() + policy.deadline(upstream, readTimeout).toNanos();
+        OutboundScheduler.Permit permit = acquire(upstream, breaker, uri, deadlineAt);
+        if (permit == null) {
+            return null;
+        }
+        boolean refetch = false;
+        long start = System.nanoTime();
+        BodyDeadline bodyDeadline = null;
+        try (permit) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                    .timeout(remaining(deadlineAt))
+                    .header("User-Agent", USER_AGENT)
+                    .header("Accept-Encoding", "gzip, deflate")
+                    .GET();
+            // Ask the server to answer 304 without a body if the cached copy is still current
+            if (cached != null && cached.etag() != null) {
+                builder.header("If-None-Match", cached.etag());
+            }
+            if (cached != null && cached.lastModified() != null) {
+                builder.header("If-Modified-Since", cached.lastModified());
+            }
+            HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            // The request timeout only covers the wait for the headers, the body has to arrive by the deadline too
+            bodyDeadline = expireBody(response.body(), deadlineAt);
+            CountingInputStream wire = new CountingInputStream(response.body());
+            try (InputStream body = wire) {
+                // Server errors and rate limiting count against the host, any other answer shows it is healthy
+                int status = response.statusCode();
+                if (status >= 500 || status == 429) {
+                    breaker.recordFailure();
+                } else {
+                    breaker.recordSuccess();
+                }
+                if (status == 304 && cached != null) {
+                    metrics.recordResponse(upstream, 304, System.nanoTime() - start, wire.count);
+                    String content = cache.read(cached);
+                    if (content != null) {
+                        return content;
+                    }
+                    // An unreadable cached body has been dropped, fetch the page again without validators once
+                    // this request's slot has been released
+                    refetch = true;
+                } else if (status != 200) {
+                    metrics.recordResponse(upstream, status, System.nanoTime() - start, wire.count);
+                    return null;
+                } else {
+                    // Only a 200 has a body to decode, a 304 or an error may be empty whatever its encoding
+                    try (InputStream decoded = decode(response, body)) {
+                        StopTracker tracker = new StopTracker(stopWhen);
+                        String content = read(decoded, tracker);
+                        metrics.recordResponse(upstream, 200, System.nanoTime() - start, wire.count);
+                        store(url, response, content, !tracker.stopped);
+                        return content;
+                    }
+                }
+            }
+        } catch (HttpTimeoutException e) {
+            breaker.recordFailure();
+            metrics.recordTimeout(upstream, System.nanoTime() - start);
+            metrics.log("Timed out fetching " + url, null);
+            return null;
+        } catch (IOException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // The body read was interrupted, the caller gave up on this request
+                breaker.recordAbandoned();
+                metrics.recordCancelled(upstream);
+                return null;
+            }
+            if (bodyDeadline != null && bodyDeadline.expired()) {
+                // The body was closed under the read once the deadline had passed
+                breaker.recordFailure();
+                metrics.recordTimeout(upstream, System.nanoTime() - start);
+                metrics.log("Timed out reading " + url, null);
+                return null;
+            }
+            breaker.recordFailure();
+            metrics.recordError(upstream, System.nanoTime() - start);
+            metrics.log("Something wrong with URL " + url, e);
+            return null;
+        } catch (InterruptedException e) {
+            // The caller's deadline has passed or a hedged request has already won
+            breaker.recordAbandoned();
+            metrics.recordCancelled(upstream);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (RuntimeException e) {
+            // Such as a cached validator that is not a valid header or a stop condition that failed, which must
+            // still end a half-open trial so the host is not shut out for good
+            breaker.recordFailure();
+            metrics.recordError(upstream, System.nanoTime() - start);
+            metrics.log("Something wrong with URL " + url, e);
+            return null;
+        } finally {
+            if (bodyDeadline != null) {
+                bodyDeadline.cancel();
+            }
+        }
+        return refetch ? fetch(upstream, url, stopWhen) : null;
+    }
+
+    /**
+     * Downloads a binary body, such as an image, into a stream as it arrives, without decoding it as text.
+     * The request and the read of its body share the upstream's deadline, and go through the host's circuit
+     * breaker and scheduler.
+     *
+     * @param upstream The upstream the URL belongs to, for the metrics and deadline.
+     * @param url The URL to download.
+     * @param out Receives the body. It may hold a partial body if null is returned.
+     * @return The Content-Type of the body, or null if the request failed or the server did not answer with 200.
+     */
+    public String download(Upstream upstream, String url, OutputStream out) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            metrics.recordFailure("malformed_url", "Something wrong with URL " + url, e);
+            return null;
+        }
+        CircuitBreaker breaker = breakerFor(uri);
+        if (!breaker.allowRequest()) {
+            metrics.recordShortCircuit(upstream);
+            return null;
+        }
+        long deadlineAt = System.nanoTime() + policy.deadline(upstream, readTimeout).toNanos();
+        OutboundScheduler.Permit permit = acquire(upstream, breaker, uri, deadlineAt);
+        if (permit == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        BodyDeadline bodyDeadline = null;
+        try (permit) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(remaining(deadlineAt))
+                    .header("User-Agent", USER_AGENT)
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            bodyDeadline = expireBody(response.body(), deadlineAt);
+            CountingInputStream wire = new CountingInputStream(response.body());
+            try (InputStream body = wire) {
+                int status = response.statusCode();
+                if (status >= 500 || status == 429) {
+                    breaker.recordFailure();
+                } else {
+                    breaker.recordSuccess();
+                }
+                if (status != 200) {
+                    metrics.recordResponse(upstream, status, System.nanoTime() - start, wire.count);
+                    return null;
+                }
+                body.transferTo(out);
+                metrics.recordResponse(upstream, 200, System.nanoTime() - start, wire.count);
+                return response.headers().firstValue("Content-Type").orElse("application/octet-stream");
+            }
+        } catch (HttpTimeoutException e) {
+            breaker.recordFailure();
+            metrics.recordTimeout(upstream, System.nanoTime() - start);
+            metrics.log("Timed out downloading " + url, null);
+            return null;
+        } catch (IOException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                breaker.recordAbandoned();
+                metrics.recordCancelled(upstream);
+                return null;
+            }
+            if (bodyDeadline != null && bodyDeadline.expired()) {
+                breaker.recordFailure();
+                metrics.recordTimeout(upstream, System.nanoTime() - start);
+                metrics.log("Timed out downloading " + url, null);
+                return null;
+            }
+            breaker.recordFailure();
+            metrics.recordError(upstream, System.nanoTime() - start);
+            metrics.log("Something wrong with URL " + url, e);
+            return null;
+        } catch (InterruptedException e) {
+            breaker.recordAbandoned();
+            metrics.recordCancelled(upstream);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (RuntimeException e) {
+            breaker.recordFailure();
+            metrics.recordError(upstream, System.nanoTime() - start);
+            metrics.log("Something wrong with URL " + url, e);
+            return null;
+        } finally {
+            if (bodyDeadline != null) {
+                bodyDeadline.cancel();
+            }
+        }
+    }
+
+    /**
+     * Waits for a slot and a token of the host of a URL. If none comes before the deadline leaves time to send the
+     * request, or the caller gives up while waiting, the request is abandoned without counting against the host.
+     *
+     * @param deadlineAt When the whole call must be done, as a {@link System#nanoTime()} value.
+     * @return The permit, or null if the request must not be sent.
+     */
+    private OutboundScheduler.Permit acquire(Upstream upstream, CircuitBreaker breaker, URI uri, long deadlineAt) {
+        try {
+            OutboundScheduler.Permit permit = scheduler.acquire(String.valueOf(uri.getRawAuthority()),
+                    Duration.ofNanos(Math.max(0, deadlineAt - System.nanoTime())));
+            if (permit != null && deadlineAt - System.nanoTime() <= 0) {
+                // Granted just as the deadline passed, too late to send the request
+                permit.close();
+                permit = null;
+            }
+            if (permit == null) {
+                breaker.recordAbandoned();
+                metrics.recordCancelled(upstream);
+            }
+            return permit;
+        } catch (InterruptedException e) {
+            breaker.recordAbandoned();
+            metrics.recordCancelled(upstream);
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * @return The time left until a deadline given as a {@link System#nanoTime()} value, at least a millisecond
+     *         since a request timeout must be positive.
+     */
+    private static Duration remaining(long deadlineAt) {
+        return Duration.ofNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(1), deadlineAt - System.nanoTime()));
+    }
+
+    /**
+     * Returns the circuit breaker of the host and port of a URL, creating it on first use.
+     */
+    private CircuitBreaker breakerFor(URI uri) {
+        return breakers.computeIfAbsent(String.valueOf(uri.getRawAuthority()), host -> policy.newBreaker());
+    }
+
+    /**
+     * Closes a response body at a deadline, given as a {@link System#nanoTime()} value, unless it is cancelled
+     * first. A read blocked on an upstream that stopped sending then fails instead of hanging.
+     */
+    private BodyDeadline expireBody(InputStream body, long deadlineAt) {
+        BodyDeadline bodyDeadline = new BodyDeadline(body);
+        try {
+            bodyDeadline.task = bodyDeadlines.schedule(bodyDeadline::expire, deadlineAt - System.nanoTime(),
+                    TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // The fetcher is shutting down, the read is left to the caller's interrupt
+        }
+        return bodyDeadline;
+    }
+
+    /**
+     * Fetches a whole body and, once the request has taken longer than the upstream's p95 latency, sends a
+     * second identical request. The first of the two to return content wins and the other is cancelled.
+     * Until enough requests have been recorded to trust the p95, the fetch is not hedged.
+     */
+    private String fetchHedged(Upstream upstream, String url) {
+        LatencyHistogram latency = metrics.latency(upstream);
+        long delay = latency.count() < ResiliencePolicy.HEDGE_MIN_SAMPLES
+                ? -1 : latency.quantileMillis(ResiliencePolicy.HEDGE_QUANTILE);
+        if (delay < 0) {
+            return fetch(upstream, url, READ_ALL);
+        }
+        CompletableFuture<String> winner = new CompletableFuture<>();
+        // Requests that have not returned yet, the winner is null once all of them have failed
+        AtomicInteger running = new AtomicInteger(1);
+        Future<?> first = submitAttempt(upstream, url, winner, running, false);
+        if (first == null) {
+            // No thread available for hedging, fetch on the caller's thread
+            return fetch(upstream, url, READ_ALL);
+        }
+        Future<?> second = null;
+        try {
+            try {
+                return winner.get(delay, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Slower than p95, send a second request and take whichever answers first
+                metrics.recordHedge(upstream);
+                running.incrementAndGet();
+                second = submitAttempt(upstream, url, winner, running, true);
+                if (second == null && running.decrementAndGet() == 0) {
+                    winner.complete(null);
+                }
+                return winner.get();
+            }
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            // Cancel the request that lost, or both if the caller gave up
+            first.cancel(true);
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Starts one request of a hedged fetch, or returns null if no thread is available.
+     */
+    private Future<?> submitAttempt(Upstream upstream, String url, CompletableFuture<String> winner,
+                                    AtomicInteger running, boolean hedge) {
+        // The second request keeps the priority of the caller
+        OutboundScheduler.Priority priority = OutboundScheduler.currentPriority();
+        try {
+            return hedgeExecutor.submit(() -> {
+                String content = null;
+                try {
+                    content = OutboundScheduler.supplyAs(priority, () -> fetch(upstream, url, READ_ALL));
+                } finally {
+                    if (content != null) {
+                        if (winner.complete(content) && hedge) {
+                            metrics.recordHedgeWin(upstream);
+                        }
+                    } else if (running.decrementAndGet() == 0) {
+                        winner.complete(null);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores a fetched body in the disk cache if the server sent a validator to revalidate it with later.
+     */
+    private void store(String url, HttpResponse<?> response, String content, boolean complete) {
+        if (cache == null) {
+            return;
+        }
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (etag != null || lastModified != null) {
+            cache.put(url, content, etag, lastModified, complete);
+        }
+    }
+
+    /**
+     * Wraps the response body in a decoder matching its Content-Encoding.
+     */
+    private static InputStream decode(HttpResponse<?> response, InputStream wire) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+        switch (encoding.trim().toLowerCase()) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(wire);
+            case "deflate":
+                return new InflaterInputStream(wire);
+            default:
+                return wire;
+        }
+    }
+
+    /**
+     * The pending close of a response body, and whether it has happened.
+     */
+    private static final class BodyDeadline {
+        final InputStream body;
+        Future<?> task;
+        volatile boolean expired;
+
+        BodyDeadline(InputStream body) {
+            this.body = body;
+        }
+
+        void expire() {
+            expired = true;
+            try {
+                body.close();
+            } catch (IOException e) {
+                // The read fails either way
+            }
+        }
+
+        boolean expired() {
+            return expired;
+        }
+
+        void cancel() {
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes read from the wire, before any decompression.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Reads a body chunk by chunk, dropping line terminators, until it ends or {@code stopWhen} is satisfied.
+     */
+    private static String read(InputStream body, Predicate<StringBuilder> stopWhen) throws IOException {
+        StringBuilder content = new StringBuilder();
+        Reader in = new InputStreamReader(body, StandardCharsets.UTF_8);
+        char[] buffer = new char[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            int start = 0;
+            for (int i = 0; i < n; i++) {
+                char c = buffer[i];
+                if (c == '\n' || c == '\r') {
+                    content.append(buffer, start, i - start);
+                    start = i + 1;
+                }
+            }
+            content.append(buffer, start, n - start);
+            if (stopWhen.test(content)) {
+                break;
+            }
+        }
+        return content.toString();
+    }
+
+    /**
+     * Remembers whether a stop condition ended the read before the body was complete.
+     */
+    private static final class StopTracker implements Predicate<StringBuilder> {
+        private final Predicate<StringBuilder> stopWhen;
+        private boolean stopped;
+
+        StopTracker(Predicate<StringBuilder> stopWhen) {
+            this.stopWhen = stopWhen;
+        }
+
+        @Override
+        public boolean test(StringBuilder content) {
+            stopped = stopWhen.test(content);
+            return stopped;
+        }
+    }
+
+    // Method cite from class example https://github.com/CMU-Heinz-95702/Project-1
+    private static SSLContext createTrustAllContext() {
+        // Create a trust manager that does not validate certificate chains
+        TrustManager[] trustAllCerts = new TrustManager[] {new X509TrustManager() {
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+            public void checkClientTrusted(X509Certificate[] certs, String authType) {
+            }
+            public void checkServerTrusted(X509Certificate[] certs, String authType) {
+            }
+        }
+        };
+        try {
+            SSLContext sc = SSLContext.getInstance("TLS");
+            sc.init(null, trustAllCerts, new SecureRandom());
+            return sc;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not create the TLS context", e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Date: 10/16/2026
+ *
+ * This Servlet serves the flag and seal images from the local {@link ImageStore} instead of letting every
+ * browser hotlink the image host. {@code /images/wikipedia/commons/...} serves the image at the same path on
+ * the image host, so only that host can ever be fetched through the proxy, and only the images the model has
+ * linked to from a state page: any other path is answered with 404 without contacting the image host.
+ *
+ * Images are served with a strong ETag, a one year {@code Cache-Control} and single byte range support. The
+ * bytes go from the file to the connection without passing through the heap: with Tomcat's sendfile support
+ * the container sends the file itself, otherwise {@link FileChannel#transferTo} copies it into the response.
+ */
+
+package ds.project1task3;
+
+// Import necessary Java and Jakarta Servlet API classes
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+// Annotation to declare servlet's name and URL pattern it responds to
+@WebServlet(name = "ImageProxyServlet", urlPatterns = {"/images/*"})
+public class ImageProxyServlet extends HttpServlet {
+    // Path prefix the model rewrites image URLs to, relative to the context path
+    static final String PATH = "/images";
+    // Images never change at the same path, so browsers may keep them for a year
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    // Request attributes of Tomcat's sendfile support
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // The store shared by every request, created by StateWarmupListener
+    private ImageStore store;
+
+    /**
+     * Looks up the shared image store published by {@link StateWarmupListener}.
+     */
+    @Override
+    public void init() {
+        store = StateWarmupListener.getImageStore(getServletContext());
+    }
+
+    /**
+     * Serves an image, the whole of it or one byte range, or answers 304 if the client's copy is current.
+     *
+     * @param request HttpServletRequest object that contains the request the client has made of the servlet
+     * @param response HttpServletResponse object that contains the response the servlet sends to the client
+     * @throws IOException if an input or output error is detected when the servlet handles the request
+     */
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Use the path as the client sent it, still percent-encoded, so it maps to the same image host URL
+        String path = request.getRequestURI().substring(request.getContextPath().length() + PATH.length());
+        if (store == null || !isImagePath(path)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        ImageStore.Image image = store.get(path);
+        if (image == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader("ETag", image.etag());
+        response.setHeader("Cache-Control", CACHE_CONTROL);
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setContentType(image.contentType());
+        if (matches(request.getHeader("If-None-Match"), image.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = image.length();
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader("Range");
+        String ifRange = request.getHeader("If-Range");
+        // A range only applies to the version of the image the client already has part of
+        if (range != null && (ifRange == null || ifRange.equals(image.etag()))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader("Content-Range", "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        send(request, response, image, start, end - start + 1);
+    }
+
+    /**
+     * Sends part of an image file without copying it through the heap.
+     */
+    private static void send(HttpServletRequest request, HttpServletResponse response, ImageStore.Image image,
+                             long start, long count) throws IOException {
+        response.setContentLengthLong(count);
+        if (count == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The container sends the file straight from the page cache to the socket after this method returns
+            request.setAttribute(SENDFILE_FILENAME, image.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(image.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = file.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * Accepts only plain image paths, so the proxy cannot be pointed anywhere else on the image host.
+     */
+    private static boolean isImagePath(String path) {
+        return path.startsWith("/wikipedia/") && !path.contains("..") && !path.contains("//")
+                && path.indexOf('\\') < 0;
+    }
+
+    /**
+     * Checks an If-None-Match header, which may list several ETags or be "*", against the image's ETag.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a Range header against the image length.
+     *
+     * @return {start, end} inclusive for a single satisfiable range, an empty array if the header should be
+     *         ignored and the whole image sent, or null if the range cannot be satisfied.
+     */
+    static long[] parseRange(String range, long length) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            // Other units and multiple ranges are not supported, the whole image is sent instead
+            return new long[0];
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                // The last n bytes
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1 : Math.min(length - 1, Long.parseLong(spec.substring(dash + 1)));
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code ImageStore} class keeps the flag and seal images served by {@link ImageProxyServlet} on disk.
+ *
+ * Each image is downloaded from the image host once, written to a temporary file and moved into place, so a
+ * reader never sees a partly written image. Its content type, length and a strong ETag derived from the
+ * SHA-256 of its bytes are stored next to it in a small JSON file, so the store survives restarts without
+ * downloading anything again. Concurrent requests for an image that is not stored yet share one download.
+ *
+ * Only images the model has linked to are served: {@link Project1Task3Model} allows the path of every image URL
+ * it rewrites to the proxy, and any other path is refused without contacting the image host. The allowed paths
+ * are kept in least recently used order and capped, and the files of an image that falls off the end are
+ * deleted, so neither the allowlist nor the directory grows past the cap when state pages change their images.
+ * Images left over from an earlier run beyond the cap are deleted when the store is opened, oldest first.
+ */
+
+package ds.project1task3;
+
+// Import gson and the necessary Java classes
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ImageStore {
+    // Default number of images kept, well above the flags and seals of the 50 states
+    static final int DEFAULT_MAX_IMAGES = 256;
+
+    // Directory holding the images and their metadata
+    private final Path directory;
+    // The shared HTTP client
+    private final HttpFetcher fetcher;
+    // Where the image host lives
+    private final UpstreamEndpoints endpoints;
+    // Stored images by path on the image host
+    private final Map<String, Image> images = new ConcurrentHashMap<>();
+    // Collapses concurrent downloads of the same image into one
+    private final SingleFlight<String, Image> downloads = new SingleFlight<>();
+    // Most images allowed and kept at the same time
+    private final int maxImages;
+    // Paths the model linked to, in least recently used order, guarded by itself
+    private final LinkedHashMap<String, Boolean> allowed = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Opens a store that keeps up to {@link #DEFAULT_MAX_IMAGES} images, creating its directory if needed.
+     *
+     * @param directory Directory holding the images and their metadata.
+     * @param fetcher The shared HTTP client.
+     * @param endpoints Where the image host lives.
+     * @throws IOException if the directory cannot be created.
+     */
+    public ImageStore(Path directory, HttpFetcher fetcher, UpstreamEndpoints endpoints) throws IOException {
+        this(directory, fetcher, endpoints, DEFAULT_MAX_IMAGES);
+    }
+
+    /**
+     * Opens the store, creating its directory if needed and deleting the oldest images beyond the cap.
+     *
+     * @param directory Directory holding the images and their metadata.
+     * @param fetcher The shared HTTP client.
+     * @param endpoints Where the image host lives.
+     * @param maxImages Most images allowed and kept at the same time.
+     * @throws IOException if the directory cannot be created or read.
+     */
+    public ImageStore(Path directory, HttpFetcher fetcher, UpstreamEndpoints endpoints, int maxImages)
+            throws IOException {
+        if (maxImages <= 0) {
+            throw new IllegalArgumentException("maxImages must be positive: " + maxImages);
+        }
+        this.directory = directory;
+        this.fetcher = fetcher;
+        this.endpoints = endpoints;
+        this.maxImages = maxImages;
+        Files.createDirectories(directory);
+        trim();
+    }
+
+    /**
+     * Allows an image to be served, evicting the least recently used image if the store is full.
+     *
+     * @param path The path of the image on the image host, starting with a slash.
+     */
+    public void allow(String path) {
+        String evicted = null;
+        synchronized (allowed) {
+            if (allowed.put(path, Boolean.TRUE) == null && allowed.size() > maxImages) {
+                Iterator<String> eldest = allowed.keySet().iterator();
+                evicted = eldest.next();
+                eldest.remove();
+            }
+        }
+        if (evicted != null) {
+            images.remove(evicted);
+            String name = fileName(evicted);
+            delete(directory.resolve(name + ".img"));
+            delete(directory.resolve(name + ".json"));
+        }
+    }
+
+    /**
+     * Returns a stored image, downloading it first if it is not on disk yet.
+     *
+     * @param path The path of the image on the image host, starting with a slash.
+     * @return The image, or null if it was not allowed or could not be downloaded.
+     */
+    public Image get(String path) {
+        synchronized (allowed) {
+            if (allowed.get(path) == null) {
+                return null;
+            }
+        }
+        Image image = images.get(path);
+        if (image != null && Files.isRegularFile(image.file)) {
+            return image;
+        }
+        return downloads.execute(path, () -> load(path));
+    }
+
+    /**
+     * Reads an image stored by an earlier run, or downloads it.
+     */
+    private Image load(String path) {
+        String name = fileName(path);
+        Path file = directory.resolve(name + ".img");
+        Path meta = directory.resolve(name + ".json");
+        Image image = readMeta(file, meta);
+        if (image == null) {
+            image = download(path, file, meta);
+        }
+        if (image != null) {
+            images.put(path, image);
+        }
+        return image;
+    }
+
+    /**
+     * Reads the metadata of an image stored by an earlier run, or returns null if there is none.
+     */
+    private static Image readMeta(Path file, Path meta) {
+        if (!Files.isRegularFile(file) || !Files.isRegularFile(meta)) {
+            return null;
+        }
+        try (Reader in = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+            Meta saved = new Gson().fromJson(in, Meta.class);
+            if (saved == null || saved.length != Files.size(file)) {
+                return null;
+            }
+            return new Image(file, saved.length, saved.contentType, saved.etag);
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Downloads an image into a temporary file, hashing it on the way, and moves it and its metadata into place.
+     */
+    private Image download(String path, Path file, Path meta) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String contentType;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                contentType = fetcher.download(Upstream.IMAGES, endpoints.imageURL(path), out);
+            }
+            if (contentType == null) {
+                return null;
+            }
+            // A strong validator, it changes whenever a single byte of the image changes
+            String etag = "\"" + hex(digest.digest()).substring(0, 32) + "\"";
+            long length = Files.size(temp);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeMeta(meta, new Meta(contentType, etag, length));
+            return new Image(file, length, contentType, etag);
+        } catch (IOException e) {
+            fetcher.getMetrics().recordFailure("image_store_write", "Could not store image " + path, e);
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    fetcher.getMetrics().recordFailure("image_store_delete", "Could not delete temporary image " + temp,
+                            e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the oldest images stored by earlier runs until at most the cap is left.
+     */
+    private void trim() throws IOException {
+        List<Path> stored = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.img")) {
+            for (Path file : files) {
+                stored.add(file);
+            }
+        }
+        if (stored.size() <= maxImages) {
+            return;
+        }
+        stored.sort(Comparator.comparing(ImageStore::lastModified));
+        for (Path file : stored.subList(0, stored.size() - maxImages)) {
+            String image = file.getFileName().toString();
+            delete(file);
+            delete(directory.resolve(image.substring(0, image.length() - ".img".length()) + ".json"));
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            fetcher.getMetrics().recordFailure("image_store_delete", "Could not delete stored image " + file, e);
+        }
+    }
+
+    /**
+     * Writes the metadata of an image atomically.
+     */
+    private void writeMeta(Path meta, Meta saved) throws IOException {
+        Path temp = Files.createTempFile(directory, meta.getFileName().toString(), ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            new Gson().toJson(saved, out);
+        }
+        Files.move(temp, meta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Names the files of an image after the SHA-256 hash of its path.
+     */
+    private static String fileName(String path) {
+        try {
+            return hex(MessageDigest.getInstance("SHA-256").digest(path.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * The metadata file of an image, written and read by Gson.
+     */
+    private static final class Meta {
+        private final String contentType;
+        private final String etag;
+        private final long length;
+
+        Meta(String contentType, String etag, long length) {
+            this.contentType = contentType;
+            this.etag = etag;
+            this.length = length;
+        }
+    }
+
+    /**
+     * An image stored on disk.
+     */
+    public static final class Image {
+        private final Path file;
+        private final long length;
+        private final String contentType;
+        private final String etag;
+
+        Image(Path file, long length, String contentType, String etag) {
+            this.file = file;
+            this.length = length;
+            this.contentType = contentType;
+            this.etag = etag;
+        }
+
+        /**
+         * @return The file holding the image.
+         */
+        public Path file() {
+            return file;
+        }
+
+        /**
+         * @return The length of the image in bytes.
+         */
+        public long length() {
+            return length;
+        }
+
+        /**
+         * @return The content type sent by the image host.
+         */
+        public String contentType() {
+            return contentType;
+        }
+
+        /**
+         * @return The strong ETag of the image, including its quotes.
+         */
+        public String etag() {
+            return etag;
+        }
+    }
+}
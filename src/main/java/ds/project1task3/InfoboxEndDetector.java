@@ -0,0 +1,76 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code InfoboxEndDetector} class watches a Wikipedia page as it is streamed and reports
+ * when the {@code ib-settlement} infobox has been read completely.
+ *
+ * Every field the application extracts (flag, seal, capital and governor) lives in that infobox near the top of
+ * the page, so the fetch can stop and close the connection as soon as the infobox table is closed. The rest of
+ * the article, usually most of its bytes, is never read. A detector keeps state and is used for one fetch only.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.util.function.Predicate;
+
+class InfoboxEndDetector implements Predicate<StringBuilder> {
+    // Class name that identifies the state infobox table
+    private static final String INFOBOX_MARKER = "infobox ib-settlement";
+    private static final String TABLE_OPEN = "<table";
+    private static final String TABLE_CLOSE = "</table";
+
+    // Depth of nested tables inside the infobox, 0 before the infobox is found
+    private int depth;
+    // True once the infobox opening tag has been seen
+    private boolean inInfobox;
+    // Position in the content from which the next scan starts, everything before it has been scanned
+    private int from;
+
+    /**
+     * Scans the content read so far, starting where the previous call stopped.
+     *
+     * @param content Everything read from the page so far.
+     * @return true once the infobox table has been closed and reading can stop.
+     */
+    @Override
+    public boolean test(StringBuilder content) {
+        if (!inInfobox) {
+            int marker = content.indexOf(INFOBOX_MARKER, from);
+            if (marker < 0) {
+                // The marker may be cut off at the end of the content, scan its possible start again next time
+                from = Math.max(from, content.length() - INFOBOX_MARKER.length() + 1);
+                return false;
+            }
+            // The infobox starts at the table tag that carries the marker class
+            int open = content.lastIndexOf(TABLE_OPEN, marker);
+            if (open < 0) {
+                from = marker + INFOBOX_MARKER.length();
+                return false;
+            }
+            inInfobox = true;
+            depth = 1;
+            from = marker + INFOBOX_MARKER.length();
+        }
+        // Track nested tables until the infobox table itself is closed
+        while (true) {
+            int open = content.indexOf(TABLE_OPEN, from);
+            int close = content.indexOf(TABLE_CLOSE, from);
+            if (open < 0 && close < 0) {
+                // A tag may be cut off at the end of the content, scan its possible start again next time
+                from = Math.max(from, content.length() - TABLE_CLOSE.length() + 1);
+                return false;
+            }
+            if (open >= 0 && (close < 0 || open < close)) {
+                depth++;
+                from = open + TABLE_OPEN.length();
+            } else {
+                depth--;
+                from = close + TABLE_CLOSE.length();
+                if (depth == 0) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code InfoboxExtractor} class extracts the text fields of a Wikipedia state page, the capital and the
+ * governor, from its parsed infobox.
+ *
+ * Each field is a rule in {@link #RULES}: the label of the infobox row that holds it, the selectors that pick
+ * the value inside that row's data cell, in priority order, and positional selectors used only when no row
+ * carries the label. Every selector is compiled into a Jsoup {@link Evaluator} once, when the class is loaded.
+ * All rules are evaluated together in a single walk over the rows of the infobox, so the order of the rows
+ * does not matter and a row added above the capital no longer breaks the extraction.
+ */
+
+package ds.project1task3;
+
+// Import jsoup and the necessary Java classes
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import java.util.Locale;
+
+final class InfoboxExtractor {
+    /**
+     * The fields extracted from the infobox.
+     */
+    enum Field {
+        CAPITAL("capital"),
+        GOVERNOR("governor");
+
+        private final String label;
+
+        Field(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return The name of the field in the metrics output.
+         */
+        String label() {
+            return label;
+        }
+    }
+
+    // Prefix of the old positional selectors, the state infobox inside the article body
+    private static final String INFOBOX_PATH =
+            "#mw-content-text > div.mw-content-ltr.mw-parser-output > table.infobox.ib-settlement.vcard > tbody > ";
+
+    // The rules of every field. A row matches when its label, without leading bullets and in lower case,
+    // starts with or equals the rule's label
+    private static final Rule[] RULES = {
+            // "Capital", or "Capital (and largest city)" when the capital is also the largest city
+            new Rule(Field.CAPITAL, "capital", true,
+                    new String[] {"a[href^=/wiki/]"},
+                    new String[] {INFOBOX_PATH + "tr:nth-child(12) > td > a"}),
+            // "Governor" after a bullet, but not "Lieutenant Governor"
+            new Rule(Field.GOVERNOR, "governor", false,
+                    new String[] {"span > a[href^=/wiki/]", "a[href^=/wiki/]"},
+                    new String[] {INFOBOX_PATH + "tr:nth-child(17) > td > span > a:nth-child(1)",
+                            INFOBOX_PATH + "tr:nth-child(17) > td > a:nth-child(1)"}),
+    };
+
+    // The state infobox, the first infobox of the page
+    private static final Evaluator INFOBOX = QueryParser.parse("table.infobox");
+
+    private InfoboxExtractor() {
+    }
+
+    /**
+     * Extracts every field in one walk over the rows of the infobox.
+     *
+     * @param doc The parsed Wikipedia page.
+     * @return The field values indexed by {@link Field#ordinal()}, null where no rule matched.
+     */
+    static String[] extract(Document doc) {
+        String[] values = new String[Field.values().length];
+        int missing = RULES.length;
+        Element infobox = doc.selectFirst(INFOBOX);
+        if (infobox != null) {
+            // The rows are the children of the table's sections (tbody, thead)
+            for (Element section : infobox.children()) {
+                for (Element row : section.children()) {
+                    if (missing == 0) {
+                        return values;
+                    }
+                    missing -= matchRow(row, values);
+                }
+            }
+        }
+        // Fields whose label was not found fall back to their position in the old layout
+        for (Rule rule : RULES) {
+            if (values[rule.field.ordinal()] == null) {
+                values[rule.field.ordinal()] = firstText(doc, rule.positional);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Applies every rule that is still missing to one infobox row.
+     *
+     * @return The number of fields the row filled.
+     */
+    private static int matchRow(Element row, String[] values) {
+        Element label = null;
+        Element data = null;
+        for (Element cell : row.children()) {
+            if (cell.normalName().equals("th")) {
+                label = cell;
+            } else if (cell.normalName().equals("td")) {
+                data = cell;
+            }
+        }
+        if (label == null || data == null) {
+            return 0;
+        }
+        String text = normalize(label.text());
+        int filled = 0;
+        for (Rule rule : RULES) {
+            if (values[rule.field.ordinal()] == null && rule.matches(text)) {
+                values[rule.field.ordinal()] = firstText(data, rule.values);
+                if (values[rule.field.ordinal()] != null) {
+                    filled++;
+                }
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Returns the text of the first element any of the evaluators selects, trying them in order.
+     */
+    private static String firstText(Element root, Evaluator[] evaluators) {
+        for (Evaluator evaluator : evaluators) {
+            Element element = root.selectFirst(evaluator);
+            if (element != null && !element.text().isBlank()) {
+                return element.text();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Strips the bullets, non-breaking spaces and other decoration in front of a label and lower cases it.
+     */
+    private static String normalize(String label) {
+        int start = 0;
+        while (start < label.length() && !Character.isLetter(label.charAt(start))) {
+            start++;
+        }
+        return label.substring(start).replace('\u00a0', ' ').trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One field: the label of its row, the selectors of its value in the row's data cell and the positional
+     * selectors of the old layout, all compiled once.
+     */
+    private static final class Rule {
+        final Field field;
+        final String label;
+        final boolean prefix;
+        final Evaluator[] values;
+        final Evaluator[] positional;
+
+        Rule(Field field, String label, boolean prefix, String[] values, String[] positional) {
+            this.field = field;
+            this.label = label;
+            this.prefix = prefix;
+            this.values = compile(values);
+            this.positional = compile(positional);
+        }
+
+        boolean matches(String text) {
+            return prefix ? text.startsWith(label) : text.equals(label);
+        }
+
+        private static Evaluator[] compile(String[] queries) {
+            Evaluator[] evaluators = new Evaluator[queries.length];
+            for (int i = 0; i < queries.length; i++) {
+                evaluators[i] = QueryParser.parse(queries[i]);
+            }
+            return evaluators;
+        }
+    }
+}
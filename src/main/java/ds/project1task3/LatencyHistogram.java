@@ -0,0 +1,104 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code LatencyHistogram} class records durations into fixed buckets with lock-free counters, so recording
+ * costs a few array reads and one increment. It can estimate a quantile from the buckets and write itself in
+ * the Prometheus histogram format.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    // Upper bounds of the buckets in milliseconds, the last bucket is unbounded
+    private static final long[] BOUNDS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    // Count of recorded durations per bucket, not cumulative
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    // Sum of every recorded duration in nanoseconds
+    private final LongAdder sumNanos = new LongAdder();
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long millis = nanos / 1_000_000;
+        int i = 0;
+        while (i < BOUNDS_MILLIS.length && millis >= BOUNDS_MILLIS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * @return The number of recorded durations.
+     */
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Estimates a quantile as the upper bound of the bucket it falls into.
+     *
+     * @param q The quantile, between 0 and 1.
+     * @return The estimate in milliseconds, or -1 if nothing has been recorded.
+     */
+    public long quantileMillis(double q) {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+        // Falls into the unbounded bucket, report twice the largest bound
+        return BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] * 2;
+    }
+
+    /**
+     * Writes the histogram in the Prometheus text format, in seconds.
+     *
+     * @param out The writer.
+     * @param name The metric name, without the _bucket, _sum and _count suffixes.
+     * @param labels The labels shared by every line, e.g. {@code upstream="census"}.
+     */
+    public void write(PrintWriter out, String name, String labels) {
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            String le = i < BOUNDS_MILLIS.length ? Double.toString(BOUNDS_MILLIS[i] / 1000.0) : "+Inf";
+            out.println(name + "_bucket{" + labels + ",le=\"" + le + "\"} " + cumulative);
+        }
+        out.println(name + "_sum{" + labels + "} " + sumNanos.sum() / 1e9);
+        out.println(name + "_count{" + labels + "} " + cumulative);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Date: 10/16/2026
+ *
+ * This Servlet exposes the application counters in the Prometheus text format so they can be scraped.
+ * It reports the latency histogram, bytes read, status codes, timeouts and errors of every upstream, how often
+ * each field could not be extracted, the state of the circuit breaker and the outbound queue depth and wait time
+ * of every host, and how many live state lookups, Wikipedia page fetches and upstream URL fetches were made and
+ * how many of them were collapsed into a call that was already in flight, how the record cache answered the
+ * live lookups, and how many heap bytes serving the lookups has allocated, which a load test divides by the
+ * number of requests it made.
+ */
+
+package ds.project1task3;
+
+// Import necessary Java and Jakarta Servlet API classes
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+// Annotation to declare servlet's name and URL pattern it responds to
+@WebServlet(name = "MetricsServlet", urlPatterns = {"/metrics"})
+public class MetricsServlet extends HttpServlet {
+
+    /**
+     * Writes every counter in the Prometheus text format.
+     *
+     * @param request HttpServletRequest object that contains the request the client has made of the servlet
+     * @param response HttpServletResponse object that contains the response the servlet sends to the client
+     * @throws IOException if an input or output error is detected when the servlet handles the request
+     */
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StateInformationService service = StateWarmupListener.getService(getServletContext());
+        response.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+        PrintWriter out = response.getWriter();
+        if (service == null) {
+            return;
+        }
+        out.println("# HELP singleflight_calls_total Calls made through a single-flight group.");
+        out.println("# TYPE singleflight_calls_total counter");
+        out.println("# HELP singleflight_collapsed_total Calls that joined a call already in flight.");
+        out.println("# TYPE singleflight_collapsed_total counter");
+        writeFlight(out, "state_lookup", service.getStateFlights());
+        writeFlight(out, "wikipedia_page", service.getModel().getPageFlights());
+        writeFlight(out, "upstream_url", service.getModel().getFetcher().getUrlFlights());
+        service.getRecordCache().write(out);
+        service.getModel().getFetcher().getMetrics().write(out);
+        service.getModel().getFetcher().getScheduler().write(out);
+        out.println("# HELP upstream_circuit_state Circuit breaker state of a host, 0 closed, 1 open, 2 half open.");
+        out.println("# TYPE upstream_circuit_state gauge");
+        for (Map.Entry<String, CircuitBreaker> entry : service.getModel().getFetcher().getBreakers().entrySet()) {
+            out.println("upstream_circuit_state{host=\"" + entry.getKey() + "\"} "
+                    + entry.getValue().getState().ordinal());
+        }
+        service.getAllocations().write(out);
+    }
+
+    /**
+     * Writes the counters of one single-flight group.
+     */
+    private static void writeFlight(PrintWriter out, String name, SingleFlight<?, ?> flight) {
+        out.println("singleflight_calls_total{group=\"" + name + "\"} " + flight.getCalls());
+        out.println("singleflight_collapsed_total{group=\"" + name + "\"} " + flight.getCollapsed());
+    }
+}
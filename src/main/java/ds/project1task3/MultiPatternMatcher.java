@@ -0,0 +1,132 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code MultiPatternMatcher} class finds many literal patterns in one pass over a text.
+ *
+ * It is an Aho-Corasick automaton compiled into a dense transition table, so scanning costs one array lookup
+ * per character no matter how many patterns there are. The patterns are expected to be ASCII, as the HTML
+ * anchor snippets it is built for are; any other character simply resets the automaton.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+final class MultiPatternMatcher {
+    // Size of the alphabet covered by the transition table
+    private static final int ALPHABET = 128;
+
+    // next[state][c] is the state reached from state on character c, failure links already folded in
+    private final int[][] next;
+    // matches[state] lists the patterns that end when state is reached
+    private final int[][] matches;
+    // Length of every pattern, used to turn an end position into a start position
+    private final int[] lengths;
+
+    /**
+     * Compiles the automaton.
+     *
+     * @param patterns The patterns to look for, identified by their index in the list.
+     */
+    MultiPatternMatcher(List<String> patterns) {
+        List<int[]> trie = new ArrayList<>();
+        List<int[]> ends = new ArrayList<>();
+        trie.add(newState());
+        ends.add(new int[0]);
+        lengths = new int[patterns.size()];
+
+        // Build the trie of all patterns
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id);
+            lengths[id] = pattern.length();
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Pattern is not ASCII: " + pattern);
+                }
+                if (trie.get(state)[c] < 0) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newState());
+                    ends.add(new int[0]);
+                }
+                state = trie.get(state)[c];
+            }
+            ends.set(state, append(ends.get(state), id));
+        }
+
+        // Breadth first, compute failure links and fold them into a complete transition table
+        int[] fail = new int[trie.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = trie.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            if (root[c] < 0) {
+                root[c] = 0;
+            } else {
+                fail[root[c]] = 0;
+                queue.add(root[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            int[] row = trie.get(state);
+            // A state also matches everything its failure state matches
+            int[] inherited = ends.get(fail[state]);
+            for (int id : inherited) {
+                ends.set(state, append(ends.get(state), id));
+            }
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = row[c];
+                if (child < 0) {
+                    row[c] = trie.get(fail[state])[c];
+                } else {
+                    fail[child] = trie.get(fail[state])[c];
+                    queue.add(child);
+                }
+            }
+        }
+        next = trie.toArray(new int[0][]);
+        matches = ends.toArray(new int[0][]);
+    }
+
+    /**
+     * Scans the text once and reports where each pattern first occurs.
+     *
+     * @param text The text to scan.
+     * @return For every pattern, the start index of its first occurrence, or -1 if it does not occur.
+     */
+    int[] findFirst(CharSequence text) {
+        int[] first = new int[lengths.length];
+        Arrays.fill(first, -1);
+        int remaining = lengths.length;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n && remaining > 0; i++) {
+            char c = text.charAt(i);
+            state = c < ALPHABET ? next[state][c] : 0;
+            for (int id : matches[state]) {
+                if (first[id] < 0) {
+                    first[id] = i + 1 - lengths[id];
+                    remaining--;
+                }
+            }
+        }
+        return first;
+    }
+
+    private static int[] newState() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] append(int[] ids, int id) {
+        int[] grown = Arrays.copyOf(ids, ids.length + 1);
+        grown[ids.length] = id;
+        return grown;
+    }
+}
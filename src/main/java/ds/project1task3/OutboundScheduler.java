@@ -0,0 +1,317 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code OutboundScheduler} class decides when a request to an upstream host may go out, so that the
+ * application never hits a host harder than it allows.
+ *
+ * Every host has its own lane with a concurrency limit and a token bucket that refills at a fixed rate up to
+ * a burst size. A request needs a free slot and a token. Requests come in two priority classes: interactive
+ * requests, made for a user who is waiting, always go ahead of background requests such as the warmup, the
+ * snapshot rebuild or the population refresh. The priority of a request is taken from the thread that makes
+ * it, see {@link #callAs(Priority, Callable)}; threads that never set one are interactive. A request that
+ * cannot get a slot and a token within its deadline is not sent. The scheduler reports the queue depth and
+ * the wait time of every host and priority.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class OutboundScheduler {
+    /**
+     * The priority classes of outbound requests, in the order they are served.
+     */
+    public enum Priority {
+        INTERACTIVE("interactive"),
+        BACKGROUND("background");
+
+        private final String label;
+
+        Priority(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return The label value used in the metrics output.
+         */
+        public String label() {
+            return label;
+        }
+    }
+
+    // Default number of requests to one host in flight at the same time
+    static final int DEFAULT_MAX_CONCURRENCY = 8;
+    // Default sustained request rate to one host
+    static final double DEFAULT_REQUESTS_PER_SECOND = 20;
+
+    // Priority of the requests made by the current thread
+    private static final ThreadLocal<Priority> PRIORITY = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+
+    // Concurrency limit of hosts without a limit of their own
+    private final int defaultMaxConcurrency;
+    // Request rate of hosts without a rate of their own
+    private final double defaultRequestsPerSecond;
+    // Limits of specific hosts, as {concurrency, requests per second}
+    private final Map<String, double[]> hostLimits;
+    // Lanes by host, sorted so the metrics output is stable
+    private final Map<String, Lane> lanes = new ConcurrentSkipListMap<>();
+
+    /**
+     * Creates a scheduler with the default limits for every host.
+     */
+    public OutboundScheduler() {
+        this(DEFAULT_MAX_CONCURRENCY, DEFAULT_REQUESTS_PER_SECOND, Map.of());
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param defaultMaxConcurrency Requests to one host in flight at the same time.
+     * @param defaultRequestsPerSecond Sustained request rate to one host, which is also its burst size.
+     * @param hostLimits Limits of specific hosts, as {concurrency, requests per second} by host.
+     */
+    public OutboundScheduler(int defaultMaxConcurrency, double defaultRequestsPerSecond,
+                             Map<String, double[]> hostLimits) {
+        this.defaultMaxConcurrency = defaultMaxConcurrency;
+        this.defaultRequestsPerSecond = defaultRequestsPerSecond;
+        this.hostLimits = new ConcurrentHashMap<>(hostLimits);
+    }
+
+    /**
+     * Parses host limits written as {@code host=concurrency/requestsPerSecond}, separated by commas, e.g.
+     * {@code api.census.gov=2/1,en.wikipedia.org=16/50}.
+     *
+     * @param spec The limits, may be null or empty.
+     * @return The limits by host.
+     * @throws IllegalArgumentException if an entry is malformed.
+     */
+    public static Map<String, double[]> parseHostLimits(String spec) {
+        Map<String, double[]> limits = new ConcurrentHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return limits;
+        }
+        for (String entry : spec.split(",")) {
+            String[] hostAndLimits = entry.trim().split("=");
+            String[] values = hostAndLimits.length == 2 ? hostAndLimits[1].split("/") : new String[0];
+            if (values.length != 2) {
+                throw new IllegalArgumentException("Host limit must look like host=concurrency/rate: " + entry);
+            }
+            limits.put(hostAndLimits[0].trim(), new double[] {Integer.parseInt(values[0].trim()),
+                    Double.parseDouble(values[1].trim())});
+        }
+        return limits;
+    }
+
+    /**
+     * Runs a task with the given priority for every outbound request it makes on this thread.
+     *
+     * @param priority The priority.
+     * @param task The task.
+     * @return The result of the task.
+     * @throws Exception if the task throws.
+     */
+    public static <T> T callAs(Priority priority, Callable<T> task) throws Exception {
+        Priority previous = PRIORITY.get();
+        PRIORITY.set(priority);
+        try {
+            return task.call();
+        } finally {
+            PRIORITY.set(previous);
+        }
+    }
+
+    /**
+     * Computes a value with the given priority for every outbound request made on this thread.
+     *
+     * @param priority The priority.
+     * @param supplier Computes the value.
+     * @return The value.
+     */
+    public static <T> T supplyAs(Priority priority, Supplier<T> supplier) {
+        Priority previous = PRIORITY.get();
+        PRIORITY.set(priority);
+        try {
+            return supplier.get();
+        } finally {
+            PRIORITY.set(previous);
+        }
+    }
+
+    /**
+     * @return The priority of the requests made by the current thread.
+     */
+    public static Priority currentPriority() {
+        return PRIORITY.get();
+    }
+
+    /**
+     * Waits for a slot and a token of a host, interactive requests first.
+     *
+     * @param host The host and port the request goes to.
+     * @param maxWait Longest time to wait.
+     * @return The permit to close once the response has been read, or null if none was granted in time.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public Permit acquire(String host, Duration maxWait) throws InterruptedException {
+        Lane lane = lanes.computeIfAbsent(host, this::newLane);
+        return lane.acquire(PRIORITY.get(), maxWait.toNanos());
+    }
+
+    /**
+     * Writes the queue depth, wait time and rejections of every host and priority in the Prometheus text format.
+     *
+     * @param out The writer.
+     */
+    public void write(PrintWriter out) {
+        out.println("# HELP outbound_queue_depth Requests waiting for a slot or a token of a host.");
+        out.println("# TYPE outbound_queue_depth gauge");
+        for (Map.Entry<String, Lane> entry : lanes.entrySet()) {
+            for (Priority priority : Priority.values()) {
+                out.println("outbound_queue_depth{" + labels(entry.getKey(), priority) + "} "
+                        + entry.getValue().waiting(priority));
+            }
+        }
+        out.println("# HELP outbound_queue_wait_seconds Time a request waited for a slot and a token of a host.");
+        out.println("# TYPE outbound_queue_wait_seconds histogram");
+        for (Map.Entry<String, Lane> entry : lanes.entrySet()) {
+            for (Priority priority : Priority.values()) {
+                entry.getValue().waits[priority.ordinal()].write(out, "outbound_queue_wait_seconds",
+                        labels(entry.getKey(), priority));
+            }
+        }
+        out.println("# HELP outbound_queue_timeouts_total Requests not sent because no slot or token came in time.");
+        out.println("# TYPE outbound_queue_timeouts_total counter");
+        for (Map.Entry<String, Lane> entry : lanes.entrySet()) {
+            for (Priority priority : Priority.values()) {
+                out.println("outbound_queue_timeouts_total{" + labels(entry.getKey(), priority) + "} "
+                        + entry.getValue().timeouts[priority.ordinal()].sum());
+            }
+        }
+    }
+
+    private static String labels(String host, Priority priority) {
+        return "host=\"" + host + "\",priority=\"" + priority.label() + "\"";
+    }
+
+    private Lane newLane(String host) {
+        // Limits may be given with or without the port
+        double[] limits = hostLimits.get(host);
+        if (limits == null && host.indexOf(':') >= 0) {
+            limits = hostLimits.get(host.substring(0, host.indexOf(':')));
+        }
+        return limits == null
+                ? new Lane(defaultMaxConcurrency, defaultRequestsPerSecond)
+                : new Lane((int) limits[0], limits[1]);
+    }
+
+    /**
+     * A granted slot of a host, closed once the response has been read.
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * The slots, token bucket and waiters of one host.
+     */
+    private static final class Lane {
+        private final int maxConcurrency;
+        private final double tokensPerNano;
+        private final double burst;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        // Guarded by lock
+        private int inFlight;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        private final int[] waiting = new int[Priority.values().length];
+        // Wait time and rejections by priority
+        private final LatencyHistogram[] waits = new LatencyHistogram[Priority.values().length];
+        private final LongAdder[] timeouts = new LongAdder[Priority.values().length];
+
+        Lane(int maxConcurrency, double requestsPerSecond) {
+            this.maxConcurrency = Math.max(1, maxConcurrency);
+            this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.burst = Math.max(1, requestsPerSecond);
+            this.tokens = burst;
+            for (int i = 0; i < waits.length; i++) {
+                waits[i] = new LatencyHistogram();
+                timeouts[i] = new LongAdder();
+            }
+        }
+
+        Permit acquire(Priority priority, long maxWaitNanos) throws InterruptedException {
+            long start = System.nanoTime();
+            long deadline = start + maxWaitNanos;
+            lock.lock();
+            try {
+                waiting[priority.ordinal()]++;
+                try {
+                    while (true) {
+                        refill();
+                        // Background requests only go when no interactive request is waiting
+                        boolean turn = priority == Priority.INTERACTIVE || waiting[Priority.INTERACTIVE.ordinal()] == 0;
+                        if (turn && inFlight < maxConcurrency && tokens >= 1) {
+                            tokens -= 1;
+                            inFlight++;
+                            waits[priority.ordinal()].record(System.nanoTime() - start);
+                            return this::release;
+                        }
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            timeouts[priority.ordinal()].increment();
+                            return null;
+                        }
+                        // Wake up when a token is due if a slot is free, otherwise when something changes
+                        long untilToken = turn && inFlight < maxConcurrency
+                                ? (long) Math.ceil((1 - tokens) / tokensPerNano) : remaining;
+                        changed.awaitNanos(Math.max(1, Math.min(remaining, untilToken)));
+                    }
+                } finally {
+                    waiting[priority.ordinal()]--;
+                    // Leaving the queue may let a background waiter go
+                    changed.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release() {
+            lock.lock();
+            try {
+                inFlight--;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+
+        int waiting(Priority priority) {
+            lock.lock();
+            try {
+                return waiting[priority.ordinal()];
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
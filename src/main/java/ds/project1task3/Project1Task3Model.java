@@ -6,67 +6,152 @@
  * The {@code Project1Task3Model} class provides methods to fetch and parse various pieces of
  * information related to U.S. states from different web sources, including state populations
  * from the Census API, and details like flag URLs, seal URLs, state capitals, and governors
- * from Wikipedia pages.
+ * from Wikipedia pages. The credits of the flag and seal images come from batched Wikimedia Commons API queries.
  *
- * It utilizes the Gson library for parsing JSON responses and Jsoup for parsing HTML content.
- * The class also implements methods to bypass SSL certificate validation for HTTPS connections,
- * which should be used with caution and only in trusted environments.
+ * State populations are served from an in-memory {@link StatePopulationIndex} that is loaded once and
+ * refreshed in the background, so a population lookup never makes a network call. States are identified by
+ * their {@link StateRegistry} ordinal, and the Wikipedia URL of every state is built once with the model.
+ *
+ * It utilizes the Gson library for parsing JSON responses and Jsoup for parsing HTML content. The capital and
+ * governor are extracted by the rules of {@link InfoboxExtractor} in one walk over the parsed infobox.
+ * Every upstream call goes through one shared {@link HttpFetcher}, which pools connections and sets up
+ * its TLS context once.
  */
 
 package ds.project1task3;
 
-// import gson, jsoup, and other necessary classes
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
+// import the necessary Java classes
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import javax.net.ssl.HostnameVerifier;
-import javax.net.ssl.HttpsURLConnection;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLSession;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-import java.security.cert.X509Certificate;
+import java.util.Map;
 
 public class Project1Task3Model {
+    // Default time a loaded Census population table stays fresh
+    static final Duration DEFAULT_POPULATION_TTL = Duration.ofHours(24);
+
+    // Default time a fetched Wikipedia state page is reused
+    static final Duration DEFAULT_PAGE_TTL = Duration.ofHours(1);
+
+    // In-memory index of the Census population table, shared by every lookup on this model
+    private final StatePopulationIndex populationIndex;
+    // Fetches each Wikipedia state page once and shares it across extractors and information types
+    private final WikipediaPageProvider pageProvider;
+
+    // The shared HTTP client used by every upstream call
+    private final HttpFetcher fetcher;
+    // Where the Census, Wikipedia and Commons upstreams live
+    private final UpstreamEndpoints endpoints;
+    // Resolves the flag and seal credits through batched Commons API queries
+    private final CommonsCreditResolver creditResolver;
+    // Store of the local image proxy, which serves only the images allowed by proxied, null if the proxy is off
+    private final ImageStore images;
+    // Path of the local image proxy that image URLs are rewritten to, null to leave them pointing at the image host
+    private final String imageProxyPath;
+    // The Wikipedia URL of every state, indexed by ordinal
+    private final String[] wikipediaURLs = new String[StateRegistry.COUNT];
+
+    /**
+     * Creates a model with the default HTTP client whose population table is refreshed every
+     * {@link #DEFAULT_POPULATION_TTL}.
+     */
+    public Project1Task3Model() {
+        this(DEFAULT_POPULATION_TTL, new HttpFetcher(), true, UpstreamEndpoints.DEFAULT, null, null);
+    }
+
+    /**
+     * Creates a model whose population table is refreshed in the background every {@code populationTtl}.
+     *
+     * @param populationTtl How long a loaded Census population table stays fresh.
+     * @param fetcher The shared HTTP client used for every upstream call.
+     * @param streamPages If true, Wikipedia pages are streamed and the connection is closed as soon as the
+     *                    infobox has been read, instead of downloading the whole article.
+     * @param endpoints Where the Census, Wikipedia, Commons and image upstreams live.
+     * @param images Store of the local image proxy, which is told about every rewritten image, or null.
+     * @param imageProxyPath Path of the local image proxy, e.g. "/app/images", that flag and seal URLs on the
+     *                       image host are rewritten to, or null to leave them pointing at the image host.
+     */
+    public Project1Task3Model(Duration populationTtl, HttpFetcher fetcher, boolean streamPages,
+                              UpstreamEndpoints endpoints, ImageStore images, String imageProxyPath) {
+        this.fetcher = fetcher;
+        this.endpoints = endpoints;
+        this.images = images;
+        this.imageProxyPath = images == null ? null : imageProxyPath;
+        this.creditResolver = new CommonsCreditResolver(endpoints.commonsApiURL(), fetcher, DEFAULT_PAGE_TTL);
+        // The population table is loaded and refreshed in the background, behind requests for waiting users
+        this.populationIndex = new StatePopulationIndex(() -> OutboundScheduler.supplyAs(OutboundScheduler.Priority.BACKGROUND,
+                () -> fetcher.fetch(Upstream.CENSUS, endpoints.censusURL())), populationTtl, fetcher.getMetrics());
+        // In streaming mode a page is read only up to the end of its infobox, which holds every extracted field
+        this.pageProvider = new WikipediaPageProvider(streamPages
+                ? url -> fetcher.fetch(Upstream.WIKIPEDIA, url, new InfoboxEndDetector())
+                : url -> fetcher.fetch(Upstream.WIKIPEDIA, url), DEFAULT_PAGE_TTL);
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            wikipediaURLs[i] = endpoints.wikipediaURL(StateRegistry.wikipediaTitle(i));
+        }
+    }
+
+    /**
+     * @return The shared HTTP client used for every upstream call.
+     */
+    public HttpFetcher getFetcher() {
+        return fetcher;
+    }
+
     /**
-     * Retrieves the population of a specified state using the Census API.
+     * @return The single-flight group of Wikipedia page fetches, for its call and collapse counters.
+     */
+    public SingleFlight<String, WikipediaPageProvider.Page> getPageFlights() {
+        return pageProvider.getFlights();
+    }
+
+    /**
+     * Returns the URL of the Wikipedia page of a state.
      *
-     * @param state The name of the state to query.
+     * @param state The ordinal of the state.
+     * @return The URL of the page.
+     */
+    public String getWikipediaURL(int state) {
+        return wikipediaURLs[state];
+    }
+
+    /**
+     * Loads the Census population table and starts its background refresh.
+     */
+    public void start() {
+        populationIndex.start();
+    }
+
+    /**
+     * Stops the background work started by {@link #start()}.
+     */
+    public void shutdown() {
+        populationIndex.stop();
+        fetcher.shutdown();
+    }
+
+    /**
+     * Retrieves the population of a specified state from the in-memory Census population index.
+     * The lookup is a single array read and makes no network call.
+     *
+     * @param state The ordinal of the state to query.
      * @return The population of the state as a string, or null if the state is not found.
-     * @throws UnsupportedEncodingException If the state name encoding is not supported.
      */
-    public String getStatePopulation(String state)
-            throws UnsupportedEncodingException {
-        // Fetch the population data from the Census API
-        String response = "";
-
-        // Construct the API URL
-        String url = "https://api.census.gov/data/2020/dec/pl?get=NAME,P1_001N&for=state:*";
-        // Fetch the API response
-        response = fetch(url);
-        Gson gson = new Gson();
-        // Parse the JSON response into a list of lists
-        List<List<String>> statePopulations =
-                gson.fromJson(response, new TypeToken<List<List<String>>>(){}.getType());
-        // Iterate through the list to find the matching state and return its population
-        for (List<String> statePopulation : statePopulations) {
-            if (statePopulation.get(0).equals(state)) {
-                return statePopulation.get(1);
-            }
+    public String getStatePopulation(int state) {
+        String population = populationIndex.getByOrdinal(state);
+        if (population == null) {
+            fetcher.getMetrics().recordMiss("population");
         }
-        // Return null if the state is not found
-        return null;
+        return population;
+    }
+
+    /**
+     * Retrieves the population of a state by its two digit FIPS code from the in-memory Census population index.
+     *
+     * @param fips The FIPS code of the state to query.
+     * @return The population of the state as a string, or null if the code is not found.
+     */
+    public String getStatePopulationByFips(String fips) {
+        return populationIndex.getByFips(fips);
     }
 
     /**
@@ -76,302 +161,240 @@ public class Project1Task3Model {
      * @return The HTML content as a string.
      */
     public String getWikipediaResponse(String url) {
-        // Fetch the URL content using TLSv1.3
-        return fetch(url, "TLSv1.3");
+        // Reuse the shared page
+        WikipediaPageProvider.Page page = getWikipediaPage(url);
+        return page == null ? null : page.html();
     }
 
     /**
-     * Extracts the flag URL from the HTML content of a Wikipedia page.
+     * Returns the shared Wikipedia page at the given URL. The page is fetched and parsed once and the same
+     * instance is handed to every extractor for both information types.
      *
-     * @param response The HTML content of a Wikipedia page.
-     * @return The URL of the flag image.
+     * @param url The Wikipedia URL of the page.
+     * @return The page, or null if it could not be fetched.
      */
-    public String getFlagURL(String response) {
-        // HTML snippet to locate the flag image URL
-        String s = "<div class=\"ib-settlement-cols-cell\"><span class=\"mw-image-border\" typeof=\"mw:File\"><a href=\"/wiki/File:Flag_of_";
-        if (!response.contains(s)) {
-            // Alternate HTML snippet if the first one is not found
-            s = "<div class=\"ib-settlement-cols-cell\"><span typeof=\"mw:File\"><a href=\"/wiki/File:Flag_of_";
-        }
-        // Extract and return the image URL
-        return getImageURL(response, s);
+    public WikipediaPageProvider.Page getWikipediaPage(String url) {
+        return pageProvider.get(url);
     }
 
     /**
-     * Extracts the credit information for the flag image from the Wikimedia Commons page.
+     * Extracts the flag and seal URLs from a shared Wikipedia page in a single pass over its content.
      *
-     * @param state The name of the state to query.
-     * @return The credit information for the flag image.
+     * @param page The Wikipedia page of the state.
+     * @return The image URLs indexed by {@link SymbolImageExtractor.Symbol#ordinal()}, null where not found.
      */
-    public String getFlagCredit(String state) {
-        // Check if the state parameter is "Georgia_(U.S._state)" and adjust the name to match the Wikimedia Commons page title
-        if (state.equals("Georgia_(U.S._state)")) {
-            state = "the_State_of_Georgia";
+    public String[] getSymbolURLs(WikipediaPageProvider.Page page) {
+        String[] urls = SymbolImageExtractor.extract(page.html());
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = proxied(urls[i]);
         }
-
-        // Construct the URL for the Wikimedia Commons page of the state's flag using the state name
-        String url = "https://commons.wikimedia.org/wiki/File:Flag_of_" + state + ".svg";
-
-        try {
-            // Use Jsoup to fetch and parse the HTML content of the Wikimedia Commons page at the constructed URL
-            Document doc = Jsoup.connect(url).get();
-
-            // Use a CSS selector to find the first element that matches the given path in the HTML document,
-            // which is expected to contain the credit information for the flag image
-            Element credit = doc.select("#mw-imagepage-section-filehistory > table > tbody > tr:nth-child(2) > td:nth-child(5) > a > bdi").first();
-
-            // Check if the credit element is found; if so, return its text content, which should be the credit information
-            if (credit != null) {
-                return credit.text();
-            }
-        } catch (IOException e) {
-            // Print the stack trace of the exception for debugging purposes
-            e.printStackTrace();
+        // Count the symbols no anchor was found for
+        if (urls[SymbolImageExtractor.Symbol.FLAG.ordinal()] == null) {
+            fetcher.getMetrics().recordMiss("flagURL");
         }
+        if (urls[SymbolImageExtractor.Symbol.SEAL.ordinal()] == null) {
+            fetcher.getMetrics().recordMiss("sealURL");
+        }
+        return urls;
+    }
 
-        // Return "N.A." if the credit information could not be retrieved (either because the element was not found or due to an exception)
-        return "N.A.";
+    /**
+     * Extracts the flag URL from a shared Wikipedia page.
+     *
+     * @param page The Wikipedia page of the state.
+     * @return The URL of the flag image.
+     */
+    public String getFlagURL(WikipediaPageProvider.Page page) {
+        return getFlagURL(page.html());
     }
 
+    /**
+     * Extracts the seal URL from a shared Wikipedia page.
+     *
+     * @param page The Wikipedia page of the state.
+     * @return The URL of the seal image.
+     */
+    public String getSealURL(WikipediaPageProvider.Page page) {
+        return getSealURL(page.html());
+    }
 
     /**
-     * Extracts the seal URL from the HTML content of a Wikipedia page.
+     * Extracts the flag URL from the HTML content of a Wikipedia page.
      *
      * @param response The HTML content of a Wikipedia page.
-     * @return The URL of the seal image.
+     * @return The URL of the flag image, or null if it is not found.
      */
-    public String getSealURL(String response) {
-        // Initialize the search pattern for the general format of seal image URLs in the HTML response
-        String s = "<div class=\"ib-settlement-cols-cell\"><span typeof=\"mw:File\"><a href=\"/wiki/File:Seal_of_";
+    public String getFlagURL(String response) {
+        return proxied(SymbolImageExtractor.extract(response)[SymbolImageExtractor.Symbol.FLAG.ordinal()]);
+    }
 
-        // Check if the initial pattern is not found in the response and update the pattern to match "State Seal of"
-        if (!response.contains(s)) {
-            s = "<div class=\"ib-settlement-cols-cell\"><span typeof=\"mw:File\"><a href=\"/wiki/File:State_Seal_of_";
-        }
-        // If the updated pattern is still not found, modify the search pattern to match "State_seal_of"
-        if (!response.contains(s)) {
-            s = "<div class=\"ib-settlement-cols-cell\"><span typeof=\"mw:File\"><a href=\"/wiki/File:State_seal_of_";
+    /**
+     * Returns the credit information for the flag image, the uploader of the current version of the file on
+     * Wikimedia Commons.
+     *
+     * @param state The ordinal of the state to query.
+     * @return The credit information for the flag image.
+     */
+    public String getFlagCredit(int state) {
+        return getSymbolCredits(state, SymbolImageExtractor.Symbol.FLAG)[SymbolImageExtractor.Symbol.FLAG.ordinal()];
+    }
+
+    /**
+     * Returns the credit information for the given symbol images of a state, resolved with one batched
+     * Wikimedia Commons API query.
+     *
+     * @param state The ordinal of the state to query.
+     * @param symbols The symbols to resolve.
+     * @return The credits indexed by {@link SymbolImageExtractor.Symbol#ordinal()}, "N.A." where not found and
+     *         null for symbols that were not asked for.
+     */
+    public String[] getSymbolCredits(int state, SymbolImageExtractor.Symbol... symbols) {
+        List<String> files = new ArrayList<>();
+        for (SymbolImageExtractor.Symbol symbol : symbols) {
+            files.add(StateRegistry.commonsFile(state, symbol));
         }
-        // If the previous pattern is not found, update the search pattern to look for "Great Seal of"
-        if (!response.contains(s)) {
-            s = "<div class=\"ib-settlement-cols-cell\"><span typeof=\"mw:File\"><a href=\"/wiki/File:Great_Seal_of_";
+        Map<String, String> users = creditResolver.resolve(files);
+        String[] credits = new String[SymbolImageExtractor.Symbol.values().length];
+        for (SymbolImageExtractor.Symbol symbol : symbols) {
+            String credit = users.get(StateRegistry.commonsFile(state, symbol));
+            if (credit == null) {
+                // Return "N.A." if the credit information could not be retrieved (either because the file was not found or the query failed)
+                fetcher.getMetrics().recordMiss(symbol == SymbolImageExtractor.Symbol.FLAG ? "flagCredit" : "sealCredit");
+                credit = "N.A.";
+            }
+            credits[symbol.ordinal()] = credit;
         }
+        return credits;
+    }
 
-        // If none of the above patterns are found, specifically look for the Arizona state seal image URL
-        if (!response.contains(s)) {
-            s = "<div class=\"ib-settlement-cols-cell\"><span typeof=\"mw:File\"><a href=\"/wiki/File:Arizona_state_seal.svg\"";
+    /**
+     * Resolves the flag and seal credits of many states at once, at most 25 states per API query, so that
+     * later lookups of these states are answered from memory.
+     *
+     * @param states The ordinals of the states.
+     */
+    public void prefetchCredits(int[] states) {
+        List<String> files = new ArrayList<>();
+        for (int state : states) {
+            for (SymbolImageExtractor.Symbol symbol : SymbolImageExtractor.Symbol.values()) {
+                files.add(StateRegistry.commonsFile(state, symbol));
+            }
         }
+        creditResolver.resolve(files);
+    }
 
-        // If the Arizona seal pattern is not found, finally look for the Wyoming state seal image URL
-        if (!response.contains(s)) {
-            s = "<div class=\"ib-settlement-cols-cell\"><span typeof=\"mw:File\"><a href=\"/wiki/File:Wyoming-StateSeal.svg";
+    /**
+     * Rewrites the URL of an image on the image host to the same path on the local image proxy, and allows the
+     * proxy to serve that path.
+     *
+     * @param url The image URL as extracted from the page, or null.
+     * @return The proxy URL, or the URL unchanged if the proxy is off or the image is on another host.
+     */
+    private String proxied(String url) {
+        if (url == null || imageProxyPath == null) {
+            return url;
         }
+        String path = endpoints.imagePath(url);
+        if (path == null) {
+            return url;
+        }
+        images.allow(path);
+        return imageProxyPath + path;
+    }
 
-        // Use the final search pattern to extract the seal image URL from the HTML response
-        return getImageURL(response, s);
+
+    /**
+     * Extracts the seal URL from the HTML content of a Wikipedia page.
+     *
+     * @param response The HTML content of a Wikipedia page.
+     * @return The URL of the seal image, or null if it is not found.
+     */
+    public String getSealURL(String response) {
+        return proxied(SymbolImageExtractor.extract(response)[SymbolImageExtractor.Symbol.SEAL.ordinal()]);
     }
 
 
     /**
-     * Extracts the credit information for the seal image from the Wikimedia Commons page.
+     * Returns the credit information for the seal image, the uploader of the current version of the file on
+     * Wikimedia Commons.
      *
-     * @param state The name of the state to query.
+     * @param state The ordinal of the state to query.
      * @return The credit information for the seal image.
      */
-    public String getSealCredit(String state) {
-        // Check if the state is Georgia, adjust the state name accordingly
-        if (state.equals("Georgia_(U.S._state)")) {
-            state = "the_State_of_Georgia";
-        }
-        // Construct the URL for the Wikimedia Commons page of the state seal
-        String url = "https://commons.wikimedia.org/wiki/File:Seal_of_" + state + ".svg";
-        try {
-            // Connect to the URL and retrieve the document using Jsoup
-            Document doc = Jsoup.connect(url).get();
-            // Select the credit element from the Wikimedia Commons page
-            Element credit = doc.select("#mw-imagepage-section-filehistory > table > tbody > tr:nth-child(2) > td:nth-child(5) > a > bdi").first();
-            // If credit information is found, return it
-            if (credit != null) {
-                return credit.text();
-            }
-        } catch (IOException e) {
-            // Print the stack trace if an IOException occurs during the connection
-            e.printStackTrace();
-        }
-        // If credit information is not found or an exception occurs, return "N.A."
-        return "N.A.";
+    public String getSealCredit(int state) {
+        return getSymbolCredits(state, SymbolImageExtractor.Symbol.SEAL)[SymbolImageExtractor.Symbol.SEAL.ordinal()];
     }
 
 
     /**
-     * Extracts the capital city from the HTML content of a Wikipedia page.
+     * Extracts the capital city from the Wikipedia page at the given URL.
      *
      * @param url The Wikipedia URL to fetch content from.
      * @return The name of the capital city.
      */
     public String getCapital(String url) {
-        // Attempt to connect to the provided URL and retrieve the document using Jsoup
-        try {
-            Document doc = Jsoup.connect(url).get();
-            // Select the element representing the capital from the Wikipedia infobox
-            Element capital = doc.select("#mw-content-text > div.mw-content-ltr.mw-parser-output > table.infobox.ib-settlement.vcard > tbody > tr:nth-child(12) > td > a").first();
-            // If the capital element is found, return its text
-            if (capital != null) {
-                return capital.text();
-            }
-        } catch (IOException e) {
-            // Print the stack trace if an IOException occurs during the connection
-            e.printStackTrace();
-        }
-        // If the capital element is not found or an exception occurs, return null
-        return null;
+        WikipediaPageProvider.Page page = getWikipediaPage(url);
+        return page == null ? null : getCapital(page);
+    }
+
+    /**
+     * Extracts the capital city from the parsed document of a shared Wikipedia page.
+     *
+     * @param page The Wikipedia page of the state.
+     * @return The name of the capital city, or null if it is not found.
+     */
+    public String getCapital(WikipediaPageProvider.Page page) {
+        return getFact(page, InfoboxExtractor.Field.CAPITAL);
     }
 
 
     /**
-     * Extracts the governor from the HTML content of a Wikipedia page.
+     * Extracts the governor from the Wikipedia page at the given URL.
      *
      * @param url The Wikipedia URL to fetch content from.
      * @return The name of the governor.
      */
     public String getGovernor(String url) {
-        // Attempt to connect to the provided URL and retrieve the document using Jsoup
-        try {
-            Document doc = Jsoup.connect(url).get();
-            // Select the element representing the governor from the Wikipedia infobox
-            Element governor = doc.select("#mw-content-text > div.mw-content-ltr.mw-parser-output > table.infobox.ib-settlement.vcard > tbody > tr:nth-child(17) > td > span > a:nth-child(1)").first();
-            // If the governor element is not found in the specified position, attempt to find it in another position
-            if (governor == null) {
-                governor = doc.select("#mw-content-text > div.mw-content-ltr.mw-parser-output > table.infobox.ib-settlement.vcard > tbody > tr:nth-child(17) > td > a:nth-child(1)").first();
-            }
-            // If the governor element is found, return its text
-            if (governor != null) {
-                return governor.text();
-            }
-        } catch (IOException e) {
-            // Print the stack trace if an IOException occurs during the connection
-            e.printStackTrace();
-        }
-        // If the governor element is not found or an exception occurs, return null
-        return null;
+        WikipediaPageProvider.Page page = getWikipediaPage(url);
+        return page == null ? null : getGovernor(page);
     }
 
-
     /**
-     * Helper method to extract an image URL from HTML content based on a starting snippet.
+     * Extracts the governor from the parsed document of a shared Wikipedia page.
      *
-     * @param response The HTML content to search through.
-     * @param s The starting snippet to locate the image URL.
-     * @return The extracted image URL.
+     * @param page The Wikipedia page of the state.
+     * @return The name of the governor, or null if it is not found.
      */
-    private String getImageURL(String response, String s) {
-        // Find the start index of the image URL
-        int cutLeft = response.indexOf(s) + s.length();
-        // The attribute that contains the URL
-        s = "src=\"";
-        cutLeft = response.indexOf(s, cutLeft) + s.length();
-        // Find the end index of the image URL
-        int cutRight = response.indexOf("\"", cutLeft);
-        // Extract and return the image URL
-        return response.substring(cutLeft, cutRight);
+    public String getGovernor(WikipediaPageProvider.Page page) {
+        return getFact(page, InfoboxExtractor.Field.GOVERNOR);
     }
 
     /**
-     * Fetches content from a given URL.
+     * Extracts the capital and the governor from the parsed document of a shared Wikipedia page in one walk
+     * over its infobox.
      *
-     * @param urlString The URL to fetch content from.
-     * @return The content as a string.
+     * @param page The Wikipedia page of the state.
+     * @return The values indexed by {@link InfoboxExtractor.Field#ordinal()}, null where not found.
      */
-    private String fetch(String urlString) {
-        StringBuilder response = new StringBuilder();
-        try {
-            URL url = new URL(urlString);
-            /*
-             * Create an HttpURLConnection.  This is useful for setting headers
-             * and for getting the path of the resource that is returned (which
-             * may be different than the URL above if redirected).
-             * HttpsURLConnection (with an "s") can be used if required by the site.
-             */
-
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), "UTF-8"));
-            String str;
-            // Read and append each line of the response
-            while ((str = in.readLine()) != null) {
-                response.append(str);
+    public String[] getFacts(WikipediaPageProvider.Page page) {
+        String[] facts = InfoboxExtractor.extract(page.document());
+        // Count the fields no rule matched for
+        for (InfoboxExtractor.Field field : InfoboxExtractor.Field.values()) {
+            if (facts[field.ordinal()] == null) {
+                fetcher.getMetrics().recordMiss(field.label());
             }
-            in.close();
-        } catch (IOException e) {
-            System.out.println("Eeek, an exception");
-            // Consider better exception handling or re-throwing
         }
-        return response.toString();
+        return facts;
     }
 
-    // Method cite from class example https://github.com/CMU-Heinz-95702/Project-1
-    private String fetch(String searchURL, String certType) {
-        try {
-            // Create trust manager, which lets you ignore SSLHandshakeExceptions
-            createTrustManager(certType);
-        } catch (KeyManagementException | NoSuchAlgorithmException ex) {
-            System.out.println("Shouldn't come here: ");
-            ex.printStackTrace();
-        }
-
-        StringBuilder response = new StringBuilder();
-        try {
-            URL url = new URL(searchURL);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-
-            // Read all the text returned by the server
-            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), "UTF-8"));
-            String str;
-            // Read each line of "in" until done, adding each to "response"
-            while ((str = in.readLine()) != null) {
-                // str is one line of text readLine() strips newline characters
-                response.append(str);
-            }
-            in.close();
-        } catch (IOException e) {
-            System.err.println("Something wrong with URL");
-            return null;
-        }
-        return response.toString();
-    }
-
-    // Method cite from class example https://github.com/CMU-Heinz-95702/Project-1
-    private void createTrustManager(String certType) throws KeyManagementException, NoSuchAlgorithmException{
-        /**
-         * Annoying SSLHandShakeException. After trying several methods, finally this
-         * seemed to work.
-         * Taken from: http://www.nakov.com/blog/2009/07/16/disable-certificate-validation-in-java-ssl-connections/
-         */
-        // Create a trust manager that does not validate certificate chains
-        TrustManager[] trustAllCerts = new TrustManager[] {new X509TrustManager() {
-            public X509Certificate[] getAcceptedIssuers() {
-                return null;
-            }
-            public void checkClientTrusted(X509Certificate[] certs, String authType) {
-            }
-            public void checkServerTrusted(X509Certificate[] certs, String authType) {
-            }
+    /**
+     * Extracts one field from the infobox of a shared Wikipedia page.
+     */
+    private String getFact(WikipediaPageProvider.Page page, InfoboxExtractor.Field field) {
+        String value = InfoboxExtractor.extract(page.document())[field.ordinal()];
+        if (value == null) {
+            fetcher.getMetrics().recordMiss(field.label());
         }
-        };
-
-        // Install the all-trusting trust manager
-        SSLContext sc = SSLContext.getInstance(certType);
-        sc.init(null, trustAllCerts, new java.security.SecureRandom());
-        HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
-
-        // Create all-trusting host name verifier
-        HostnameVerifier allHostsValid = new HostnameVerifier() {
-            public boolean verify(String hostname, SSLSession session) {
-                return true;
-            }
-        };
-
-        // Install the all-trusting host verifier
-        HttpsURLConnection.setDefaultHostnameVerifier(allHostsValid);
+        return value;
     }
-
 }
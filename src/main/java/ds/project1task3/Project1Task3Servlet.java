@@ -5,29 +5,61 @@
  *
  * This Servlet that handles the requests from the client and sends the response back to the client.
  * The servlet receives the state name and the type of information requested from the client. It then uses the
- * Project1Task3Model class to get the information and sends the response back to the client.
+ * shared StateInformationService to get the information and sends the response back to the client.
  * The servlet uses the RequestDispatcher to forward the request to the appropriate JSP page.
- * The servlet also contains helper methods to handle the state name and the Wikipedia URL.
+ *
+ * A state that is already in the warm snapshot is answered right away. Otherwise the servlet starts an
+ * asynchronous request, hands the lookup to the service's page lookup pool and returns its container thread;
+ * the lookup dispatches to the JSP page when it completes. If it does not complete before the async timeout,
+ * a degraded page with every field set to "N.A." is shown instead of leaving the request hanging.
+ *
+ * With progressive rendering on, a cold population and symbols request is answered right away with the page
+ * shell and the population, which comes from the in-memory Census index; the page then receives the flag, the
+ * seal and their credits from {@link SymbolEventsServlet} as each of them becomes available.
  */
 
 package ds.project1task3;
 
 // Import necessary Java and Jakarta Servlet API classes
-import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.*;
 import jakarta.servlet.annotation.*;
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-// Annotation to declare servlet's name and URL pattern it responds to
-@WebServlet(name = "Project1Task3Servlet", urlPatterns = {"/Information"})
+// Annotation to declare servlet's name and URL pattern it responds to, and that it may answer asynchronously
+@WebServlet(name = "Project1Task3Servlet", urlPatterns = {"/Information"}, asyncSupported = true)
 public class Project1Task3Servlet extends HttpServlet {
+    // The service shared by every request, created by StateWarmupListener
+    private StateInformationService service;
+    // Time an asynchronous request may wait for its lookup before the degraded page is shown
+    private long asyncTimeoutMillis;
+    // True to send the population and symbols page before its images and credits are known
+    private boolean progressive;
+
+    /**
+     * Looks up the shared service published by {@link StateWarmupListener} and reads the async timeout and the
+     * rendering mode.
+     */
+    @Override
+    public void init() {
+        service = StateWarmupListener.getService(getServletContext());
+        asyncTimeoutMillis = StateWarmupListener.longParam(getServletContext(),
+                StateWarmupListener.ASYNC_TIMEOUT_PARAM, 8000);
+        String progressiveRendering = getServletContext().getInitParameter(StateWarmupListener.PROGRESSIVE_PARAM);
+        progressive = progressiveRendering == null || Boolean.parseBoolean(progressiveRendering);
+    }
 
     /**
      * This method handles the GET request from the client. It receives the state name and the type of information
-     * requested from the client. It then uses the Project1Task3Model class to get the information and sends the
-     * response back to the client. The servlet uses the RequestDispatcher to forward the request to the appropriate
-     * JSP page.
+     * requested from the client. A warm state is forwarded to the appropriate JSP page right away; any other state
+     * is looked up asynchronously by the StateInformationService class, and the JSP page is dispatched to when the
+     * lookup completes or the async timeout passes.
      *
      * @param request HttpServletRequest object that contains the request the client has made of the servlet
      * @param response HttpServletResponse object that contains the response the servlet sends to the client
@@ -35,141 +67,143 @@ public class Project1Task3Servlet extends HttpServlet {
      * @throws ServletException if the request for the GET could not be handled
      */
     public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
-        // Create a new Project1Task3Model object
-        Project1Task3Model model = new Project1Task3Model();
         // Get the state name and the type of information requested from the client
         String state = request.getParameter("states");
-        // Create a RequestDispatcher object
-        RequestDispatcher dispatcher = null;
         // Check the type of information requested
-        if (request.getParameter("InformationType").equals("type1")) {
-            // Get the population and symbols information
-            dispatcher = getPopulationAndSymbol(request, response, model, state);
-        } else {
-            // Get the facts information
-            dispatcher = getFacts(request, response, model, state);
+        boolean symbols = request.getParameter("InformationType").equals("type1");
+
+        // Answer from the snapshot without going asynchronous when the state is warm
+        StateRecord warm = service.findWarm(state, symbols, !symbols);
+        if (warm != null) {
+            // Forward the request to the appropriate JSP page
+            request.getRequestDispatcher(setAttributes(request, warm, symbols)).forward(request, response);
+            return;
+        }
+
+        // Send the page with the population now and stream the images and credits into it
+        int ordinal = StateRegistry.ordinal(state);
+        if (symbols && progressive && ordinal >= 0) {
+            request.getRequestDispatcher(getPopulationShell(request, ordinal)).forward(request, response);
+            return;
         }
-        // Forward the request to the appropriate JSP page
-        dispatcher.forward(request, response);
+
+        // Release the container thread while the upstream lookup runs
+        AsyncContext async = request.startAsync();
+        async.setTimeout(asyncTimeoutMillis);
+        // Whichever of the lookup and the timeout comes first answers the request
+        AtomicBoolean answered = new AtomicBoolean();
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                if (answered.compareAndSet(false, true)) {
+                    dispatchDegraded(async, state, symbols);
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                answered.set(true);
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        service.lookupAsync(state, symbols, !symbols).whenComplete((record, failure) -> {
+            if (!answered.compareAndSet(false, true)) {
+                return;
+            }
+            if (failure != null || record == null) {
+                dispatchDegraded(async, state, symbols);
+            } else {
+                async.dispatch(setAttributes((HttpServletRequest) async.getRequest(), record, symbols));
+            }
+        });
     }
 
     /**
-     * This method gets the population and symbols information of the state and sets the attributes in the request
-     * object. It then returns the RequestDispatcher object to forward the request to the populationAndSymbols.jsp page.
+     * Dispatches an asynchronous request to its JSP page with every requested field set to "N.A.".
      *
-     * @param request HttpServletRequest object that contains the request the client has made of the servlet
-     * @param response HttpServletResponse object that contains the response the servlet sends to the client
-     * @param model Project1Task3Model object that contains the methods to get the population and symbols information
+     * @param async AsyncContext object of the request
      * @param state String object that contains the state name
-     * @return RequestDispatcher object to forward the request to the populationAndSymbols.jsp page
-     * @throws IOException if an input or output error is detected when the servlet handles the request
-     * @throws ServletException if the request for the GET could not be handled
+     * @param symbols true if the population and symbols were requested, false for the facts
      */
-    private RequestDispatcher getPopulationAndSymbol(HttpServletRequest request, HttpServletResponse response,
-                                        Project1Task3Model model, String state) throws IOException, ServletException {
-        // Get the state population
-        String statePopulation = model.getStatePopulation(state);
-        // change the state name to the format that can be used in the Wikipedia URL
-        state = stateName(state);
-        // Get the flag and seal information
-        String wikipediaURL = "https://en.wikipedia.org/wiki/" + state;
-        String wikipediaResponse = model.getWikipediaResponse(wikipediaURL);
-        String flagURL = model.getFlagURL(wikipediaResponse);
-        String flagCredit = model.getFlagCredit(state);
-        String sealURL = model.getSealURL(wikipediaResponse);
-        String sealCredit = model.getSealCredit(state);
-        // change the state name back to the original format
-        state = recoverStateName(state);
-        // Set the attributes in the request object
-        request.setAttribute("state", state);
-        request.setAttribute("statePopulation", statePopulation);
-        request.setAttribute("stateFlag", flagURL);
-        request.setAttribute("stateFlagCredit", flagCredit);
-        request.setAttribute("stateSeal", sealURL);
-        request.setAttribute("stateSealCredit", sealCredit);
-        // Return the RequestDispatcher object to forward the request to the populationAndSymbols.jsp page
-        return request.getRequestDispatcher("populationAndSymbols.jsp");
+    private void dispatchDegraded(AsyncContext async, String state, boolean symbols) {
+        HttpServletRequest request = (HttpServletRequest) async.getRequest();
+        request.setAttribute("degraded", Boolean.TRUE);
+        async.dispatch(setAttributes(request, StateInformationService.unavailable(state, symbols, !symbols), symbols));
     }
 
     /**
-     * This method gets the facts information of the state and sets the attributes in the request object. It then returns
-     * the RequestDispatcher object to forward the request to the facts.jsp page.
+     * This method sets the attributes of the requested information type and returns the JSP page that shows them.
      *
      * @param request HttpServletRequest object that contains the request the client has made of the servlet
-     * @param response HttpServletResponse object that contains the response the servlet sends to the client
-     * @param model Project1Task3Model object that contains the methods to get the facts information
-     * @param state String object that contains the state name
-     * @return RequestDispatcher object to forward the request to the facts.jsp page
-     * @throws IOException if an input or output error is detected when the servlet handles the request
-     * @throws ServletException if the request for the GET could not be handled
+     * @param record StateRecord object that contains the information
+     * @param symbols true if the population and symbols were requested, false for the facts
+     * @return the path of the JSP page to forward or dispatch to
      */
-    private RequestDispatcher getFacts(HttpServletRequest request, HttpServletResponse response,
-                                        Project1Task3Model model, String state) throws IOException, ServletException {
-        // change the state name to the format that can be used in the Wikipedia URL
-        state = stateName(state);
-        // Get the capital and governor information
-        String wikipediaURL = "https://en.wikipedia.org/wiki/" + state;
-        String capital = model.getCapital(wikipediaURL);
-        String governor = model.getGovernor(wikipediaURL);
-        // change the state name back to the original format
-        state = recoverStateName(state);
+    private String setAttributes(HttpServletRequest request, StateRecord record, boolean symbols) {
+        return symbols ? getPopulationAndSymbol(request, record) : getFacts(request, record);
+    }
+
+    /**
+     * This method sets the population and symbols information of the state as attributes in the request
+     * object. It then returns the path of the populationAndSymbols.jsp page.
+     *
+     * @param request HttpServletRequest object that contains the request the client has made of the servlet
+     * @param record StateRecord object that contains the population and symbols information
+     * @return the path of the populationAndSymbols.jsp page
+     */
+    private String getPopulationAndSymbol(HttpServletRequest request, StateRecord record) {
         // Set the attributes in the request object
-        request.setAttribute("state", state);
-        request.setAttribute("stateCapital", capital);
-        request.setAttribute("stateGovernor", governor);
-        // Return the RequestDispatcher object to forward the request to the facts.jsp page
-        return request.getRequestDispatcher("facts.jsp");
+        request.setAttribute("state", record.getState());
+        request.setAttribute("statePopulation", record.getPopulation());
+        request.setAttribute("stateFlag", record.getFlagURL());
+        request.setAttribute("stateFlagCredit", record.getFlagCredit());
+        request.setAttribute("stateSeal", record.getSealURL());
+        request.setAttribute("stateSealCredit", record.getSealCredit());
+        // Return the path of the populationAndSymbols.jsp page
+        return "/populationAndSymbols.jsp";
     }
 
     /**
-     * This method changes the state name to the format that can be used in the Wikipedia URL.
-     * @param state String object that contains the state name
-     * @return String object that contains the state name in the format that can be used in the Wikipedia URL
+     * This method sets the state and its population as attributes in the request object, together with the URL
+     * of the event stream that delivers the flag, the seal and their credits. It then returns the path of the
+     * populationAndSymbols.jsp page.
+     *
+     * @param request HttpServletRequest object that contains the request the client has made of the servlet
+     * @param ordinal the ordinal of the state
+     * @return the path of the populationAndSymbols.jsp page
      */
-    private String stateName(String state) {
-        // change the blank space to underscore
-        if (state.contains(" ")) {
-            state = state.replace(" ", "_");
-        }
-        // change specific state name to the format that can be used in the Wikipedia URL
-        switch (state) {
-            case "Georgia":
-                state = "Georgia_(U.S._state)";
-                break;
-            case "New_York":
-                state = "New_York_(state)";
-                break;
-            case "Washington":
-                state = "Washington_(state)";
-                break;
-        }
-        // return the state name
-        return state;
+    private String getPopulationShell(HttpServletRequest request, int ordinal) {
+        String state = StateRegistry.name(ordinal);
+        String population = service.getModel().getStatePopulation(ordinal);
+        request.setAttribute("state", state);
+        request.setAttribute("statePopulation",
+                population == null ? StateInformationService.NOT_AVAILABLE : population);
+        request.setAttribute("symbolEvents", request.getContextPath() + SymbolEventsServlet.PATH + "?states="
+                + URLEncoder.encode(state, StandardCharsets.UTF_8));
+        return "/populationAndSymbols.jsp";
     }
 
     /**
-     * This method changes the state name back to the original format.
-     * @param state String object that contains the state name
-     * @return String object that contains the state name in the original format
+     * This method sets the facts information of the state as attributes in the request object. It then returns
+     * the path of the facts.jsp page.
+     *
+     * @param request HttpServletRequest object that contains the request the client has made of the servlet
+     * @param record StateRecord object that contains the facts information
+     * @return the path of the facts.jsp page
      */
-    private String recoverStateName(String state) {
-        // change specific state name back to the original format
-        switch (state) {
-            case "Georgia_(U.S._state)":
-                state = "Georgia";
-                break;
-            case "New_York_(state)":
-                state = "New York";
-                break;
-            case "Washington_(state)":
-                state = "Washington";
-                break;
-        }
-        // change underscore to blank space
-        if (state.contains("_")) {
-            state = state.replace("_", " ");
-        }
-        // return the state name
-        return state;
+    private String getFacts(HttpServletRequest request, StateRecord record) {
+        // Set the attributes in the request object
+        request.setAttribute("state", record.getState());
+        request.setAttribute("stateCapital", record.getCapital());
+        request.setAttribute("stateGovernor", record.getGovernor());
+        // Return the path of the facts.jsp page
+        return "/facts.jsp";
     }
 }
@@ -0,0 +1,38 @@
+/**
+ * Date: 10/16/2026
+ *
+ * This Servlet reports whether the application is ready to serve every state from memory. It answers 200 once
+ * a warmup has left every field of every state in the snapshot, or of the share of the states set by the
+ * readyFraction context parameter, and 503 while the warmup is still running or the upstreams are failing, so a
+ * load balancer can hold traffic back until then.
+ */
+
+package ds.project1task3;
+
+// Import necessary Java and Jakarta Servlet API classes
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// Annotation to declare servlet's name and URL pattern it responds to
+@WebServlet(name = "ReadinessServlet", urlPatterns = {"/ready"})
+public class ReadinessServlet extends HttpServlet {
+
+    /**
+     * Answers 200 "READY" once the snapshot is complete, otherwise 503 "WARMING UP".
+     *
+     * @param request HttpServletRequest object that contains the request the client has made of the servlet
+     * @param response HttpServletResponse object that contains the response the servlet sends to the client
+     * @throws IOException if an input or output error is detected when the servlet handles the request
+     */
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StateInformationService service = StateWarmupListener.getService(getServletContext());
+        boolean ready = service != null && service.isReady();
+        response.setStatus(ready ? HttpServletResponse.SC_OK : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(ready ? "READY" : "WARMING UP");
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code RecordCache} class keeps the records of live lookups, so that a state missing from the snapshot
+ * is not assembled again for every request.
+ *
+ * Entries are served with stale-while-revalidate semantics: a fresh entry is returned as is, and an entry past
+ * its fresh time but within its stale window is returned at once while a single background refresh replaces it.
+ * Only a lookup that finds no usable entry waits for an assembly. Incomplete records, where extraction failed
+ * for some field, are kept for a short negative TTL only and never served stale, so a failing upstream is not
+ * hammered but a recovered one is picked up quickly. A refresh that comes back incomplete keeps the complete
+ * record it was meant to replace until the stale window ends. The number of entries is bounded and the least
+ * recently used entry is evicted first.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public class RecordCache {
+    // Default number of records kept
+    static final int DEFAULT_MAX_ENTRIES = 256;
+    // Default time a record is served without a refresh
+    static final Duration DEFAULT_FRESH = Duration.ofMinutes(10);
+    // Default time a record is still served, while it is refreshed, after it stopped being fresh
+    static final Duration DEFAULT_STALE = Duration.ofHours(1);
+    // Default time an incomplete record is served before the state is assembled again
+    static final Duration DEFAULT_NEGATIVE = Duration.ofSeconds(30);
+
+    // Most entries kept
+    private final int maxEntries;
+    private final long freshNanos;
+    private final long staleNanos;
+    private final long negativeNanos;
+    // Entries by lookup key in access order, guarded by itself
+    private final LinkedHashMap<String, CachedRecord> entries;
+    // Source of the current time in nanoseconds, System.nanoTime() outside of tests
+    private final LongSupplier clock;
+
+    // Lookups answered by a fresh entry, a negative entry, a stale entry, or not at all
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache with the default size and times.
+     */
+    public RecordCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_FRESH, DEFAULT_STALE, DEFAULT_NEGATIVE);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries Most records kept, the least recently used one is evicted first.
+     * @param fresh Time a record is served without a refresh.
+     * @param stale Time a record is still served after it stopped being fresh, while it is refreshed.
+     * @param negative Time an incomplete record is served before the state is assembled again.
+     */
+    public RecordCache(int maxEntries, Duration fresh, Duration stale, Duration negative) {
+        this(maxEntries, fresh, stale, negative, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache that reads the time from the given clock.
+     *
+     * @param clock Returns the current time in nanoseconds, like {@link System#nanoTime()}.
+     */
+    RecordCache(int maxEntries, Duration fresh, Duration stale, Duration negative, LongSupplier clock) {
+        this.clock = clock;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.freshNanos = fresh.toNanos();
+        this.staleNanos = stale.toNanos();
+        this.negativeNanos = negative.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRecord> eldest) {
+                if (size() > RecordCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the record of a lookup key. A fresh entry is returned as is; a stale one is returned and refreshed
+     * in the background with {@link OutboundScheduler.Priority#BACKGROUND} priority, at most once at a time;
+     * otherwise the record is loaded on the calling thread and stored.
+     *
+     * @param key The lookup key, the state and the requested fields.
+     * @param loader Assembles the record for the caller, which waits for it.
+     * @param refreshLoader Assembles the record in the background, for nobody in particular: it must not report
+     *                      progress to the caller whose lookup started the refresh, which has long been answered.
+     * @param complete Tells whether a record has every requested field.
+     * @param refresher Runs the background refreshes.
+     * @return The record.
+     */
+    public StateRecord get(String key, Supplier<StateRecord> loader, Supplier<StateRecord> refreshLoader,
+                           Predicate<StateRecord> complete, Executor refresher) {
+        CachedRecord entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        long now = clock.getAsLong();
+        if (entry != null && now - entry.freshUntil < 0) {
+            (entry.complete ? hits : negativeHits).increment();
+            return entry.record;
+        }
+        if (entry != null && now - entry.staleUntil < 0) {
+            staleHits.increment();
+            refresh(key, entry, refreshLoader, complete, refresher);
+            return entry.record;
+        }
+        misses.increment();
+        StateRecord record = loader.get();
+        store(key, record, complete.test(record));
+        return record;
+    }
+
+    /**
+     * Starts the background refresh of a stale entry unless one is already running.
+     */
+    private void refresh(String key, CachedRecord entry, Supplier<StateRecord> loader, Predicate<StateRecord> complete,
+                         Executor refresher) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    StateRecord record = OutboundScheduler.supplyAs(OutboundScheduler.Priority.BACKGROUND, loader);
+                    refreshes.increment();
+                    if (complete.test(record)) {
+                        store(key, record, true);
+                    } else {
+                        // Keep serving the complete record until its stale window ends, retrying after the
+                        // negative TTL
+                        long retryAt = clock.getAsLong() + negativeNanos;
+                        replace(key, entry, new CachedRecord(entry.record, true,
+                                entry.staleUntil - retryAt < 0 ? entry.staleUntil : retryAt, entry.staleUntil));
+                    }
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The refresh pool is saturated, a later lookup tries again
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Stores a freshly assembled record.
+     */
+    private void store(String key, StateRecord record, boolean complete) {
+        long now = clock.getAsLong();
+        CachedRecord entry = complete
+                ? new CachedRecord(record, true, now + freshNanos, now + freshNanos + staleNanos)
+                : new CachedRecord(record, false, now + negativeNanos, now + negativeNanos);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Replaces an entry, unless it has already been replaced or evicted.
+     */
+    private void replace(String key, CachedRecord expected, CachedRecord entry) {
+        synchronized (entries) {
+            if (entries.get(key) == expected) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * @return The number of records kept.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Writes the lookup, refresh and eviction counters in the Prometheus text format.
+     *
+     * @param out The writer.
+     */
+    public void write(PrintWriter out) {
+        out.println("# HELP record_cache_lookups_total Live state lookups by how the record cache answered them.");
+        out.println("# TYPE record_cache_lookups_total counter");
+        out.println("record_cache_lookups_total{result=\"hit\"} " + hits.sum());
+        out.println("record_cache_lookups_total{result=\"negative\"} " + negativeHits.sum());
+        out.println("record_cache_lookups_total{result=\"stale\"} " + staleHits.sum());
+        out.println("record_cache_lookups_total{result=\"miss\"} " + misses.sum());
+        out.println("# HELP record_cache_refreshes_total Background refreshes of stale records.");
+        out.println("# TYPE record_cache_refreshes_total counter");
+        out.println("record_cache_refreshes_total " + refreshes.sum());
+        out.println("# HELP record_cache_evictions_total Records evicted to stay within the size limit.");
+        out.println("# TYPE record_cache_evictions_total counter");
+        out.println("record_cache_evictions_total " + evictions.sum());
+        out.println("# HELP record_cache_entries Records kept.");
+        out.println("# TYPE record_cache_entries gauge");
+        out.println("record_cache_entries " + size());
+    }
+
+    /**
+     * A record and until when it may be served, as values of the clock.
+     */
+    private static final class CachedRecord {
+        final StateRecord record;
+        final boolean complete;
+        final long freshUntil;
+        final long staleUntil;
+        // True while a background refresh of this entry runs
+        final AtomicBoolean refreshing;
+
+        CachedRecord(StateRecord record, boolean complete, long freshUntil, long staleUntil) {
+            this.record = record;
+            this.complete = complete;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+            this.refreshing = new AtomicBoolean();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code ResiliencePolicy} class holds how {@link HttpFetcher} protects requests from slow or failing
+ * upstreams: the deadline of a single request to each {@link Upstream}, when a host's {@link CircuitBreaker}
+ * opens and for how long, and whether slow whole-body fetches are hedged with a second request once they take
+ * longer than the upstream's observed p95 latency.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class ResiliencePolicy {
+    // Default failures in a row that open a host's breaker
+    static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    // Default time a breaker stays open before a trial request is let through
+    static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+    // Latency quantile after which a second request is sent
+    static final double HEDGE_QUANTILE = 0.95;
+    // Requests to an upstream that must have been recorded before its p95 is trusted for hedging
+    static final long HEDGE_MIN_SAMPLES = 20;
+
+    // Deadline of a single request to each upstream, upstreams without one use the fetcher's read timeout
+    private final Map<Upstream, Duration> deadlines;
+    // Failures in a row that open a host's breaker
+    private final int failureThreshold;
+    // Time a breaker stays open before a trial request is let through
+    private final Duration openDuration;
+    // True to hedge slow whole-body fetches of the upstreams that allow it
+    private final boolean hedging;
+
+    /**
+     * Creates a policy.
+     *
+     * @param deadlines Deadline of a single request to each upstream, missing upstreams use the read timeout.
+     * @param failureThreshold Failures in a row that open a host's breaker.
+     * @param openDuration Time a breaker stays open before a trial request is let through.
+     * @param hedging true to hedge slow whole-body fetches.
+     */
+    public ResiliencePolicy(Map<Upstream, Duration> deadlines, int failureThreshold, Duration openDuration,
+                            boolean hedging) {
+        this.deadlines = deadlines.isEmpty() ? new EnumMap<>(Upstream.class) : new EnumMap<>(deadlines);
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.hedging = hedging;
+    }
+
+    /**
+     * @return A policy with no per-upstream deadlines, the default breaker settings and hedging on.
+     */
+    public static ResiliencePolicy defaults() {
+        return new ResiliencePolicy(Map.of(), DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION, true);
+    }
+
+    /**
+     * @param upstream The upstream.
+     * @param fallback Deadline used if the upstream has none of its own.
+     * @return The deadline of a single request to the upstream.
+     */
+    public Duration deadline(Upstream upstream, Duration fallback) {
+        return deadlines.getOrDefault(upstream, fallback);
+    }
+
+    /**
+     * @return A new breaker with this policy's settings.
+     */
+    public CircuitBreaker newBreaker() {
+        return new CircuitBreaker(failureThreshold, openDuration);
+    }
+
+    /**
+     * @param upstream The upstream.
+     * @return true if slow whole-body fetches of the upstream are hedged.
+     */
+    public boolean hedges(Upstream upstream) {
+        return hedging && upstream.isHedged();
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code SingleFlight} class collapses concurrent calls for the same key into one.
+ *
+ * The first caller for a key runs the work; every caller that arrives while it is still running waits for
+ * that same run and gets the same result (or the same failure). Once the run finishes the key is released,
+ * so the next call starts a fresh run. Nothing is cached. The class counts how many calls were made and how
+ * many of them were collapsed into a run that was already in flight.
+ *
+ * The work runs on the first caller's thread. If that caller is interrupted, because its own deadline passed
+ * or it was cancelled, its null or degraded result says nothing about what the others would get. The waiters
+ * are then not handed that result; they start over, and one of them runs the work again for the rest.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class SingleFlight<K, V> {
+    // Runs in flight by key
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    // Number of calls made
+    private final LongAdder calls = new LongAdder();
+    // Number of calls that joined a run already in flight
+    private final LongAdder collapsed = new LongAdder();
+    // Failure handed to the waiters of a run whose caller was interrupted, telling them to start over
+    private static final RuntimeException ABANDONED = new RuntimeException("In-flight call abandoned", null,
+            false, false) {
+    };
+
+    /**
+     * Runs {@code work} for the key, or waits for the run already in flight for the key.
+     *
+     * @param key The key that identifies equivalent work.
+     * @param work The work to run if no run is in flight.
+     * @return The result of the run.
+     */
+    public V execute(K key, Supplier<V> work) {
+        calls.increment();
+        boolean joined = false;
+        while (true) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                if (!joined) {
+                    collapsed.increment();
+                    joined = true;
+                }
+                try {
+                    return join(running);
+                } catch (RuntimeException e) {
+                    if (e != ABANDONED) {
+                        throw e;
+                    }
+                    // The caller that ran the work gave up, start over
+                    continue;
+                }
+            }
+            try {
+                V value = work.get();
+                if (Thread.currentThread().isInterrupted()) {
+                    mine.completeExceptionally(ABANDONED);
+                } else {
+                    mine.complete(value);
+                }
+                return value;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(Thread.currentThread().isInterrupted() ? ABANDONED : e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+    }
+
+    /**
+     * @return The number of calls made.
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return The number of calls that were collapsed into a run already in flight.
+     */
+    public long getCollapsed() {
+        return collapsed.sum();
+    }
+
+    /**
+     * Waits for a run started by another caller and rethrows its failure unchanged.
+     */
+    private static <V> V join(CompletableFuture<V> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,587 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code StateInformationService} class assembles {@link StateRecord}s from the model and serves them.
+ *
+ * The independent upstream fetches of a record (the Wikipedia page and one batched Commons credit query) run
+ * at the same time on a bounded pool under one deadline, and a slow or failed source degrades only its own field.
+ * At startup every state is assembled in parallel into an immutable snapshot which is swapped in atomically and
+ * rebuilt periodically; lookups are served from the snapshot and only fall back to a live assembly for states
+ * whose warm record is missing or incomplete. Concurrent live lookups of the same state and information type
+ * are collapsed into one assembly, and their records are kept in a {@link RecordCache} that serves stale
+ * records while it refreshes them in the background. Interactive page requests can run their lookup on a
+ * separate bounded pool and get a {@link CompletableFuture}, so a servlet never holds a container thread while
+ * upstream I/O is in progress, and can report the population and image URLs of a record before its credits
+ * are resolved so a page can show them early. A state is resolved to its {@link StateRegistry} ordinal once
+ * per lookup; the snapshot is an array indexed by that ordinal and the lookup keys of every state are built once.
+ * Every lookup and the fetches it submits are measured by an {@link AllocationMeter}.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class StateInformationService {
+    // Value shown for a field whose upstream source was too slow or failed
+    static final String NOT_AVAILABLE = "N.A.";
+
+    // The record cache and single-flight keys of every state, indexed by ordinal and then by information type:
+    // every field, population and symbols, facts
+    private static final String[][] LOOKUP_KEYS = new String[StateRegistry.COUNT][3];
+
+    static {
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            LOOKUP_KEYS[i][0] = StateRegistry.name(i) + "#all";
+            LOOKUP_KEYS[i][1] = StateRegistry.name(i) + "#type1";
+            LOOKUP_KEYS[i][2] = StateRegistry.name(i) + "#type2";
+        }
+    }
+
+    // The model that fetches and extracts every field
+    private final Project1Task3Model model;
+    // Bounded pool that runs the independent upstream fetches of a record at the same time
+    private final ExecutorService fetchExecutor;
+    // Bounded pool that runs the state lookups of a batch request at the same time, kept apart from the
+    // fetch pool because a lookup waits on fetches
+    private final ExecutorService batchExecutor;
+    // Bounded pool that runs the lookups of asynchronous page requests, kept apart from the batch pool so a
+    // large batch cannot hold back interactive pages
+    private final ExecutorService lookupExecutor;
+    // Bounded pool that refreshes stale records of the record cache in the background
+    private final ExecutorService refreshExecutor;
+    // Overall time an interactive lookup may spend waiting for its upstream fetches
+    private final Duration requestDeadline;
+    // Default share of the states that must have every field in the snapshot for the service to be ready: all of them
+    static final double DEFAULT_READY_FRACTION = 1.0;
+    // The warm records of every state indexed by ordinal, replaced as a whole when a warmup completes and never
+    // written after it has been published
+    private final AtomicReference<StateRecord[]> snapshot =
+            new AtomicReference<>(new StateRecord[StateRegistry.COUNT]);
+    // True once a warmup has left enough complete states in the snapshot
+    private volatile boolean ready;
+    // Collapses concurrent live lookups of the same state and information type into one assembly
+    private final SingleFlight<String, StateRecord> stateFlights = new SingleFlight<>();
+    // Heap bytes allocated by lookups and their fetches, on whichever thread they run
+    private final AllocationMeter allocations = new AllocationMeter();
+    // The records of live lookups
+    private final RecordCache recordCache;
+
+    /**
+     * Creates the service with a record cache of the default size and times.
+     *
+     * @param model The model that fetches and extracts every field.
+     * @param fetchThreads Number of threads used to run upstream fetches.
+     * @param requestDeadline Overall time an interactive lookup may wait for its upstream fetches.
+     */
+    public StateInformationService(Project1Task3Model model, int fetchThreads, Duration requestDeadline) {
+        this(model, fetchThreads, requestDeadline, new RecordCache());
+    }
+
+    /**
+     * Creates the service.
+     *
+     * @param model The model that fetches and extracts every field.
+     * @param fetchThreads Number of threads used to run upstream fetches.
+     * @param requestDeadline Overall time an interactive lookup may wait for its upstream fetches.
+     * @param recordCache The cache of the records of live lookups.
+     */
+    public StateInformationService(Project1Task3Model model, int fetchThreads, Duration requestDeadline,
+                                   RecordCache recordCache) {
+        this.model = model;
+        this.requestDeadline = requestDeadline;
+        this.recordCache = recordCache;
+        // Tasks beyond the queue capacity are rejected, which degrades the affected field instead of piling up
+        // work the request deadline would discard anyway
+        this.fetchExecutor = new ThreadPoolExecutor(fetchThreads, fetchThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(fetchThreads * 16), daemonThreads("upstream-fetch-"));
+        this.batchExecutor = new ThreadPoolExecutor(fetchThreads, fetchThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(fetchThreads * 16), daemonThreads("state-lookup-"));
+        this.lookupExecutor = new ThreadPoolExecutor(fetchThreads, fetchThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(fetchThreads * 16), daemonThreads("page-lookup-"));
+        // A few threads are enough, a refresh only replaces a record that is still being served
+        int refreshThreads = Math.max(1, fetchThreads / 4);
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(fetchThreads * 16), daemonThreads("record-refresh-"));
+    }
+
+    /**
+     * Stops the upstream fetch and batch lookup pools.
+     */
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+        lookupExecutor.shutdownNow();
+        batchExecutor.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * @return The model used by this service.
+     */
+    public Project1Task3Model getModel() {
+        return model;
+    }
+
+    /**
+     * @return true once a warmup has left enough states with every field in the snapshot.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the population and symbols of a state, from the snapshot when it holds a complete record.
+     *
+     * @param state The display name of the state, as sent by index.jsp.
+     * @return The record with its population and symbol fields set.
+     */
+    public StateRecord getPopulationAndSymbols(String state) {
+        return lookup(state, true, false);
+    }
+
+    /**
+     * Returns the capital and governor of a state, from the snapshot when it holds a complete record.
+     *
+     * @param state The display name of the state, as sent by index.jsp.
+     * @return The record with its fact fields set.
+     */
+    public StateRecord getFacts(String state) {
+        return lookup(state, false, true);
+    }
+
+    /**
+     * Returns the requested fields of a state, from the snapshot when it holds them all, otherwise from the
+     * record cache or a live assembly shared with every concurrent lookup of the same state and fields.
+     *
+     * @param state The display name of the state.
+     * @param symbols true to return population, flag and seal.
+     * @param facts true to return capital and governor.
+     * @return The record with the requested fields set.
+     */
+    public StateRecord lookup(String state, boolean symbols, boolean facts) {
+        return lookup(state, symbols, facts, null);
+    }
+
+    /**
+     * Returns the requested fields of a state like {@link #lookup(String, boolean, boolean)}, reporting the
+     * population and image URLs as soon as they are known if the record has to be assembled by this lookup.
+     *
+     * @param state The display name of the state.
+     * @param symbols true to return population, flag and seal.
+     * @param facts true to return capital and governor.
+     * @param progress Receives a record with the population and image URLs set but no credits, or null. It is
+     *                 not called when the record is warm, cached or assembled by a concurrent lookup.
+     * @return The record with the requested fields set.
+     */
+    public StateRecord lookup(String state, boolean symbols, boolean facts, Consumer<StateRecord> progress) {
+        return allocations.measure(() -> find(state, symbols, facts, progress));
+    }
+
+    /**
+     * Serves a lookup from the snapshot, the record cache or a live assembly.
+     */
+    private StateRecord find(String state, boolean symbols, boolean facts, Consumer<StateRecord> progress) {
+        int ordinal = StateRegistry.ordinal(state);
+        if (ordinal < 0) {
+            // Not one of the states, there is nothing to fetch
+            return unavailable(state, symbols, facts);
+        }
+        StateRecord warm = findWarm(ordinal, symbols, facts);
+        if (warm != null) {
+            return warm;
+        }
+        String key = LOOKUP_KEYS[ordinal][symbols ? (facts ? 0 : 1) : 2];
+        // A background refresh runs the same assembly on a refresh thread, where it is measured on its own, and
+        // reports no progress: the caller that found the record stale has already been answered
+        return recordCache.get(key, () -> allocations.measure(() -> stateFlights.execute(key,
+                        () -> assemble(ordinal, symbols, facts, requestDeadline, progress))),
+                () -> allocations.measure(() -> stateFlights.execute(key,
+                        () -> assemble(ordinal, symbols, facts, requestDeadline, null))),
+                record -> (!symbols || record.hasPopulationAndSymbols()) && (!facts || record.hasFacts()),
+                refreshExecutor);
+    }
+
+    /**
+     * Returns the warm record of a state if the snapshot holds every requested field, without any upstream I/O.
+     *
+     * @param state The display name of the state.
+     * @param symbols true if population, flag and seal are needed.
+     * @param facts true if capital and governor are needed.
+     * @return The warm record, or null if a live lookup is needed.
+     */
+    public StateRecord findWarm(String state, boolean symbols, boolean facts) {
+        int ordinal = StateRegistry.ordinal(state);
+        return ordinal < 0 ? null : findWarm(ordinal, symbols, facts);
+    }
+
+    /**
+     * Returns the warm record of a state if the snapshot holds every requested field.
+     */
+    private StateRecord findWarm(int ordinal, boolean symbols, boolean facts) {
+        StateRecord warm = snapshot.get()[ordinal];
+        if (warm != null && (!symbols || warm.hasPopulationAndSymbols()) && (!facts || warm.hasFacts())) {
+            return warm;
+        }
+        return null;
+    }
+
+    /**
+     * Starts a {@link #lookup(String, boolean, boolean)} on the page lookup pool, for servlets that release
+     * their container thread while the lookup runs.
+     *
+     * @param state The display name of the state.
+     * @param symbols true to return population, flag and seal.
+     * @param facts true to return capital and governor.
+     * @return The pending record, already failed if the page lookup pool is saturated.
+     */
+    public CompletableFuture<StateRecord> lookupAsync(String state, boolean symbols, boolean facts) {
+        return lookupAsync(state, symbols, facts, null);
+    }
+
+    /**
+     * Starts a {@link #lookup(String, boolean, boolean, Consumer)} on the page lookup pool.
+     *
+     * @param state The display name of the state.
+     * @param symbols true to return population, flag and seal.
+     * @param facts true to return capital and governor.
+     * @param progress Receives the population and image URLs before the credits are resolved, or null.
+     * @return The pending record, already failed if the page lookup pool is saturated.
+     */
+    public CompletableFuture<StateRecord> lookupAsync(String state, boolean symbols, boolean facts,
+                                                      Consumer<StateRecord> progress) {
+        try {
+            return CompletableFuture.supplyAsync(() -> lookup(state, symbols, facts, progress), lookupExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Builds the record shown when a lookup failed or did not finish in time, with every requested field set
+     * to "N.A.".
+     *
+     * @param state The display name of the state.
+     * @param symbols true to fill population, flag and seal.
+     * @param facts true to fill capital and governor.
+     * @return The degraded record.
+     */
+    static StateRecord unavailable(String state, boolean symbols, boolean facts) {
+        String symbol = symbols ? NOT_AVAILABLE : null;
+        String fact = facts ? NOT_AVAILABLE : null;
+        return new StateRecord(state, symbol, symbol, symbol, symbol, symbol, fact, fact);
+    }
+
+    /**
+     * Starts a {@link #lookup(String, boolean, boolean)} on the batch pool, so that many states can be looked
+     * up at the same time.
+     *
+     * @param state The display name of the state.
+     * @param symbols true to return population, flag and seal.
+     * @param facts true to return capital and governor.
+     * @return The pending record, already failed if the batch pool is saturated.
+     */
+    public Future<StateRecord> submitLookup(String state, boolean symbols, boolean facts) {
+        try {
+            return batchExecutor.submit(() -> lookup(state, symbols, facts));
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<StateRecord> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+
+    /**
+     * Resolves in one go the flag and seal credits of the given states that are not warm in the snapshot, so
+     * that their lookups share a few batched Commons queries instead of one query each. Waits at most for the
+     * request deadline.
+     *
+     * @param states The display names of the states about to be looked up.
+     */
+    public void prefetchCredits(Collection<String> states) {
+        int[] cold = new int[states.size()];
+        int count = 0;
+        for (String state : states) {
+            int ordinal = StateRegistry.ordinal(state);
+            if (ordinal >= 0 && findWarm(ordinal, true, false) == null) {
+                cold[count++] = ordinal;
+            }
+        }
+        if (count > 1) {
+            int[] ordinals = Arrays.copyOf(cold, count);
+            await(submit(() -> {
+                model.prefetchCredits(ordinals);
+                return null;
+            }), System.nanoTime() + requestDeadline.toNanos());
+        }
+    }
+
+    /**
+     * @return The meter of the heap bytes allocated while serving lookups.
+     */
+    public AllocationMeter getAllocations() {
+        return allocations;
+    }
+
+    /**
+     * @return The single-flight group of live state lookups, for its call and collapse counters.
+     */
+    public SingleFlight<String, StateRecord> getStateFlights() {
+        return stateFlights;
+    }
+
+    /**
+     * @return The cache of the records of live lookups, for its counters.
+     */
+    public RecordCache getRecordCache() {
+        return recordCache;
+    }
+
+    /**
+     * Assembles a complete record of every given state like {@link #warmUp(List, int, Duration, double)}, with
+     * the service ready once every state has every field.
+     *
+     * @param states The display names of the states to assemble, names that are not states are skipped.
+     * @param concurrency Maximum number of states assembled at the same time.
+     * @param deadline Time allowed for each state.
+     */
+    public void warmUp(List<String> states, int concurrency, Duration deadline) {
+        warmUp(states, concurrency, deadline, DEFAULT_READY_FRACTION);
+    }
+
+    /**
+     * Assembles a complete record of every given state, at most {@code concurrency} states at a time, and
+     * swaps the result in as the new snapshot. A field group that comes back incomplete keeps the complete one
+     * of the previous snapshot, so a rebuild while an upstream is down never degrades a warm state.
+     *
+     * @param states The display names of the states to assemble, names that are not states are skipped.
+     * @param concurrency Maximum number of states assembled at the same time.
+     * @param deadline Time allowed for each state.
+     * @param readyFraction Share of the given states that must have every field for the service to be ready.
+     */
+    public void warmUp(List<String> states, int concurrency, Duration deadline, double readyFraction) {
+        // Every upstream request of the warmup goes behind the requests of waiting users
+        OutboundScheduler.supplyAs(OutboundScheduler.Priority.BACKGROUND, () -> {
+            buildSnapshot(states, concurrency, deadline, readyFraction);
+            return null;
+        });
+    }
+
+    /**
+     * Assembles the states on a bounded pool and swaps the result in as the new snapshot.
+     */
+    private void buildSnapshot(List<String> states, int concurrency, Duration deadline, double readyFraction) {
+        int[] ordinals = states.stream().mapToInt(StateRegistry::ordinal).filter(i -> i >= 0).toArray();
+        // Resolve the credits of every state with a couple of batched queries before the states are assembled
+        model.prefetchCredits(ordinals);
+        ExecutorService warmers = Executors.newFixedThreadPool(concurrency, daemonThreads("state-warmup-"));
+        try {
+            // The pending assemblies, in the order of the ordinals
+            List<Future<StateRecord>> pending = new ArrayList<>(ordinals.length);
+            for (int ordinal : ordinals) {
+                pending.add(warmers.submit(() -> OutboundScheduler.callAs(
+                        OutboundScheduler.Priority.BACKGROUND, () -> assemble(ordinal, true, true, deadline))));
+            }
+            StateRecord[] previous = snapshot.get();
+            // States not assembled by this warmup keep their previous record
+            StateRecord[] records = previous.clone();
+            int complete = 0;
+            for (int i = 0; i < ordinals.length; i++) {
+                int ordinal = ordinals[i];
+                try {
+                    records[ordinal] = merge(pending.get(i).get(), previous[ordinal]);
+                } catch (ExecutionException e) {
+                    // Keep the previous record, if any, the state is assembled live on request otherwise
+                    model.getFetcher().getMetrics().recordFailure("warmup",
+                            "Warmup failed for " + StateRegistry.name(ordinal), e.getCause());
+                }
+                if (records[ordinal] != null && records[ordinal].hasPopulationAndSymbols()
+                        && records[ordinal].hasFacts()) {
+                    complete++;
+                }
+            }
+            snapshot.set(records);
+            if (complete >= Math.ceil(ordinals.length * readyFraction)) {
+                ready = true;
+            } else {
+                model.getFetcher().getMetrics().log(
+                        "Warmup left " + complete + " of " + ordinals.length + " states complete", null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            warmers.shutdownNow();
+        }
+    }
+
+    /**
+     * Combines a freshly assembled record with the previous one of the same state, keeping for each field
+     * group, population and symbols or facts, the previous values when only they are complete.
+     *
+     * @param fresh The record assembled by this warmup.
+     * @param previous The record of the previous snapshot, or null.
+     * @return The record to publish.
+     */
+    static StateRecord merge(StateRecord fresh, StateRecord previous) {
+        if (previous == null) {
+            return fresh;
+        }
+        StateRecord symbols = !fresh.hasPopulationAndSymbols() && previous.hasPopulationAndSymbols()
+                ? previous : fresh;
+        StateRecord facts = !fresh.hasFacts() && previous.hasFacts() ? previous : fresh;
+        if (symbols == fresh && facts == fresh) {
+            return fresh;
+        }
+        return new StateRecord(fresh.getState(), symbols.getPopulation(), symbols.getFlagURL(),
+                symbols.getFlagCredit(), symbols.getSealURL(), symbols.getSealCredit(),
+                facts.getCapital(), facts.getGovernor());
+    }
+
+    /**
+     * Assembles the requested fields of a state from the model, running the upstream fetches concurrently.
+     *
+     * @param state The ordinal of the state.
+     * @param symbols true to assemble population, flag and seal.
+     * @param facts true to assemble capital and governor.
+     * @param timeout Overall time allowed for the upstream fetches.
+     * @return The record, with "N.A." or null in fields that could not be fetched in time.
+     */
+    StateRecord assemble(int state, boolean symbols, boolean facts, Duration timeout) {
+        return assemble(state, symbols, facts, timeout, null);
+    }
+
+    /**
+     * Assembles the requested fields of a state, reporting the population and image URLs as soon as they are
+     * known, before the credits have been resolved.
+     *
+     * @param state The ordinal of the state.
+     * @param symbols true to assemble population, flag and seal.
+     * @param facts true to assemble capital and governor.
+     * @param timeout Overall time allowed for the upstream fetches.
+     * @param progress Receives a record with the population and image URLs set but no credits, or null.
+     * @return The record, with "N.A." or null in fields that could not be fetched in time.
+     */
+    StateRecord assemble(int state, boolean symbols, boolean facts, Duration timeout,
+                         Consumer<StateRecord> progress) {
+        // All upstream fetches of this record share one deadline
+        long deadline = System.nanoTime() + timeout.toNanos();
+        String wikipediaURL = model.getWikipediaURL(state);
+        // Start the Wikipedia page fetch and the batched Commons credit query at the same time
+        Future<WikipediaPageProvider.Page> wikipediaFuture = submit(() -> model.getWikipediaPage(wikipediaURL));
+        Future<String[]> creditsFuture = symbols ? submit(() -> model.getSymbolCredits(state,
+                SymbolImageExtractor.Symbol.FLAG, SymbolImageExtractor.Symbol.SEAL)) : null;
+
+        WikipediaPageProvider.Page wikipediaPage = await(wikipediaFuture, deadline);
+        String population = null;
+        String flagURL = null;
+        String flagCredit = null;
+        String sealURL = null;
+        String sealCredit = null;
+        if (symbols) {
+            // Each field falls back to "N.A." on its own
+            population = orNotAvailable(model.getStatePopulation(state));
+            String[] symbolURLs = wikipediaPage == null ? new String[2] : model.getSymbolURLs(wikipediaPage);
+            flagURL = orNotAvailable(symbolURLs[SymbolImageExtractor.Symbol.FLAG.ordinal()]);
+            sealURL = orNotAvailable(symbolURLs[SymbolImageExtractor.Symbol.SEAL.ordinal()]);
+            if (progress != null) {
+                // The credits usually take longer than the page, let the images be shown first
+                progress.accept(new StateRecord(StateRegistry.name(state), population, flagURL, null,
+                        sealURL, null, null, null));
+            }
+            String[] credits = await(creditsFuture, deadline);
+            if (credits == null) {
+                credits = new String[2];
+            }
+            flagCredit = orNotAvailable(credits[SymbolImageExtractor.Symbol.FLAG.ordinal()]);
+            sealCredit = orNotAvailable(credits[SymbolImageExtractor.Symbol.SEAL.ordinal()]);
+        }
+        String capital = null;
+        String governor = null;
+        if (facts && wikipediaPage != null) {
+            // Both facts come from one walk over the infobox
+            String[] infobox = model.getFacts(wikipediaPage);
+            capital = infobox[InfoboxExtractor.Field.CAPITAL.ordinal()];
+            governor = infobox[InfoboxExtractor.Field.GOVERNOR.ordinal()];
+        }
+        return new StateRecord(StateRegistry.name(state), population, flagURL, flagCredit,
+                sealURL, sealCredit, capital, governor);
+    }
+
+    /**
+     * Submits an upstream fetch to the fetch pool.
+     *
+     * @param task the fetch to run
+     * @return the pending result, already failed if the pool is saturated
+     */
+    private <T> Future<T> submit(Callable<T> task) {
+        // The fetch keeps the priority of the lookup it belongs to
+        OutboundScheduler.Priority priority = OutboundScheduler.currentPriority();
+        try {
+            return fetchExecutor.submit(allocations.measured(() -> OutboundScheduler.callAs(priority, task)));
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+
+    /**
+     * Waits for an upstream fetch until the deadline. A fetch that fails or is still running when the deadline
+     * passes is cancelled and yields null, so only its own field is degraded.
+     *
+     * @param future the pending fetch
+     * @param deadline the deadline as a {@link System#nanoTime()} value
+     * @return the fetched value, or null if it is not available in time
+     */
+    private static <T> T await(Future<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+        } catch (ExecutionException e) {
+            // The fetch failed, fall back for this field only
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+        return null;
+    }
+
+    /**
+     * @param value a fetched value, possibly null
+     * @return the value, or "N.A." if it is null
+     */
+    private static String orNotAvailable(String value) {
+        return value == null ? NOT_AVAILABLE : value;
+    }
+
+    /**
+     * Creates daemon threads with numbered names.
+     */
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
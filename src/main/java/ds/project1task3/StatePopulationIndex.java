@@ -0,0 +1,235 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code StatePopulationIndex} class keeps the Census state population table in memory so that a
+ * population lookup is a single array read instead of a full download and parse of the Census payload.
+ * Census rows are matched to a {@link StateRegistry} ordinal by their FIPS code, and the populations are
+ * stored in an array indexed by that ordinal; rows of places that are not one of the 50 states are skipped.
+ *
+ * The table is loaded once when the index is started and then refreshed in the background every TTL. Each
+ * load builds a brand new immutable snapshot which is swapped in atomically, so readers never block and
+ * never see a half built table. If a refresh fails the previous snapshot is kept. Until a table has been
+ * loaded at all, a failed load is retried with an exponential backoff starting at a few seconds instead of
+ * waiting for the TTL. A failed refresh is counted and logged through {@link UpstreamMetrics}.
+ */
+
+package ds.project1task3;
+
+// Import gson and the necessary Java classes
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+public class StatePopulationIndex {
+    // The Census API URL that returns the name, population and FIPS code of every state
+    static final String CENSUS_URL = "https://api.census.gov/data/2020/dec/pl?get=NAME,P1_001N&for=state:*";
+
+    // First and longest wait before a load is retried while no table has been loaded
+    static final Duration INITIAL_RETRY = Duration.ofSeconds(5);
+    static final Duration MAX_RETRY = Duration.ofMinutes(5);
+
+    // Source of the raw Census JSON payload
+    private final Supplier<String> loader;
+    // How long a loaded table is considered fresh before it is reloaded
+    private final Duration ttl;
+    // Counts and logs the failed refreshes
+    private final UpstreamMetrics metrics;
+    // The current immutable table, replaced as a whole on every successful load
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    // Single daemon thread that performs the background refresh
+    private ScheduledExecutorService refresher;
+
+    /**
+     * Creates a new population index.
+     *
+     * @param loader Supplier that returns the raw Census JSON payload, or null/empty if it could not be fetched.
+     * @param ttl How long a loaded table stays fresh before it is reloaded in the background.
+     */
+    public StatePopulationIndex(Supplier<String> loader, Duration ttl) {
+        this(loader, ttl, new UpstreamMetrics());
+    }
+
+    /**
+     * Creates a new population index that reports its failed refreshes to the given counters.
+     *
+     * @param loader Supplier that returns the raw Census JSON payload, or null/empty if it could not be fetched.
+     * @param ttl How long a loaded table stays fresh before it is reloaded in the background.
+     * @param metrics Counts and logs the failed refreshes.
+     */
+    public StatePopulationIndex(Supplier<String> loader, Duration ttl, UpstreamMetrics metrics) {
+        this.loader = loader;
+        this.ttl = ttl;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Loads the table for the first time and schedules the background refresh.
+     */
+    public synchronized void start() {
+        if (refresher != null) {
+            return;
+        }
+        // Load synchronously so that the first lookup is already served from memory
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "census-population-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        long ttlMillis = ttl.toMillis();
+        refresher.scheduleWithFixedDelay(this::refresh, ttlMillis, ttlMillis, TimeUnit.MILLISECONDS);
+        if (!isLoaded()) {
+            scheduleRetry(refresher, Math.min(INITIAL_RETRY.toMillis(), ttlMillis));
+        }
+    }
+
+    /**
+     * Retries the first load after the given delay, doubling the delay up to {@link #MAX_RETRY} or the TTL
+     * until a table has been loaded.
+     */
+    private void scheduleRetry(ScheduledExecutorService executor, long delayMillis) {
+        try {
+            executor.schedule(() -> {
+                if (!isLoaded() && !refresh()) {
+                    long longest = Math.min(MAX_RETRY.toMillis(), ttl.toMillis());
+                    scheduleRetry(executor, Math.min(delayMillis * 2, longest));
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The index has been stopped
+        }
+    }
+
+    /**
+     * Stops the background refresh. The last loaded table remains readable.
+     */
+    public synchronized void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    /**
+     * Reloads the table from the Census API and atomically swaps it in.
+     *
+     * @return true if a new table was installed, false if the previous one was kept.
+     */
+    public boolean refresh() {
+        try {
+            String response = loader.get();
+            if (response == null || response.isEmpty()) {
+                return false;
+            }
+            Snapshot loaded = Snapshot.parse(response);
+            // Never replace a usable table with an empty one
+            if (loaded.size == 0) {
+                return false;
+            }
+            snapshot.set(loaded);
+            return true;
+        } catch (RuntimeException e) {
+            // A malformed payload or a failed fetch keeps the previous table
+            metrics.recordFailure("population_refresh", "Census population refresh failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Looks up the population of a state by its {@link StateRegistry} ordinal.
+     *
+     * @param ordinal The ordinal of the state.
+     * @return The population as a string, or null if the state is not in the table.
+     */
+    public String getByOrdinal(int ordinal) {
+        return ordinal < 0 ? null : snapshot.get().populations[ordinal];
+    }
+
+    /**
+     * Looks up the population of a state by its name as returned by the Census API (e.g. "New York").
+     *
+     * @param state The name of the state.
+     * @return The population as a string, or null if the state is not in the table.
+     */
+    public String getByName(String state) {
+        return getByOrdinal(StateRegistry.ordinal(state));
+    }
+
+    /**
+     * Looks up the population of a state by its two digit FIPS code (e.g. "36").
+     *
+     * @param fips The FIPS code of the state.
+     * @return The population as a string, or null if the code is not in the table.
+     */
+    public String getByFips(String fips) {
+        return getByOrdinal(StateRegistry.ordinalOfFips(fips));
+    }
+
+    /**
+     * @return true once a table has been loaded successfully.
+     */
+    public boolean isLoaded() {
+        return snapshot.get().size > 0;
+    }
+
+    /**
+     * One immutable version of the population table.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new String[StateRegistry.COUNT], 0);
+
+        // Populations indexed by state ordinal, never written after construction
+        final String[] populations;
+        // Number of states that have a population
+        final int size;
+
+        Snapshot(String[] populations, int size) {
+            this.populations = populations;
+            this.size = size;
+        }
+
+        /**
+         * Parses the Census response, a list of [NAME, P1_001N, state] rows with a header row first.
+         */
+        static Snapshot parse(String response) {
+            List<List<String>> rows;
+            try {
+                rows = new Gson().fromJson(response, new TypeToken<List<List<String>>>(){}.getType());
+            } catch (JsonParseException e) {
+                throw new IllegalStateException("Malformed Census response", e);
+            }
+            if (rows == null) {
+                return EMPTY;
+            }
+            String[] populations = new String[StateRegistry.COUNT];
+            int size = 0;
+            // Skip the header row
+            for (int i = 1; i < rows.size(); i++) {
+                List<String> row = rows.get(i);
+                if (row.size() < 2) {
+                    continue;
+                }
+                // Match the row by its FIPS code, or by its name if the code is missing
+                int ordinal = row.size() > 2 ? StateRegistry.ordinalOfFips(row.get(2)) : -1;
+                if (ordinal < 0) {
+                    ordinal = StateRegistry.ordinal(row.get(0));
+                }
+                if (ordinal >= 0) {
+                    if (populations[ordinal] == null) {
+                        size++;
+                    }
+                    populations[ordinal] = row.get(1);
+                }
+            }
+            return new Snapshot(populations, size);
+        }
+    }
+}
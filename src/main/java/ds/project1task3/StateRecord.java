@@ -0,0 +1,97 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code StateRecord} class is an immutable record of everything the application shows about one state:
+ * population, flag and seal image URLs with their credits, capital and governor.
+ *
+ * A record built for one information type leaves the fields of the other type null. Fields whose source was
+ * slow or failed hold "N.A." (symbols) or null (facts), exactly as the pages display them.
+ */
+
+package ds.project1task3;
+
+public final class StateRecord {
+    private final String state;
+    private final String population;
+    private final String flagURL;
+    private final String flagCredit;
+    private final String sealURL;
+    private final String sealCredit;
+    private final String capital;
+    private final String governor;
+
+    /**
+     * Creates a record.
+     *
+     * @param state The display name of the state, e.g. "New York".
+     * @param population The population of the state.
+     * @param flagURL The URL of the flag image.
+     * @param flagCredit The credit of the flag image.
+     * @param sealURL The URL of the seal image.
+     * @param sealCredit The credit of the seal image.
+     * @param capital The capital of the state.
+     * @param governor The governor of the state.
+     */
+    public StateRecord(String state, String population, String flagURL, String flagCredit,
+                       String sealURL, String sealCredit, String capital, String governor) {
+        this.state = state;
+        this.population = population;
+        this.flagURL = flagURL;
+        this.flagCredit = flagCredit;
+        this.sealURL = sealURL;
+        this.sealCredit = sealCredit;
+        this.capital = capital;
+        this.governor = governor;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getPopulation() {
+        return population;
+    }
+
+    public String getFlagURL() {
+        return flagURL;
+    }
+
+    public String getFlagCredit() {
+        return flagCredit;
+    }
+
+    public String getSealURL() {
+        return sealURL;
+    }
+
+    public String getSealCredit() {
+        return sealCredit;
+    }
+
+    public String getCapital() {
+        return capital;
+    }
+
+    public String getGovernor() {
+        return governor;
+    }
+
+    /**
+     * @return true if every population and symbol field was extracted successfully.
+     */
+    public boolean hasPopulationAndSymbols() {
+        return isPresent(population) && isPresent(flagURL) && isPresent(flagCredit)
+                && isPresent(sealURL) && isPresent(sealCredit);
+    }
+
+    /**
+     * @return true if every fact field was extracted successfully.
+     */
+    public boolean hasFacts() {
+        return isPresent(capital) && isPresent(governor);
+    }
+
+    private static boolean isPresent(String value) {
+        return value != null && !value.equals(StateInformationService.NOT_AVAILABLE);
+    }
+}
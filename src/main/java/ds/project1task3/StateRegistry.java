@@ -0,0 +1,166 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code StateRegistry} class is the fixed table of the 50 states offered by index.jsp. Every state has a
+ * dense ordinal, 0 to 49 in alphabetical order, and the table holds its display name, Wikipedia page title,
+ * Wikimedia Commons file names and Census FIPS code, all computed once when the class is loaded.
+ *
+ * A request parameter is turned into an ordinal by {@link #ordinal(String)}, one probe of a small open
+ * addressing table that allocates nothing, and everything else about the state is an array read. Data kept per
+ * state elsewhere, such as the warm snapshot and the population table, is stored in arrays indexed by the
+ * ordinal instead of maps keyed by name.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.util.List;
+
+final class StateRegistry {
+    // The display names, in ordinal order
+    private static final String[] NAMES = {
+            "Alabama", "Alaska", "Arizona", "Arkansas", "California", "Colorado", "Connecticut", "Delaware",
+            "Florida", "Georgia", "Hawaii", "Idaho", "Illinois", "Indiana", "Iowa", "Kansas", "Kentucky",
+            "Louisiana", "Maine", "Maryland", "Massachusetts", "Michigan", "Minnesota", "Mississippi",
+            "Missouri", "Montana", "Nebraska", "Nevada", "New Hampshire", "New Jersey", "New Mexico",
+            "New York", "North Carolina", "North Dakota", "Ohio", "Oklahoma", "Oregon", "Pennsylvania",
+            "Rhode Island", "South Carolina", "South Dakota", "Tennessee", "Texas", "Utah", "Vermont",
+            "Virginia", "Washington", "West Virginia", "Wisconsin", "Wyoming"};
+
+    // The Census FIPS codes, in ordinal order
+    private static final int[] FIPS = {
+            1, 2, 4, 5, 6, 8, 9, 10, 12, 13, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30,
+            31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 44, 45, 46, 47, 48, 49, 50, 51, 53, 54, 55, 56};
+
+    // Number of states
+    static final int COUNT = NAMES.length;
+
+    // Slots of the name lookup table, a power of two more than twice the number of states
+    private static final int SLOTS = 128;
+
+    // The display names as an immutable list, in ordinal order
+    private static final List<String> NAME_LIST = List.of(NAMES);
+    // The Wikipedia page titles, e.g. "New_York_(state)"
+    private static final String[] TITLES = new String[COUNT];
+    // The Commons file names, indexed by ordinal and then by symbol
+    private static final String[][] COMMONS_FILES = new String[COUNT][SymbolImageExtractor.Symbol.values().length];
+    // The FIPS codes as the two digit strings the Census API returns
+    private static final String[] FIPS_CODES = new String[COUNT];
+    // Open addressing table from the hash of a display name to its ordinal plus one, 0 for an empty slot
+    private static final byte[] NAME_SLOTS = new byte[SLOTS];
+    // Ordinal plus one by FIPS code, 0 for a code that is not one of the states
+    private static final byte[] BY_FIPS = new byte[100];
+
+    static {
+        for (int i = 0; i < COUNT; i++) {
+            int slot = slot(NAMES[i]);
+            while (NAME_SLOTS[slot] != 0) {
+                slot = (slot + 1) & (SLOTS - 1);
+            }
+            NAME_SLOTS[slot] = (byte) (i + 1);
+            BY_FIPS[FIPS[i]] = (byte) (i + 1);
+            FIPS_CODES[i] = String.format("%02d", FIPS[i]);
+            TITLES[i] = NAMES[i].replace(' ', '_');
+        }
+        // Titles that need a qualifier to tell the state from the country, the city or the president
+        TITLES[ordinal("Georgia")] = "Georgia_(U.S._state)";
+        TITLES[ordinal("New York")] = "New_York_(state)";
+        TITLES[ordinal("Washington")] = "Washington_(state)";
+        for (int i = 0; i < COUNT; i++) {
+            // The Commons files of Georgia are titled after "the State of Georgia"
+            String file = i == ordinal("Georgia") ? "the_State_of_Georgia" : TITLES[i];
+            COMMONS_FILES[i][SymbolImageExtractor.Symbol.FLAG.ordinal()] = "Flag_of_" + file + ".svg";
+            COMMONS_FILES[i][SymbolImageExtractor.Symbol.SEAL.ordinal()] = "Seal_of_" + file + ".svg";
+        }
+    }
+
+    private StateRegistry() {
+    }
+
+    /**
+     * Looks up the ordinal of a state by its display name, e.g. the "states" request parameter.
+     *
+     * @param name The display name, e.g. "New York", or null.
+     * @return The ordinal, or -1 if the name is not one of the states.
+     */
+    static int ordinal(String name) {
+        if (name == null) {
+            return -1;
+        }
+        int slot = slot(name);
+        while (NAME_SLOTS[slot] != 0) {
+            int ordinal = NAME_SLOTS[slot] - 1;
+            if (NAMES[ordinal].equals(name)) {
+                return ordinal;
+            }
+            slot = (slot + 1) & (SLOTS - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Looks up the ordinal of a state by its Census FIPS code, without parsing it into a new object.
+     *
+     * @param code The two digit code, e.g. "36".
+     * @return The ordinal, or -1 if the code is not one of the states.
+     */
+    static int ordinalOfFips(String code) {
+        if (code == null || code.length() != 2) {
+            return -1;
+        }
+        int tens = code.charAt(0) - '0';
+        int ones = code.charAt(1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -1;
+        }
+        return BY_FIPS[tens * 10 + ones] - 1;
+    }
+
+    /**
+     * @return The display names of every state, in ordinal order.
+     */
+    static List<String> names() {
+        return NAME_LIST;
+    }
+
+    /**
+     * @param ordinal The ordinal of a state.
+     * @return The display name, e.g. "New York".
+     */
+    static String name(int ordinal) {
+        return NAMES[ordinal];
+    }
+
+    /**
+     * @param ordinal The ordinal of a state.
+     * @return The Wikipedia page title, e.g. "New_York_(state)".
+     */
+    static String wikipediaTitle(int ordinal) {
+        return TITLES[ordinal];
+    }
+
+    /**
+     * @param ordinal The ordinal of a state.
+     * @param symbol The symbol.
+     * @return The Wikimedia Commons file name, e.g. "Flag_of_Ohio.svg".
+     */
+    static String commonsFile(int ordinal, SymbolImageExtractor.Symbol symbol) {
+        return COMMONS_FILES[ordinal][symbol.ordinal()];
+    }
+
+    /**
+     * @param ordinal The ordinal of a state.
+     * @return The two digit Census FIPS code, e.g. "36".
+     */
+    static String fips(int ordinal) {
+        return FIPS_CODES[ordinal];
+    }
+
+    /**
+     * Spreads the cached hash of a name over the slots of the lookup table.
+     */
+    private static int slot(String name) {
+        int h = name.hashCode();
+        return (h ^ (h >>> 7) ^ (h >>> 16)) & (SLOTS - 1);
+    }
+}
@@ -0,0 +1,358 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code StateWarmupListener} class sets up the application when it is deployed and tears it down when it
+ * is undeployed.
+ *
+ * It reads the context parameters from web.xml, builds the shared HTTP client, model and
+ * {@link StateInformationService}, and publishes the service as a servlet context attribute for the servlets.
+ * It then prewarms every state in the background, with a bounded number of states at a time, and rebuilds the
+ * snapshot periodically, or every minute until it is complete. {@link ReadinessServlet} reports ready once a
+ * snapshot holds every field of every state, or of the share of the states set by the readyFraction parameter.
+ */
+
+package ds.project1task3;
+
+// Import necessary Java and Jakarta Servlet API classes
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@WebListener
+public class StateWarmupListener implements ServletContextListener {
+    // Name of the servlet context attribute that holds the shared StateInformationService
+    static final String SERVICE_ATTRIBUTE = "ds.project1task3.service";
+    // Name of the servlet context attribute that holds the shared ImageStore, absent if the image proxy is off
+    static final String IMAGE_STORE_ATTRIBUTE = "ds.project1task3.images";
+
+    // Name of the optional context parameter that sets the population table TTL in minutes
+    static final String POPULATION_TTL_PARAM = "populationTtlMinutes";
+    // Name of the optional context parameter that sets the overall per-request deadline in milliseconds
+    static final String REQUEST_DEADLINE_PARAM = "requestDeadlineMillis";
+    // Name of the optional context parameter that sets the number of threads used for upstream fetches
+    static final String FETCH_THREADS_PARAM = "upstreamFetchThreads";
+    // Name of the optional context parameter that sets the upstream connect timeout in milliseconds
+    static final String CONNECT_TIMEOUT_PARAM = "upstreamConnectTimeoutMillis";
+    // Name of the optional context parameter that sets the upstream read timeout in milliseconds
+    static final String READ_TIMEOUT_PARAM = "upstreamReadTimeoutMillis";
+    // Name of the optional context parameter that disables certificate validation for upstream calls
+    static final String TRUST_ALL_CERTIFICATES_PARAM = "trustAllCertificates";
+    // Name of the optional context parameter that turns streaming Wikipedia page extraction on or off
+    static final String STREAM_PAGES_PARAM = "streamWikipediaPages";
+    // Name of the optional context parameter that sets the on-disk page cache directory
+    static final String PAGE_CACHE_DIR_PARAM = "pageCacheDir";
+    // Name of the optional context parameter that caps the on-disk page cache in megabytes, 0 disables it
+    static final String PAGE_CACHE_MAX_MB_PARAM = "pageCacheMaxMegabytes";
+    // Name of the optional context parameter that sets how many states are prewarmed at the same time
+    static final String WARMUP_CONCURRENCY_PARAM = "warmupConcurrency";
+    // Name of the optional context parameter that sets the time allowed to prewarm each state in seconds
+    static final String WARMUP_DEADLINE_PARAM = "warmupDeadlineSeconds";
+    // Name of the optional context parameter that sets how often the snapshot is rebuilt in minutes
+    static final String SNAPSHOT_REFRESH_PARAM = "snapshotRefreshMinutes";
+    // Name of the optional context parameter that sets the share of states that must be complete to be ready
+    static final String READY_FRACTION_PARAM = "readyFraction";
+    // Names of the optional context parameters that size the record cache of live lookups and set how long a
+    // complete record is fresh and then stale, and how long an incomplete record is kept, in seconds
+    static final String RECORD_CACHE_SIZE_PARAM = "recordCacheMaxEntries";
+    static final String RECORD_FRESH_PARAM = "recordFreshSeconds";
+    static final String RECORD_STALE_PARAM = "recordStaleSeconds";
+    static final String RECORD_NEGATIVE_PARAM = "recordNegativeSeconds";
+    // Name of the optional context parameter that sets how long an asynchronous page request may wait in milliseconds
+    static final String ASYNC_TIMEOUT_PARAM = "asyncTimeoutMillis";
+    // Name of the optional context parameter that turns progressive rendering of the symbols page on or off
+    static final String PROGRESSIVE_PARAM = "progressiveRendering";
+    // Names of the optional context parameters that set the deadline of a single request to each upstream
+    static final String CENSUS_TIMEOUT_PARAM = "censusTimeoutMillis";
+    static final String WIKIPEDIA_TIMEOUT_PARAM = "wikipediaTimeoutMillis";
+    static final String COMMONS_TIMEOUT_PARAM = "commonsTimeoutMillis";
+    // Name of the optional context parameter that sets the failures in a row that open a host's circuit breaker
+    static final String BREAKER_FAILURES_PARAM = "circuitBreakerFailures";
+    // Name of the optional context parameter that sets how long an open circuit breaker fails fast in milliseconds
+    static final String BREAKER_OPEN_PARAM = "circuitBreakerOpenMillis";
+    // Name of the optional context parameter that turns hedged requests on or off
+    static final String HEDGE_PARAM = "hedgeRequests";
+    // Names of the optional context parameters that point the upstreams somewhere else, e.g. a local stub server
+    static final String CENSUS_URL_PARAM = "censusUrl";
+    static final String WIKIPEDIA_BASE_PARAM = "wikipediaBaseUrl";
+    static final String COMMONS_API_PARAM = "commonsApiUrl";
+    static final String IMAGE_BASE_PARAM = "imageBaseUrl";
+    // Name of the optional context parameter that sets how many requests may be in flight to one host
+    static final String HOST_CONCURRENCY_PARAM = "hostMaxConcurrency";
+    // Name of the optional context parameter that sets the sustained request rate to one host per second
+    static final String HOST_RATE_PARAM = "hostRequestsPerSecond";
+    // Name of the optional context parameter that overrides both limits for specific hosts
+    static final String HOST_LIMITS_PARAM = "hostLimits";
+    // Name of the optional context parameter that turns the local image proxy on or off
+    static final String IMAGE_PROXY_PARAM = "imageProxy";
+    // Name of the optional context parameter that sets the directory of the image proxy's store
+    static final String IMAGE_DIR_PARAM = "imageCacheDir";
+    // Name of the optional context parameter that caps the number of images in the image proxy's store
+    static final String IMAGE_MAX_PARAM = "imageCacheMaxImages";
+
+    // The service published to the servlets
+    private StateInformationService service;
+    // Runs the initial warmup and the periodic snapshot rebuilds
+    private ScheduledExecutorService warmupScheduler;
+
+    /**
+     * Builds the shared service, publishes it and schedules the warmup.
+     *
+     * @param event the event carrying the servlet context
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        ServletContext context = event.getServletContext();
+        Duration ttl = Duration.ofMinutes(longParam(context, POPULATION_TTL_PARAM,
+                Project1Task3Model.DEFAULT_POPULATION_TTL.toMinutes()));
+        // Count every failure and write the ones worth a log line to the servlet context's log
+        UpstreamMetrics metrics = new UpstreamMetrics();
+        metrics.setLog((message, cause) -> {
+            if (cause == null) {
+                context.log(message);
+            } else {
+                context.log(message, cause);
+            }
+        });
+        // Build the shared HTTP client once, including its TLS context
+        HttpFetcher fetcher = new HttpFetcher(
+                Duration.ofMillis(longParam(context, CONNECT_TIMEOUT_PARAM, HttpFetcher.DEFAULT_CONNECT_TIMEOUT.toMillis())),
+                Duration.ofMillis(longParam(context, READ_TIMEOUT_PARAM, HttpFetcher.DEFAULT_READ_TIMEOUT.toMillis())),
+                Boolean.parseBoolean(context.getInitParameter(TRUST_ALL_CERTIFICATES_PARAM)),
+                openPageCache(context, metrics), resiliencePolicy(context), new OutboundScheduler(
+                        (int) longParam(context, HOST_CONCURRENCY_PARAM, OutboundScheduler.DEFAULT_MAX_CONCURRENCY),
+                        doubleParam(context, HOST_RATE_PARAM, OutboundScheduler.DEFAULT_REQUESTS_PER_SECOND),
+                        OutboundScheduler.parseHostLimits(context.getInitParameter(HOST_LIMITS_PARAM))), metrics);
+        UpstreamEndpoints endpoints = new UpstreamEndpoints(
+                stringParam(context, CENSUS_URL_PARAM, StatePopulationIndex.CENSUS_URL),
+                stringParam(context, WIKIPEDIA_BASE_PARAM, UpstreamEndpoints.DEFAULT_WIKIPEDIA_BASE),
+                stringParam(context, COMMONS_API_PARAM, CommonsCreditResolver.DEFAULT_API_URL),
+                stringParam(context, IMAGE_BASE_PARAM, UpstreamEndpoints.DEFAULT_IMAGE_BASE));
+        // Serve the flag and seal images through the local proxy if its store can be opened
+        ImageStore images = openImageStore(context, fetcher, endpoints);
+        context.setAttribute(IMAGE_STORE_ATTRIBUTE, images);
+        String streamPages = context.getInitParameter(STREAM_PAGES_PARAM);
+        Project1Task3Model model = new Project1Task3Model(ttl, fetcher,
+                streamPages == null || Boolean.parseBoolean(streamPages), endpoints, images,
+                context.getContextPath() + ImageProxyServlet.PATH);
+        // Load the population index once, before the first request is served
+        model.start();
+
+        service = new StateInformationService(model, (int) longParam(context, FETCH_THREADS_PARAM, 16),
+                Duration.ofMillis(longParam(context, REQUEST_DEADLINE_PARAM, 5000)), new RecordCache(
+                        (int) longParam(context, RECORD_CACHE_SIZE_PARAM, RecordCache.DEFAULT_MAX_ENTRIES),
+                        Duration.ofSeconds(longParam(context, RECORD_FRESH_PARAM,
+                                RecordCache.DEFAULT_FRESH.toSeconds())),
+                        Duration.ofSeconds(longParam(context, RECORD_STALE_PARAM,
+                                RecordCache.DEFAULT_STALE.toSeconds())),
+                        Duration.ofSeconds(longParam(context, RECORD_NEGATIVE_PARAM,
+                                RecordCache.DEFAULT_NEGATIVE.toSeconds()))));
+        context.setAttribute(SERVICE_ATTRIBUTE, service);
+
+        // Prewarm every state in the background and rebuild the snapshot periodically
+        int concurrency = (int) longParam(context, WARMUP_CONCURRENCY_PARAM, 8);
+        Duration deadline = Duration.ofSeconds(longParam(context, WARMUP_DEADLINE_PARAM, 30));
+        long refreshMinutes = longParam(context, SNAPSHOT_REFRESH_PARAM, 60);
+        double readyFraction = doubleParam(context, READY_FRACTION_PARAM,
+                StateInformationService.DEFAULT_READY_FRACTION);
+        warmupScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "state-warmup-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduleWarmup(concurrency, deadline, readyFraction, refreshMinutes, 0);
+    }
+
+    /**
+     * Schedules the next warmup, which schedules the one after it: after the refresh interval once the service
+     * is ready, and after a minute while it is not.
+     */
+    private void scheduleWarmup(int concurrency, Duration deadline, double readyFraction, long refreshMinutes,
+                                long delayMinutes) {
+        try {
+            warmupScheduler.schedule(() -> {
+                try {
+                    service.warmUp(StateRegistry.names(), concurrency, deadline, readyFraction);
+                } finally {
+                    scheduleWarmup(concurrency, deadline, readyFraction, refreshMinutes,
+                            service.isReady() ? refreshMinutes : Math.min(1, refreshMinutes));
+                }
+            }, delayMinutes, TimeUnit.MINUTES);
+        } catch (RejectedExecutionException e) {
+            // The application is being undeployed
+        }
+    }
+
+    /**
+     * Stops the warmup and every background task of the service.
+     *
+     * @param event the event carrying the servlet context
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        if (warmupScheduler != null) {
+            warmupScheduler.shutdownNow();
+        }
+        if (service != null) {
+            service.shutdown();
+            service.getModel().shutdown();
+        }
+    }
+
+    /**
+     * Returns the shared service published by this listener.
+     *
+     * @param context the servlet context
+     * @return the service
+     */
+    static StateInformationService getService(ServletContext context) {
+        return (StateInformationService) context.getAttribute(SERVICE_ATTRIBUTE);
+    }
+
+    /**
+     * Returns the shared image store published by this listener.
+     *
+     * @param context the servlet context
+     * @return the store, or null if the image proxy is off
+     */
+    static ImageStore getImageStore(ServletContext context) {
+        return (ImageStore) context.getAttribute(IMAGE_STORE_ATTRIBUTE);
+    }
+
+    /**
+     * Opens the store of the image proxy, or returns null if the proxy is off or its directory is not usable.
+     *
+     * @param context the servlet context
+     * @param fetcher the shared HTTP client
+     * @param endpoints where the image host lives
+     * @return the store, or null
+     */
+    private static ImageStore openImageStore(ServletContext context, HttpFetcher fetcher, UpstreamEndpoints endpoints) {
+        String enabled = context.getInitParameter(IMAGE_PROXY_PARAM);
+        if (enabled != null && !enabled.isBlank() && !Boolean.parseBoolean(enabled.trim())) {
+            return null;
+        }
+        String dir = context.getInitParameter(IMAGE_DIR_PARAM);
+        Path directory = dir == null || dir.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "project1task3-images")
+                : Paths.get(dir.trim());
+        try {
+            return new ImageStore(directory, fetcher, endpoints,
+                    (int) longParam(context, IMAGE_MAX_PARAM, ImageStore.DEFAULT_MAX_IMAGES));
+        } catch (IOException e) {
+            context.log("Image proxy disabled, cannot use " + directory, e);
+            return null;
+        }
+    }
+
+    /**
+     * Opens the on-disk page cache, or returns null if it is disabled or its directory is not usable.
+     *
+     * @param context the servlet context
+     * @param metrics counts and logs the failed reads and writes of the cache
+     * @return the cache, or null
+     */
+    private static DiskPageCache openPageCache(ServletContext context, UpstreamMetrics metrics) {
+        long maxMegabytes = longParam(context, PAGE_CACHE_MAX_MB_PARAM, 64);
+        if (maxMegabytes <= 0) {
+            return null;
+        }
+        String dir = context.getInitParameter(PAGE_CACHE_DIR_PARAM);
+        Path directory = dir == null || dir.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "project1task3-cache")
+                : Paths.get(dir.trim());
+        try {
+            return new DiskPageCache(directory, maxMegabytes * 1024 * 1024, metrics);
+        } catch (IOException e) {
+            context.log("Page cache disabled, cannot use " + directory, e);
+            return null;
+        }
+    }
+
+    /**
+     * Builds the per-upstream deadlines, circuit breaker settings and hedging from the context parameters.
+     *
+     * @param context the servlet context
+     * @return the policy
+     */
+    private static ResiliencePolicy resiliencePolicy(ServletContext context) {
+        Map<Upstream, Duration> deadlines = new EnumMap<>(Upstream.class);
+        putDeadline(context, deadlines, CENSUS_TIMEOUT_PARAM, Upstream.CENSUS);
+        putDeadline(context, deadlines, WIKIPEDIA_TIMEOUT_PARAM, Upstream.WIKIPEDIA);
+        putDeadline(context, deadlines, COMMONS_TIMEOUT_PARAM, Upstream.COMMONS_API);
+        String hedge = context.getInitParameter(HEDGE_PARAM);
+        return new ResiliencePolicy(deadlines,
+                (int) longParam(context, BREAKER_FAILURES_PARAM, ResiliencePolicy.DEFAULT_FAILURE_THRESHOLD),
+                Duration.ofMillis(longParam(context, BREAKER_OPEN_PARAM,
+                        ResiliencePolicy.DEFAULT_OPEN_DURATION.toMillis())),
+                hedge == null || hedge.isBlank() || Boolean.parseBoolean(hedge.trim()));
+    }
+
+    /**
+     * Sets the deadline of the given upstreams if the context parameter is set.
+     */
+    private static void putDeadline(ServletContext context, Map<Upstream, Duration> deadlines, String name,
+                                    Upstream... upstreams) {
+        long millis = longParam(context, name, -1);
+        if (millis > 0) {
+            for (Upstream upstream : upstreams) {
+                deadlines.put(upstream, Duration.ofMillis(millis));
+            }
+        }
+    }
+
+    /**
+     * Reads an optional text context parameter.
+     *
+     * @param context the servlet context
+     * @param name the parameter name
+     * @param defaultValue value used when the parameter is not set
+     * @return the parameter value
+     */
+    static String stringParam(ServletContext context, String name, String defaultValue) {
+        String value = context.getInitParameter(name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Reads an optional decimal context parameter.
+     *
+     * @param context the servlet context
+     * @param name the parameter name
+     * @param defaultValue value used when the parameter is not set
+     * @return the parameter value
+     */
+    static double doubleParam(ServletContext context, String name, double defaultValue) {
+        String value = context.getInitParameter(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Double.parseDouble(value.trim());
+    }
+
+    /**
+     * Reads an optional numeric context parameter.
+     *
+     * @param context the servlet context
+     * @param name the parameter name
+     * @param defaultValue value used when the parameter is not set
+     * @return the parameter value
+     */
+    static long longParam(ServletContext context, String name, long defaultValue) {
+        String value = context.getInitParameter(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Long.parseLong(value.trim());
+    }
+}
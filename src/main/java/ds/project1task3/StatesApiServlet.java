@@ -0,0 +1,206 @@
+/**
+ * Date: 10/16/2026
+ *
+ * This Servlet is the bulk JSON API. One request asks for any number of states and fields, for example
+ * {@code /api/states?states=Ohio,New York&fields=population,capital}, and gets all of them in one response:
+ *
+ * <pre>
+ * {"states":[{"state":"Ohio","population":"11799448","capital":"Columbus"}, ...]}
+ * </pre>
+ *
+ * Both parameters may be repeated or comma separated, and default to every state and every field. The states
+ * are looked up at the same time; populations come from the Census index, which one Census call fills for every
+ * state, and the image credits of all cold states are resolved with a few batched Commons queries. Each state
+ * is written and flushed as soon as it is ready, so the payload is never built in memory.
+ */
+
+package ds.project1task3;
+
+// Import gson and necessary Java and Jakarta Servlet API classes
+import com.google.gson.stream.JsonWriter;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+// Annotation to declare servlet's name and URL pattern it responds to
+@WebServlet(name = "StatesApiServlet", urlPatterns = {"/api/states"})
+public class StatesApiServlet extends HttpServlet {
+
+    /**
+     * The fields a client can ask for, with the information type each one belongs to.
+     */
+    enum Field {
+        POPULATION("population", true),
+        FLAG("flag", true),
+        FLAG_CREDIT("flagCredit", true),
+        SEAL("seal", true),
+        SEAL_CREDIT("sealCredit", true),
+        CAPITAL("capital", false),
+        GOVERNOR("governor", false);
+
+        final String jsonName;
+        final boolean symbol;
+
+        Field(String jsonName, boolean symbol) {
+            this.jsonName = jsonName;
+            this.symbol = symbol;
+        }
+
+        String valueOf(StateRecord record) {
+            switch (this) {
+                case POPULATION:
+                    return record.getPopulation();
+                case FLAG:
+                    return record.getFlagURL();
+                case FLAG_CREDIT:
+                    return record.getFlagCredit();
+                case SEAL:
+                    return record.getSealURL();
+                case SEAL_CREDIT:
+                    return record.getSealCredit();
+                case CAPITAL:
+                    return record.getCapital();
+                default:
+                    return record.getGovernor();
+            }
+        }
+
+        static Field byName(String name) {
+            for (Field field : values()) {
+                if (field.jsonName.equalsIgnoreCase(name)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    // The service shared by every request, created by StateWarmupListener
+    private StateInformationService service;
+
+    /**
+     * Looks up the shared service published by {@link StateWarmupListener}.
+     */
+    @Override
+    public void init() {
+        service = StateWarmupListener.getService(getServletContext());
+    }
+
+    /**
+     * Looks up every requested state at the same time and streams the requested fields back as JSON.
+     *
+     * @param request HttpServletRequest object that contains the request the client has made of the servlet
+     * @param response HttpServletResponse object that contains the response the servlet sends to the client
+     * @throws IOException if an input or output error is detected when the servlet handles the request
+     */
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/json;charset=UTF-8");
+
+        // Parse and validate the requested states
+        Set<String> states = new LinkedHashSet<>();
+        for (String state : splitParameter(request, "states")) {
+            if (StateRegistry.ordinal(state) < 0) {
+                sendError(response, "Unknown state: " + state);
+                return;
+            }
+            states.add(state);
+        }
+        if (states.isEmpty()) {
+            states.addAll(StateRegistry.names());
+        }
+
+        // Parse and validate the requested fields
+        Set<Field> fields = new LinkedHashSet<>();
+        for (String name : splitParameter(request, "fields")) {
+            Field field = Field.byName(name);
+            if (field == null) {
+                sendError(response, "Unknown field: " + name);
+                return;
+            }
+            fields.add(field);
+        }
+        if (fields.isEmpty()) {
+            fields.addAll(List.of(Field.values()));
+        }
+        boolean symbols = fields.stream().anyMatch(f -> f.symbol);
+        boolean facts = fields.stream().anyMatch(f -> !f.symbol);
+
+        // Resolve the image credits of every cold state with batched queries, then start every lookup at once
+        // so the upstream work of all states overlaps
+        if (symbols) {
+            service.prefetchCredits(states);
+        }
+        List<Future<StateRecord>> pending = new ArrayList<>();
+        for (String state : states) {
+            pending.add(service.submitLookup(state, symbols, facts));
+        }
+
+        // Write each state as soon as it is ready, in the requested order
+        JsonWriter json = new JsonWriter(response.getWriter());
+        json.beginObject().name("states").beginArray();
+        int i = 0;
+        for (String state : states) {
+            StateRecord record = await(pending.get(i++));
+            json.beginObject().name("state").value(state);
+            for (Field field : fields) {
+                json.name(field.jsonName).value(record == null ? null : field.valueOf(record));
+            }
+            json.endObject();
+            json.flush();
+        }
+        json.endArray().endObject();
+        json.flush();
+    }
+
+    /**
+     * Collects the values of a parameter that may be repeated and may hold comma separated values.
+     */
+    private static List<String> splitParameter(HttpServletRequest request, String name) {
+        List<String> values = new ArrayList<>();
+        String[] parameters = request.getParameterValues(name);
+        if (parameters == null) {
+            return values;
+        }
+        for (String parameter : parameters) {
+            for (String value : parameter.split(",")) {
+                if (!value.isBlank()) {
+                    values.add(value.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Waits for a lookup, which enforces its own deadline, and returns null if it failed.
+     */
+    private static StateRecord await(Future<StateRecord> lookup) {
+        try {
+            return lookup.get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Answers 400 with a JSON error message.
+     */
+    private static void sendError(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        JsonWriter json = new JsonWriter(response.getWriter());
+        json.beginObject().name("error").value(message).endObject();
+        json.flush();
+    }
+}
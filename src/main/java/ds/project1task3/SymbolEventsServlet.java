@@ -0,0 +1,179 @@
+/**
+ * Date: 10/16/2026
+ *
+ * This Servlet streams the flag, the seal and their credits of a state to a population and symbols page that was
+ * sent before they were known, as Server-Sent Events. {@code /Information/events?states=Ohio} sends:
+ *
+ * <pre>
+ * event: images    data: {"flag":"...","seal":"..."}
+ * event: credits   data: {"flagCredit":"...","sealCredit":"..."}
+ * event: done      data: {"degraded":false}
+ * </pre>
+ *
+ * The images are sent as soon as the Wikipedia page has been read, usually well before the Commons credits are
+ * resolved. The lookup runs on the service's page lookup pool while the container thread is released; if it
+ * does not complete before the async timeout, the missing fields are sent as "N.A." and the stream ends.
+ */
+
+package ds.project1task3;
+
+// Import gson and necessary Java and Jakarta Servlet API classes
+import com.google.gson.Gson;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Annotation to declare servlet's name and URL pattern it responds to, and that it answers asynchronously
+@WebServlet(name = "SymbolEventsServlet", urlPatterns = {"/Information/events"}, asyncSupported = true)
+public class SymbolEventsServlet extends HttpServlet {
+    // Path of the event stream relative to the context path
+    static final String PATH = "/Information/events";
+    // Serializes the data of every event, shared because Gson is thread safe
+    private static final Gson GSON = new Gson();
+
+    // The service shared by every request, created by StateWarmupListener
+    private StateInformationService service;
+    // Time the stream may stay open before the missing fields are sent as "N.A."
+    private long asyncTimeoutMillis;
+
+    /**
+     * Looks up the shared service published by {@link StateWarmupListener} and reads the async timeout.
+     */
+    @Override
+    public void init() {
+        service = StateWarmupListener.getService(getServletContext());
+        asyncTimeoutMillis = StateWarmupListener.longParam(getServletContext(),
+                StateWarmupListener.ASYNC_TIMEOUT_PARAM, 8000);
+    }
+
+    /**
+     * Opens the event stream of a state and starts its lookup.
+     *
+     * @param request HttpServletRequest object that contains the request the client has made of the servlet
+     * @param response HttpServletResponse object that contains the response the servlet sends to the client
+     * @throws IOException if an input or output error is detected when the servlet handles the request
+     */
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String state = request.getParameter("states");
+        if (StateRegistry.ordinal(state) < 0) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        response.setContentType("text/event-stream;charset=UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+
+        AsyncContext async = request.startAsync();
+        async.setTimeout(asyncTimeoutMillis);
+        EventStream stream = new EventStream(async, response.getWriter());
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                stream.finish(StateInformationService.unavailable(state, true, false), true);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                stream.close();
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        // Let the browser know the stream is open before the lookup starts
+        response.flushBuffer();
+        service.lookupAsync(state, true, false, stream::images).whenComplete((record, failure) -> {
+            if (failure != null || record == null) {
+                stream.finish(StateInformationService.unavailable(state, true, false), true);
+            } else {
+                stream.finish(record, false);
+            }
+        });
+    }
+
+    /**
+     * The events of one page, sent by whichever of the lookup and the timeout gets there first.
+     */
+    private static final class EventStream {
+        private final AsyncContext async;
+        private final PrintWriter out;
+        // Guarded by this
+        private boolean imagesSent;
+        private boolean closed;
+
+        EventStream(AsyncContext async, PrintWriter out) {
+            this.async = async;
+            this.out = out;
+        }
+
+        /**
+         * Sends the image URLs of a record whose credits are not known yet.
+         */
+        synchronized void images(StateRecord record) {
+            if (!closed) {
+                sendImages(record);
+            }
+        }
+
+        /**
+         * Sends whatever the page has not received yet and ends the stream.
+         */
+        synchronized void finish(StateRecord record, boolean degraded) {
+            if (closed) {
+                return;
+            }
+            if (!imagesSent) {
+                sendImages(record);
+            }
+            Map<String, String> credits = new LinkedHashMap<>();
+            credits.put("flagCredit", record.getFlagCredit());
+            credits.put("sealCredit", record.getSealCredit());
+            send("credits", credits);
+            send("done", Map.of("degraded", degraded));
+            close();
+        }
+
+        /**
+         * Ends the stream without sending anything more.
+         */
+        synchronized void close() {
+            if (!closed) {
+                closed = true;
+                async.complete();
+            }
+        }
+
+        private void sendImages(StateRecord record) {
+            Map<String, String> images = new LinkedHashMap<>();
+            images.put("flag", record.getFlagURL());
+            images.put("seal", record.getSealURL());
+            send("images", images);
+            imagesSent = true;
+        }
+
+        private void send(String event, Object data) {
+            if (closed) {
+                return;
+            }
+            out.write("event: " + event + "\ndata: " + GSON.toJson(data) + "\n\n");
+            out.flush();
+            if (out.checkError()) {
+                // The page has gone away
+                close();
+            }
+        }
+    }
+}
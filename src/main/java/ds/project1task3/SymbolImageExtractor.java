@@ -0,0 +1,111 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code SymbolImageExtractor} class finds the flag and seal image URLs of a Wikipedia state page.
+ *
+ * The HTML snippets that anchor each image are kept as data in {@link #ANCHORS}, in priority order per
+ * symbol. They are compiled once into a {@link MultiPatternMatcher}, so a single pass over the page finds every
+ * candidate for both symbols, and the highest priority anchor that occurs wins. A new page layout or a state
+ * with an unusual file name is supported by adding a row to the table.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.util.ArrayList;
+import java.util.List;
+
+final class SymbolImageExtractor {
+    /**
+     * The symbols whose image URL is extracted.
+     */
+    enum Symbol { FLAG, SEAL }
+
+    // Infobox cell that holds the flag and seal images
+    private static final String CELL = "<div class=\"ib-settlement-cols-cell\">";
+    // Start of an image link inside the cell
+    private static final String LINK = CELL + "<span typeof=\"mw:File\"><a href=\"/wiki/File:";
+    // The attribute that contains the URL
+    private static final String SRC = "src=\"";
+
+    // Anchor snippets in priority order per symbol, the first one found on the page is used
+    private static final Anchor[] ANCHORS = {
+            new Anchor(Symbol.FLAG, CELL + "<span class=\"mw-image-border\" typeof=\"mw:File\"><a href=\"/wiki/File:Flag_of_"),
+            new Anchor(Symbol.FLAG, LINK + "Flag_of_"),
+            new Anchor(Symbol.SEAL, LINK + "Seal_of_"),
+            new Anchor(Symbol.SEAL, LINK + "State_Seal_of_"),
+            new Anchor(Symbol.SEAL, LINK + "State_seal_of_"),
+            new Anchor(Symbol.SEAL, LINK + "Great_Seal_of_"),
+            // Special cases for states whose seal file does not follow the usual naming
+            new Anchor(Symbol.SEAL, LINK + "Arizona_state_seal.svg\""),
+            new Anchor(Symbol.SEAL, LINK + "Wyoming-StateSeal.svg"),
+    };
+
+    // All anchors compiled into one automaton
+    private static final MultiPatternMatcher MATCHER;
+
+    static {
+        List<String> snippets = new ArrayList<>();
+        for (Anchor anchor : ANCHORS) {
+            snippets.add(anchor.snippet);
+        }
+        MATCHER = new MultiPatternMatcher(snippets);
+    }
+
+    private SymbolImageExtractor() {
+    }
+
+    /**
+     * Extracts the image URL of every symbol in one pass over the page.
+     *
+     * @param html The HTML content of a Wikipedia page.
+     * @return The image URLs indexed by {@link Symbol#ordinal()}, null where no anchor was found.
+     */
+    static String[] extract(String html) {
+        int[] found = MATCHER.findFirst(html);
+        String[] urls = new String[Symbol.values().length];
+        // Anchors are in priority order, so the first one found for a symbol wins
+        for (int i = 0; i < ANCHORS.length; i++) {
+            int symbol = ANCHORS[i].symbol.ordinal();
+            if (urls[symbol] == null && found[i] >= 0) {
+                urls[symbol] = imageURL(html, found[i] + ANCHORS[i].snippet.length());
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Extracts the src attribute of the first image after the given position.
+     *
+     * @param content The HTML content to search through.
+     * @param from Position right after the anchor snippet.
+     * @return The extracted image URL, or null if there is no complete src attribute.
+     */
+    private static String imageURL(String content, int from) {
+        // Find the start index of the image URL
+        int cutLeft = content.indexOf(SRC, from);
+        if (cutLeft < 0) {
+            return null;
+        }
+        cutLeft += SRC.length();
+        // Find the end index of the image URL
+        int cutRight = content.indexOf('"', cutLeft);
+        if (cutRight < 0) {
+            return null;
+        }
+        return content.substring(cutLeft, cutRight);
+    }
+
+    /**
+     * One anchor snippet and the symbol whose image follows it.
+     */
+    private static final class Anchor {
+        final Symbol symbol;
+        final String snippet;
+
+        Anchor(Symbol symbol, String snippet) {
+            this.symbol = symbol;
+            this.snippet = snippet;
+        }
+    }
+}
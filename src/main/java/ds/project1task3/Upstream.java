@@ -0,0 +1,44 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The upstream sources the application fetches from. Every fetch names its upstream so that latency, bytes,
+ * status codes and failures are recorded per source, and so that each source can have its own deadline and
+ * hedging setting.
+ */
+
+package ds.project1task3;
+
+public enum Upstream {
+    // The Census population API, loaded in the background once a day so it is never hedged
+    CENSUS("census", false),
+    // The Wikipedia state pages
+    WIKIPEDIA("wikipedia", true),
+    // The Wikimedia Commons API queried for the flag and seal credits
+    COMMONS_API("commons_api", true),
+    // The flag and seal images behind the image proxy, downloaded once and kept on disk
+    IMAGES("images", false);
+
+    // Label value used in the metrics output
+    private final String label;
+    // True if a slow whole-body fetch may be hedged with a second request
+    private final boolean hedged;
+
+    Upstream(String label, boolean hedged) {
+        this.label = label;
+        this.hedged = hedged;
+    }
+
+    /**
+     * @return The label value used in the metrics output.
+     */
+    public String label() {
+        return label;
+    }
+
+    /**
+     * @return true if a slow whole-body fetch may be hedged with a second request.
+     */
+    public boolean isHedged() {
+        return hedged;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code UpstreamEndpoints} class holds where each upstream lives: the Census population query, the base
+ * URL of the Wikipedia state pages, the Wikimedia Commons API and the image host the flags and seals are
+ * served from. The defaults point at the real
+ * services; pointing them at a local stub server lets the application be exercised with injected latency and
+ * errors without touching the network.
+ */
+
+package ds.project1task3;
+
+public class UpstreamEndpoints {
+    // Default base URL of the Wikipedia state pages
+    static final String DEFAULT_WIKIPEDIA_BASE = "https://en.wikipedia.org/wiki/";
+    // Default base URL of the flag and seal images
+    static final String DEFAULT_IMAGE_BASE = "https://upload.wikimedia.org";
+
+    // The endpoints of the real services
+    static final UpstreamEndpoints DEFAULT = new UpstreamEndpoints(StatePopulationIndex.CENSUS_URL,
+            DEFAULT_WIKIPEDIA_BASE, CommonsCreditResolver.DEFAULT_API_URL, DEFAULT_IMAGE_BASE);
+
+    // Full URL of the Census population query
+    private final String censusURL;
+    // Base URL the Wikipedia page title is appended to
+    private final String wikipediaBase;
+    // The Commons MediaWiki API endpoint
+    private final String commonsApiURL;
+    // Scheme and host of the flag and seal images, without a trailing slash
+    private final String imageBase;
+
+    /**
+     * Creates the endpoints.
+     *
+     * @param censusURL Full URL of the Census population query.
+     * @param wikipediaBase Base URL of the Wikipedia state pages, ending with a slash.
+     * @param commonsApiURL The Wikimedia Commons MediaWiki API endpoint.
+     * @param imageBase Scheme and host of the flag and seal images, e.g. {@link #DEFAULT_IMAGE_BASE}.
+     */
+    public UpstreamEndpoints(String censusURL, String wikipediaBase, String commonsApiURL, String imageBase) {
+        this.censusURL = censusURL;
+        this.wikipediaBase = wikipediaBase;
+        this.commonsApiURL = commonsApiURL;
+        this.imageBase = imageBase.endsWith("/") ? imageBase.substring(0, imageBase.length() - 1) : imageBase;
+    }
+
+    /**
+     * @return The full URL of the Census population query.
+     */
+    public String censusURL() {
+        return censusURL;
+    }
+
+    /**
+     * @param title The Wikipedia page title, e.g. "New_York_(state)".
+     * @return The URL of the Wikipedia page.
+     */
+    public String wikipediaURL(String title) {
+        return wikipediaBase + title;
+    }
+
+    /**
+     * @return The Wikimedia Commons MediaWiki API endpoint.
+     */
+    public String commonsApiURL() {
+        return commonsApiURL;
+    }
+
+    /**
+     * @param path The path of an image on the image host, starting with a slash.
+     * @return The URL of the image.
+     */
+    public String imageURL(String path) {
+        return imageBase + path;
+    }
+
+    /**
+     * Returns the path of an image URL on the image host. Page sources use protocol-relative URLs such as
+     * "//upload.wikimedia.org/wikipedia/...", so the scheme is ignored.
+     *
+     * @param src The src of an image as it appears in a page.
+     * @return The path starting with a slash, or null if the image is on another host.
+     */
+    public String imagePath(String src) {
+        String host = withoutScheme(imageBase);
+        String image = withoutScheme(src);
+        if (image.startsWith(host) && image.startsWith("/", host.length())) {
+            return image.substring(host.length());
+        }
+        return null;
+    }
+
+    private static String withoutScheme(String url) {
+        int colon = url.indexOf("://");
+        return colon < 0 ? url : url.substring(colon + 1);
+    }
+}
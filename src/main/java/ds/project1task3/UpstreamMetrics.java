@@ -0,0 +1,249 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code UpstreamMetrics} class records what every upstream call costs and how often extraction quietly
+ * fails: per {@link Upstream}, a latency histogram, bytes read, responses by status code, timeouts and other
+ * errors, requests cancelled by their caller, requests refused by an open circuit breaker, and hedged requests
+ * sent and won; per field, how often an extractor fell back to "N.A." or null; and per local operation, such as
+ * a write of the page cache or a warmup, how often it failed. All counters are lock-free so recording stays cheap
+ * on the request path. {@link MetricsServlet} writes them in the Prometheus text format.
+ *
+ * Failures worth a log line are also passed to the log, which {@link StateWarmupListener} points at the servlet
+ * context's log; until then they are only counted.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import java.io.PrintWriter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public class UpstreamMetrics {
+    // Counters of every upstream
+    private final Map<Upstream, Source> sources = new EnumMap<>(Upstream.class);
+    // Extraction misses by field name
+    private final Map<String, LongAdder> misses = new ConcurrentSkipListMap<>();
+    // Failures of local operations by operation name
+    private final Map<String, LongAdder> failures = new ConcurrentSkipListMap<>();
+    // Receives a message and its cause, which may be null, for every failure worth a log line
+    private volatile BiConsumer<String, Throwable> log = (message, cause) -> { };
+
+    /**
+     * Creates empty counters for every upstream.
+     */
+    public UpstreamMetrics() {
+        for (Upstream upstream : Upstream.values()) {
+            sources.put(upstream, new Source());
+        }
+    }
+
+    /**
+     * Records a call that got a response.
+     *
+     * @param upstream The upstream called.
+     * @param status The HTTP status code.
+     * @param nanos Time from sending the request until the body was read.
+     * @param bytes Bytes read from the wire.
+     */
+    public void recordResponse(Upstream upstream, int status, long nanos, long bytes) {
+        Source source = sources.get(upstream);
+        source.latency.record(nanos);
+        source.bytes.add(bytes);
+        source.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records a call that timed out.
+     *
+     * @param upstream The upstream called.
+     * @param nanos Time until the timeout.
+     */
+    public void recordTimeout(Upstream upstream, long nanos) {
+        Source source = sources.get(upstream);
+        source.latency.record(nanos);
+        source.timeouts.increment();
+    }
+
+    /**
+     * Records a call that failed without a response for another reason than a timeout.
+     *
+     * @param upstream The upstream called.
+     * @param nanos Time until the failure.
+     */
+    public void recordError(Upstream upstream, long nanos) {
+        Source source = sources.get(upstream);
+        source.latency.record(nanos);
+        source.errors.increment();
+    }
+
+    /**
+     * Records a call that was abandoned by its caller, because its deadline passed or a hedged call won.
+     *
+     * @param upstream The upstream called.
+     */
+    public void recordCancelled(Upstream upstream) {
+        sources.get(upstream).cancelled.increment();
+    }
+
+    /**
+     * Records a call that was not made because the circuit breaker of the host was open.
+     *
+     * @param upstream The upstream that would have been called.
+     */
+    public void recordShortCircuit(Upstream upstream) {
+        sources.get(upstream).shortCircuits.increment();
+    }
+
+    /**
+     * Records a hedged second request sent because the first one was slower than p95.
+     *
+     * @param upstream The upstream called.
+     */
+    public void recordHedge(Upstream upstream) {
+        sources.get(upstream).hedges.increment();
+    }
+
+    /**
+     * Records a hedged second request that answered before the first one.
+     *
+     * @param upstream The upstream called.
+     */
+    public void recordHedgeWin(Upstream upstream) {
+        sources.get(upstream).hedgeWins.increment();
+    }
+
+    /**
+     * Records that an extractor could not find a field and fell back to "N.A." or null.
+     *
+     * @param field The name of the field, e.g. "flagCredit".
+     */
+    public void recordMiss(String field) {
+        misses.computeIfAbsent(field, f -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records that a local operation failed and logs why.
+     *
+     * @param operation The name of the operation, e.g. "page_cache_write".
+     * @param message What failed.
+     * @param cause Why it failed, or null.
+     */
+    public void recordFailure(String operation, String message, Throwable cause) {
+        failures.computeIfAbsent(operation, o -> new LongAdder()).increment();
+        log(message, cause);
+    }
+
+    /**
+     * Logs a failure that is already counted elsewhere, such as an upstream timeout.
+     *
+     * @param message What failed.
+     * @param cause Why it failed, or null.
+     */
+    public void log(String message, Throwable cause) {
+        log.accept(message, cause);
+    }
+
+    /**
+     * Sends every logged failure to the given log from now on.
+     *
+     * @param log Receives a message and its cause, which may be null.
+     */
+    public void setLog(BiConsumer<String, Throwable> log) {
+        this.log = log;
+    }
+
+    /**
+     * @param upstream The upstream.
+     * @return The latency histogram of the upstream.
+     */
+    public LatencyHistogram latency(Upstream upstream) {
+        return sources.get(upstream).latency;
+    }
+
+    /**
+     * Writes every counter in the Prometheus text format.
+     *
+     * @param out The writer.
+     */
+    public void write(PrintWriter out) {
+        out.println("# HELP upstream_request_duration_seconds Time from request until the body was read.");
+        out.println("# TYPE upstream_request_duration_seconds histogram");
+        for (Map.Entry<Upstream, Source> entry : sources.entrySet()) {
+            entry.getValue().latency.write(out, "upstream_request_duration_seconds", label(entry.getKey()));
+        }
+        out.println("# HELP upstream_response_bytes_total Bytes read from the upstream.");
+        out.println("# TYPE upstream_response_bytes_total counter");
+        for (Map.Entry<Upstream, Source> entry : sources.entrySet()) {
+            out.println("upstream_response_bytes_total{" + label(entry.getKey()) + "} " + entry.getValue().bytes.sum());
+        }
+        out.println("# HELP upstream_responses_total Responses by HTTP status code.");
+        out.println("# TYPE upstream_responses_total counter");
+        for (Map.Entry<Upstream, Source> entry : sources.entrySet()) {
+            for (Map.Entry<Integer, LongAdder> status : entry.getValue().statuses.entrySet()) {
+                out.println("upstream_responses_total{" + label(entry.getKey()) + ",status=\"" + status.getKey()
+                        + "\"} " + status.getValue().sum());
+            }
+        }
+        out.println("# HELP upstream_timeouts_total Calls that timed out.");
+        out.println("# TYPE upstream_timeouts_total counter");
+        for (Map.Entry<Upstream, Source> entry : sources.entrySet()) {
+            out.println("upstream_timeouts_total{" + label(entry.getKey()) + "} " + entry.getValue().timeouts.sum());
+        }
+        out.println("# HELP upstream_errors_total Calls that failed without a response, other than timeouts.");
+        out.println("# TYPE upstream_errors_total counter");
+        for (Map.Entry<Upstream, Source> entry : sources.entrySet()) {
+            out.println("upstream_errors_total{" + label(entry.getKey()) + "} " + entry.getValue().errors.sum());
+        }
+        writeCounter(out, "upstream_cancelled_total", "Calls abandoned by their caller.", s -> s.cancelled);
+        writeCounter(out, "upstream_short_circuits_total", "Calls refused by an open circuit breaker.",
+                s -> s.shortCircuits);
+        writeCounter(out, "upstream_hedges_total", "Hedged second requests sent.", s -> s.hedges);
+        writeCounter(out, "upstream_hedge_wins_total", "Hedged second requests that answered first.",
+                s -> s.hedgeWins);
+        out.println("# HELP extraction_misses_total Fields an extractor could not find.");
+        out.println("# TYPE extraction_misses_total counter");
+        for (Map.Entry<String, LongAdder> entry : misses.entrySet()) {
+            out.println("extraction_misses_total{field=\"" + entry.getKey() + "\"} " + entry.getValue().sum());
+        }
+        out.println("# HELP local_failures_total Local operations that failed, such as page cache writes and warmups.");
+        out.println("# TYPE local_failures_total counter");
+        for (Map.Entry<String, LongAdder> entry : failures.entrySet()) {
+            out.println("local_failures_total{operation=\"" + entry.getKey() + "\"} " + entry.getValue().sum());
+        }
+    }
+
+    /**
+     * Writes one counter of every upstream.
+     */
+    private void writeCounter(PrintWriter out, String name, String help, Function<Source, LongAdder> counter) {
+        out.println("# HELP " + name + " " + help);
+        out.println("# TYPE " + name + " counter");
+        for (Map.Entry<Upstream, Source> entry : sources.entrySet()) {
+            out.println(name + "{" + label(entry.getKey()) + "} " + counter.apply(entry.getValue()).sum());
+        }
+    }
+
+    private static String label(Upstream upstream) {
+        return "upstream=\"" + upstream.label() + "\"";
+    }
+
+    /**
+     * Counters of one upstream.
+     */
+    private static final class Source {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder bytes = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentSkipListMap<>();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final LongAdder shortCircuits = new LongAdder();
+        final LongAdder hedges = new LongAdder();
+        final LongAdder hedgeWins = new LongAdder();
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Date: 10/16/2026
+ *
+ * The {@code WikipediaPageProvider} class fetches each Wikipedia state page once and shares the result.
+ *
+ * A page is downloaded and parsed a single time, and the same {@link Page} (raw HTML plus parsed Jsoup
+ * {@link Document}) is handed to every extractor: flag, seal, capital and governor, for both information
+ * types. Concurrent requests for the same page are collapsed into one fetch by a {@link SingleFlight}, so a
+ * caller that gives up on its fetch never hands its empty result to the others. Pages are kept for a TTL and
+ * then fetched again on the next request.
+ */
+
+package ds.project1task3;
+
+// Import jsoup and the necessary Java classes
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class WikipediaPageProvider {
+    // Upper bound on the number of cached pages, the state parameter comes straight from the client
+    private static final int MAX_ENTRIES = 256;
+
+    // Downloads the raw HTML of a URL, returns null if it could not be fetched
+    private final Function<String, String> loader;
+    // How long a fetched page is reused
+    private final long ttlNanos;
+    // Fetched pages keyed by URL
+    private final Map<String, Entry> pages = new ConcurrentHashMap<>();
+    // Collapses concurrent fetches of the same URL into one
+    private final SingleFlight<String, Page> flights = new SingleFlight<>();
+
+    /**
+     * Creates a new page provider.
+     *
+     * @param loader Function that downloads the raw HTML of a URL, or returns null on failure.
+     * @param ttl How long a fetched page is reused before it is fetched again.
+     */
+    public WikipediaPageProvider(Function<String, String> loader, Duration ttl) {
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the page at the given URL, fetching and caching it if needed.
+     *
+     * @param url The Wikipedia URL of the page.
+     * @return The page, or null if it could not be fetched.
+     */
+    public Page get(String url) {
+        Entry entry = pages.get(url);
+        if (entry != null && !entry.isExpired(System.nanoTime())) {
+            return entry.page;
+        }
+        try {
+            return flights.execute(url, () -> load(url));
+        } catch (IllegalStateException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // This caller stopped waiting for the fetch of another caller
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return The single-flight group of page fetches, for its call and collapse counters.
+     */
+    public SingleFlight<String, Page> getFlights() {
+        return flights;
+    }
+
+    /**
+     * Fetches the page and caches it. Failed fetches are not cached.
+     */
+    private Page load(String url) {
+        // The page may have been fetched by a run that finished just before this one started
+        Entry entry = pages.get(url);
+        if (entry != null && !entry.isExpired(System.nanoTime())) {
+            return entry.page;
+        }
+        String html = loader.apply(url);
+        if (html == null) {
+            return null;
+        }
+        Page page = new Page(url, html);
+        pages.put(url, new Entry(page, System.nanoTime() + ttlNanos));
+        evictIfFull();
+        return page;
+    }
+
+    /**
+     * Keeps the cache bounded by dropping expired pages first, then arbitrary ones.
+     */
+    private void evictIfFull() {
+        if (pages.size() <= MAX_ENTRIES) {
+            return;
+        }
+        long now = System.nanoTime();
+        pages.values().removeIf(e -> e.isExpired(now));
+        Iterator<String> keys = pages.keySet().iterator();
+        while (pages.size() > MAX_ENTRIES && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * A fetched page together with its expiry time.
+     */
+    private static final class Entry {
+        final Page page;
+        final long expiresAt;
+
+        Entry(Page page, long expiresAt) {
+            this.page = page;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+
+    /**
+     * One fetched Wikipedia page. The raw HTML is kept for the string based extractors and the Jsoup
+     * document is parsed once, on first use, and then shared by every DOM based extractor.
+     */
+    public static final class Page {
+        private final String url;
+        private final String html;
+        private volatile Document document;
+
+        Page(String url, String html) {
+            this.url = url;
+            this.html = html;
+        }
+
+        /**
+         * @return The URL the page was fetched from.
+         */
+        public String url() {
+            return url;
+        }
+
+        /**
+         * @return The raw HTML of the page.
+         */
+        public String html() {
+            return html;
+        }
+
+        /**
+         * @return The parsed document, parsed on first call and shared afterwards.
+         */
+        public Document document() {
+            Document doc = document;
+            if (doc == null) {
+                synchronized (this) {
+                    doc = document;
+                    if (doc == null) {
+                        doc = Jsoup.parse(html, url);
+                        document = doc;
+                    }
+                }
+            }
+            return doc;
+        }
+    }
+}
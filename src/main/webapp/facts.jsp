@@ -25,6 +25,9 @@
     </style>
     <body>
         <h1>Two Facts of the State:</h1>
+        <% if (request.getAttribute("degraded") != null) { %>
+        <p><i>The sources are slow to answer right now, please try again in a moment.</i></p>
+        <% } %>
         <p><b>State:</b> <%= request.getAttribute("state")%></p>
         <p><b>Capital of the state:</b> <%= request.getAttribute("stateCapital")%></p>
         <p><b>Governor of the state:</b> <%= request.getAttribute("stateGovernor")%></p>
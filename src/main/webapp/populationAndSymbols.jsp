@@ -24,15 +24,60 @@
         }
     </style>
     <body>
+        <%-- With progressive rendering the images and credits arrive later from the symbolEvents stream --%>
+        <% Object symbolEvents = request.getAttribute("symbolEvents"); %>
         <h1>State Population & Official Symbols:</h1>
+        <% if (request.getAttribute("degraded") != null) { %>
+        <p><i>The sources are slow to answer right now, please try again in a moment.</i></p>
+        <% } else if (symbolEvents != null) { %>
+        <p id="degraded" hidden><i>The sources are slow to answer right now, please try again in a moment.</i></p>
+        <% } %>
         <p><b>State:</b> <%= request.getAttribute("state")%></p>
         <p><b>Population:</b> <%= request.getAttribute("statePopulation")%></p>
         <p>Credit: Census Bureau at <a href="https://www.census.gov"> https://www.census.gov</a></p>
+        <% if (symbolEvents == null) { %>
         <p><b>State Flag:</b> </p>
         <img src="<%= request.getAttribute("stateFlag")%>" alt="State Flag of <%= request.getAttribute("state")%>">
         <p>Credit: <%= request.getAttribute("stateFlagCredit")%> at <a href="https://en.wikipedia.org/"> https://en.wikipedia.org/</a></p>
         <p><b>State Seal:</b> </p><br>
         <img src="<%= request.getAttribute("stateSeal")%>" alt="State Seal of <%= request.getAttribute("state")%>">
         <p>Credit: <%= request.getAttribute("stateSealCredit")%> at <a href="https://en.wikipedia.org/"> https://en.wikipedia.org/</a></p>
+        <% } else { %>
+        <p><b>State Flag:</b> </p>
+        <img id="stateFlag" alt="State Flag of <%= request.getAttribute("state")%>">
+        <p>Credit: <span id="stateFlagCredit">loading...</span> at <a href="https://en.wikipedia.org/"> https://en.wikipedia.org/</a></p>
+        <p><b>State Seal:</b> </p><br>
+        <img id="stateSeal" alt="State Seal of <%= request.getAttribute("state")%>">
+        <p>Credit: <span id="stateSealCredit">loading...</span> at <a href="https://en.wikipedia.org/"> https://en.wikipedia.org/</a></p>
+        <script>
+            var events = new EventSource("<%= symbolEvents%>");
+            events.addEventListener("images", function (event) {
+                var images = JSON.parse(event.data);
+                document.getElementById("stateFlag").src = images.flag;
+                document.getElementById("stateSeal").src = images.seal;
+            });
+            events.addEventListener("credits", function (event) {
+                var credits = JSON.parse(event.data);
+                document.getElementById("stateFlagCredit").textContent = credits.flagCredit;
+                document.getElementById("stateSealCredit").textContent = credits.sealCredit;
+            });
+            events.addEventListener("done", function (event) {
+                // Stop the browser from reconnecting once every field has arrived
+                events.close();
+                document.getElementById("degraded").hidden = !JSON.parse(event.data).degraded;
+            });
+            events.onerror = function () {
+                // The stream broke before it was done, show whatever is still missing as N.A.
+                events.close();
+                ["stateFlagCredit", "stateSealCredit"].forEach(function (id) {
+                    var credit = document.getElementById(id);
+                    if (credit.textContent === "loading...") {
+                        credit.textContent = "N.A.";
+                    }
+                });
+                document.getElementById("degraded").hidden = false;
+            };
+        </script>
+        <% } %>
     </body>
 </html>
@@ -0,0 +1,63 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the allocation meter: only measured work is counted, nested work is counted once, and what a
+ * thread allocated stays counted after the thread has ended.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AllocationMeterTest {
+    private static final int MEGABYTE = 1024 * 1024;
+
+    private final AllocationMeter meter = new AllocationMeter();
+    // Keeps the allocations reachable so they are not optimized away
+    private volatile byte[] sink;
+
+    @BeforeEach
+    void requireThreadAllocation() {
+        assumeTrue(meter.getAllocatedBytes() >= 0, "the JVM does not measure thread allocation");
+    }
+
+    @Test
+    void countsNestedWorkOnce() {
+        meter.measure(() -> {
+            sink = new byte[MEGABYTE];
+            return meter.measure(() -> sink = new byte[MEGABYTE]);
+        });
+        long allocated = meter.getAllocatedBytes();
+        assertTrue(allocated >= 2L * MEGABYTE, "allocated " + allocated);
+        assertTrue(allocated < 3L * MEGABYTE, "allocated " + allocated);
+    }
+
+    @Test
+    void keepsTheAllocationOfEndedThreadsAndIgnoresOtherThreads() throws Exception {
+        Thread measured = new Thread(() -> meter.measure(() -> sink = new byte[MEGABYTE]));
+        measured.start();
+        measured.join();
+        long allocated = meter.getAllocatedBytes();
+        assertTrue(allocated >= MEGABYTE, "allocated " + allocated);
+
+        Thread other = new Thread(() -> sink = new byte[8 * MEGABYTE]);
+        other.start();
+        other.join();
+        assertEquals(allocated, meter.getAllocatedBytes());
+    }
+
+    @Test
+    void measuresCallablesOnThePoolThreadThatRunsThem() throws Exception {
+        assertEquals("done", meter.measured(() -> {
+            sink = new byte[MEGABYTE];
+            return "done";
+        }).call());
+        assertTrue(meter.getAllocatedBytes() >= MEGABYTE);
+    }
+}
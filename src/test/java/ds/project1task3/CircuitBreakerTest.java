@@ -0,0 +1,88 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the states of a host's circuit breaker, and of the half-open trial of a fetch that fails with a runtime
+ * exception.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CircuitBreakerTest {
+    @Test
+    void letsASingleTrialThroughWhenHalfOpen() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMillis(100));
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        Thread.sleep(150);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        // Every other call fails fast while the trial runs
+        assertFalse(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void freesTheTrialOfAnAbandonedCall() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(50));
+        breaker.recordFailure();
+        Thread.sleep(80);
+        assertTrue(breaker.allowRequest());
+        breaker.recordAbandoned();
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void endsTheTrialOfAFetchThatFailsAtRuntime(@TempDir Path directory) throws IOException, InterruptedException {
+        try (StubHttpServer server = new StubHttpServer()) {
+            AtomicInteger calls = new AtomicInteger();
+            server.handle("/page", exchange ->
+                    StubHttpServer.send(exchange, calls.getAndIncrement() == 0 ? 500 : 200, "<html>Ohio</html>"));
+            String url = server.url("/page");
+            DiskPageCache cache = new DiskPageCache(directory, 1024 * 1024);
+            HttpFetcher fetcher = HttpFetcherTest.fetcher(cache,
+                    HttpFetcherTest.policy(Map.of(), 1, Duration.ofMillis(300), false));
+            try {
+                assertNull(fetcher.fetch(Upstream.WIKIPEDIA, url));
+                CircuitBreaker breaker = fetcher.getBreakers().values().iterator().next();
+                assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+                // The trial fails before it is sent: the cached validator is not a valid header value
+                cache.put(url, "<html>Old</html>", "\"broken\r\nvalidator\"", null, true);
+                Thread.sleep(400);
+                assertNull(fetcher.fetch(Upstream.WIKIPEDIA, url));
+                assertEquals(1, HttpFetcherTest.metric(fetcher, "upstream_errors_total{upstream=\"wikipedia\"}"));
+                assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+                // The failed trial was ended, so the next one is let through once the breaker half opens again
+                cache.remove(url);
+                Thread.sleep(400);
+                assertEquals("<html>Ohio</html>", fetcher.fetch(Upstream.WIKIPEDIA, url));
+                assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+            } finally {
+                fetcher.shutdown();
+            }
+        }
+    }
+}
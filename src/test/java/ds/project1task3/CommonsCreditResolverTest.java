@@ -0,0 +1,185 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the Commons credit resolver against a local stub of the MediaWiki API that normalizes titles the
+ * way the real API does: batching of at most 50 titles, mapping normalized and redirected titles back to the
+ * requested files, missing files, the Georgia file names, reuse within the TTL and failed queries.
+ */
+
+package ds.project1task3;
+
+// Import gson, junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CommonsCreditResolverTest {
+    private StubHttpServer server;
+    private HttpFetcher fetcher;
+    // The titles parameter of every query, split into titles
+    private final List<List<String>> queries = new CopyOnWriteArrayList<>();
+    // Files the stub redirects, by normalized title
+    private final Map<String, String> redirects = Map.of("File:Flag of Old Ohio.svg", "File:Flag of Ohio.svg");
+    // Whether the stub answers with a server error
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubHttpServer().handle("/w/api.php", this::answer);
+        // A high failure threshold, so an injected error does not open the breaker
+        fetcher = HttpFetcherTest.fetcher(null,
+                HttpFetcherTest.policy(Map.of(), 100, Duration.ofSeconds(30), false));
+    }
+
+    @AfterEach
+    void stopServer() {
+        fetcher.shutdown();
+        server.close();
+    }
+
+    @Test
+    void resolvesEveryStateInBatchesOfFifty() {
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            for (SymbolImageExtractor.Symbol symbol : SymbolImageExtractor.Symbol.values()) {
+                files.add(StateRegistry.commonsFile(i, symbol));
+            }
+        }
+        Map<String, String> credits = resolver(Duration.ofHours(1)).resolve(files);
+        assertEquals(2, queries.size());
+        assertEquals(CommonsCreditResolver.MAX_TITLES_PER_QUERY, queries.get(0).size());
+        assertEquals(CommonsCreditResolver.MAX_TITLES_PER_QUERY, queries.get(1).size());
+        assertEquals(files.size(), credits.size());
+        // The requested underscore names are mapped back from the normalized titles the API answers with
+        assertEquals("uploader of File:Flag of New York (state).svg", credits.get("Flag_of_New_York_(state).svg"));
+    }
+
+    @Test
+    void asksForTheStateOfGeorgia() {
+        int georgia = StateRegistry.ordinal("Georgia");
+        String flag = StateRegistry.commonsFile(georgia, SymbolImageExtractor.Symbol.FLAG);
+        String seal = StateRegistry.commonsFile(georgia, SymbolImageExtractor.Symbol.SEAL);
+        assertEquals("Flag_of_the_State_of_Georgia.svg", flag);
+        assertEquals("Seal_of_the_State_of_Georgia.svg", seal);
+        Map<String, String> credits = resolver(Duration.ofHours(1)).resolve(List.of(flag, seal));
+        assertEquals(List.of(List.of("File:" + flag, "File:" + seal)), queries);
+        assertEquals("uploader of File:Flag of the State of Georgia.svg", credits.get(flag));
+        assertEquals("uploader of File:Seal of the State of Georgia.svg", credits.get(seal));
+    }
+
+    @Test
+    void followsRedirectsAndLeavesOutMissingFiles() {
+        Map<String, String> credits = resolver(Duration.ofHours(1))
+                .resolve(List.of("Flag_of_Old_Ohio.svg", "Missing_flag.svg"));
+        assertEquals(Map.of("Flag_of_Old_Ohio.svg", "uploader of File:Flag of Ohio.svg"), credits);
+    }
+
+    @Test
+    void reusesCreditsAndMissingFilesWithinTheTtl() {
+        CommonsCreditResolver resolver = resolver(Duration.ofHours(1));
+        List<String> files = List.of("Flag_of_Ohio.svg", "Missing_flag.svg");
+        Map<String, String> first = resolver.resolve(files);
+        assertEquals(first, resolver.resolve(files));
+        assertEquals(1, queries.size());
+
+        // Once the TTL is over the files are asked for again
+        CommonsCreditResolver expiring = resolver(Duration.ZERO);
+        expiring.resolve(files);
+        expiring.resolve(files);
+        assertEquals(3, queries.size());
+    }
+
+    @Test
+    void doesNotCacheAFailedQuery() {
+        CommonsCreditResolver resolver = resolver(Duration.ofHours(1));
+        failing.set(true);
+        assertTrue(resolver.resolve(List.of("Flag_of_Ohio.svg")).isEmpty());
+        assertFalse(queries.isEmpty());
+
+        failing.set(false);
+        int failed = queries.size();
+        assertEquals(Map.of("Flag_of_Ohio.svg", "uploader of File:Flag of Ohio.svg"),
+                resolver.resolve(List.of("Flag_of_Ohio.svg")));
+        assertEquals(failed + 1, queries.size());
+    }
+
+    private CommonsCreditResolver resolver(Duration ttl) {
+        return new CommonsCreditResolver(server.url("/w/api.php"), fetcher, ttl);
+    }
+
+    /**
+     * Answers a query like the MediaWiki API with formatversion=2: underscores are normalized to spaces, a few
+     * titles are redirects, titles starting with "File:Missing" do not exist and every other file was uploaded
+     * by "uploader of" its title.
+     */
+    private void answer(HttpExchange exchange) throws IOException {
+        List<String> titles = new ArrayList<>();
+        for (String parameter : exchange.getRequestURI().getRawQuery().split("&")) {
+            if (parameter.startsWith("titles=")) {
+                String value = URLDecoder.decode(parameter.substring("titles=".length()), StandardCharsets.UTF_8);
+                titles.addAll(List.of(value.split("\\|")));
+            }
+        }
+        queries.add(titles);
+        if (failing.get()) {
+            StubHttpServer.send(exchange, 503, "");
+            return;
+        }
+
+        JsonArray normalized = new JsonArray();
+        JsonArray redirected = new JsonArray();
+        JsonArray pages = new JsonArray();
+        for (String title : titles) {
+            String normal = title.replace('_', ' ');
+            if (!normal.equals(title)) {
+                normalized.add(mapping(title, normal));
+            }
+            String target = redirects.getOrDefault(normal, normal);
+            if (!target.equals(normal)) {
+                redirected.add(mapping(normal, target));
+            }
+            JsonObject page = new JsonObject();
+            page.addProperty("title", target);
+            if (target.startsWith("File:Missing")) {
+                page.addProperty("missing", true);
+            } else {
+                JsonObject info = new JsonObject();
+                info.addProperty("user", "uploader of " + target);
+                JsonArray imageinfo = new JsonArray();
+                imageinfo.add(info);
+                page.add("imageinfo", imageinfo);
+            }
+            pages.add(page);
+        }
+        JsonObject query = new JsonObject();
+        query.add("normalized", normalized);
+        query.add("redirects", redirected);
+        query.add("pages", pages);
+        JsonObject response = new JsonObject();
+        response.add("query", query);
+        StubHttpServer.send(exchange, 200, response.toString());
+    }
+
+    private static JsonObject mapping(String from, String to) {
+        JsonObject mapping = new JsonObject();
+        mapping.addProperty("from", from);
+        mapping.addProperty("to", to);
+        return mapping;
+    }
+}
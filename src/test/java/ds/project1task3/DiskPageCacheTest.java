@@ -0,0 +1,107 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the on-disk page cache, its batched index writes, concurrent writes of the same URL and the reporting
+ * of an unreadable index.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiskPageCacheTest {
+    @Test
+    void batchesIndexWritesUntilClosed(@TempDir Path directory) throws IOException {
+        DiskPageCache cache = new DiskPageCache(directory, 1024 * 1024);
+        for (int i = 0; i < 20; i++) {
+            cache.put("https://example.org/" + i, "page " + i, "\"" + i + "\"", null, true);
+        }
+        cache.remove("https://example.org/0");
+        // Nothing has been written yet, the index waits for its delay
+        assertFalse(Files.exists(directory.resolve("index.json")));
+        cache.close();
+        assertTrue(Files.exists(directory.resolve("index.json")));
+
+        DiskPageCache reopened = new DiskPageCache(directory, 1024 * 1024);
+        assertNull(reopened.get("https://example.org/0"));
+        DiskPageCache.Entry entry = reopened.get("https://example.org/7");
+        assertNotNull(entry);
+        assertEquals("\"7\"", entry.etag());
+        assertEquals("page 7", reopened.read(entry));
+        reopened.close();
+    }
+
+    @Test
+    void countsAndLogsAnUnreadableIndex(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("index.json"), "[{\"url\":", StandardCharsets.UTF_8);
+        UpstreamMetrics metrics = new UpstreamMetrics();
+        List<String> log = new CopyOnWriteArrayList<>();
+        metrics.setLog((message, cause) -> log.add(message));
+
+        // The cache starts empty instead of failing
+        DiskPageCache cache = new DiskPageCache(directory, 1024 * 1024, metrics);
+        assertNull(cache.get("https://example.org/Ohio"));
+        cache.close();
+        assertEquals(List.of("Ignoring unreadable page cache index"), log);
+        StringWriter text = new StringWriter();
+        metrics.write(new PrintWriter(text));
+        assertTrue(text.toString().contains("local_failures_total{operation=\"page_cache_index_load\"} 1\n"));
+    }
+
+    @Test
+    void keepsTheBodyOfTheIndexedEntryUnderConcurrentPuts(@TempDir Path directory) throws Exception {
+        DiskPageCache cache = new DiskPageCache(directory, 1024 * 1024);
+        String url = "https://example.org/Ohio";
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 50; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> puts = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    String version = round + "-" + i;
+                    puts.add(writers.submit(() -> {
+                        start.await();
+                        cache.put(url, "page " + version, "\"" + version + "\"", null, true);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> put : puts) {
+                    put.get(5, TimeUnit.SECONDS);
+                }
+                // Whichever put won, its validators describe the body on disk
+                DiskPageCache.Entry entry = cache.get(url);
+                assertEquals("page " + entry.etag().replace("\"", ""), cache.read(entry));
+            }
+        } finally {
+            writers.shutdownNow();
+            cache.close();
+        }
+        // Only the body file and the index are left, no temporary files
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+}
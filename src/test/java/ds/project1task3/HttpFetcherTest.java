@@ -0,0 +1,272 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the shared HTTP client against a local stub upstream that injects latency and 5xx responses:
+ * conditional revalidation, the circuit breaker of a host, hedged fetches and per-upstream deadlines, which also
+ * bound a body that stops arriving.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HttpFetcherTest {
+    private StubHttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubHttpServer();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void revalidatesWithAnEmptyGzipNotModified(@TempDir Path directory) throws IOException {
+        byte[] page = gzip("<html>Ohio</html>");
+        server.handle("/wiki/Ohio", exchange -> {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                // Not modified, with the encoding header but no body
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, page.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(page);
+            }
+        });
+        DiskPageCache cache = new DiskPageCache(directory, 1024 * 1024);
+        HttpFetcher fetcher = fetcher(cache, policy(Map.of(), 5, Duration.ofSeconds(30), false));
+        try {
+            String url = server.url("/wiki/Ohio");
+            assertEquals("<html>Ohio</html>", fetcher.fetch(Upstream.WIKIPEDIA, url));
+            assertEquals("<html>Ohio</html>", fetcher.fetch(Upstream.WIKIPEDIA, url));
+            assertEquals(2, server.requests());
+            assertEquals(0, metric(fetcher, "upstream_errors_total{upstream=\"wikipedia\"}"));
+            assertEquals(1, metric(fetcher, "upstream_responses_total{upstream=\"wikipedia\",status=\"304\"}"));
+            assertTrue(fetcher.getBreakers().values().stream()
+                    .allMatch(b -> b.getState() == CircuitBreaker.State.CLOSED));
+        } finally {
+            fetcher.shutdown();
+        }
+    }
+
+    @Test
+    void breakerOpensGoesHalfOpenAndCloses() throws InterruptedException {
+        AtomicBoolean healthy = new AtomicBoolean(false);
+        server.handle("/census", exchange ->
+                StubHttpServer.send(exchange, healthy.get() ? 200 : 503, healthy.get() ? "[[]]" : ""));
+        HttpFetcher fetcher = fetcher(null, policy(Map.of(), 3, Duration.ofMillis(300), false));
+        try {
+            String url = server.url("/census");
+            for (int i = 0; i < 3; i++) {
+                assertNull(fetcher.fetch(Upstream.CENSUS, url));
+            }
+            CircuitBreaker breaker = fetcher.getBreakers().values().iterator().next();
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+            // While open, requests fail fast without reaching the host
+            assertNull(fetcher.fetch(Upstream.CENSUS, url));
+            assertEquals(3, server.requests());
+            assertEquals(1, metric(fetcher, "upstream_short_circuits_total{upstream=\"census\"}"));
+
+            Thread.sleep(350);
+            assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+            // A failed trial opens the breaker again
+            assertNull(fetcher.fetch(Upstream.CENSUS, url));
+            assertEquals(4, server.requests());
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+            Thread.sleep(350);
+            healthy.set(true);
+            assertEquals("[[]]", fetcher.fetch(Upstream.CENSUS, url));
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        } finally {
+            fetcher.shutdown();
+        }
+    }
+
+    @Test
+    void hedgesAfterP95AndCancelsTheLoser() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        server.handle("/wiki/Ohio", exchange -> {
+            if (attempts.incrementAndGet() == 1) {
+                // The first request hangs far beyond the p95
+                StubHttpServer.delay(3000);
+                StubHttpServer.send(exchange, 200, "slow");
+            } else {
+                StubHttpServer.send(exchange, 200, "fast");
+            }
+        });
+        server.handle("/warmup", exchange -> StubHttpServer.send(exchange, 200, "ok"));
+        HttpFetcher fetcher = fetcher(null, policy(Map.of(), 5, Duration.ofSeconds(30), true));
+        try {
+            // Open the connection first, so the first attempt reaches the stub before the hedge
+            assertEquals("ok", fetcher.fetch(Upstream.CENSUS, server.url("/warmup")));
+            // A history of 50 ms requests puts the p95 at the 100 ms bucket
+            for (int i = 0; i < ResiliencePolicy.HEDGE_MIN_SAMPLES; i++) {
+                fetcher.getMetrics().latency(Upstream.WIKIPEDIA).record(TimeUnit.MILLISECONDS.toNanos(50));
+            }
+            long start = System.nanoTime();
+            assertEquals("fast", fetcher.fetch(Upstream.WIKIPEDIA, server.url("/wiki/Ohio")));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis >= 100 && elapsedMillis < 2000, "took " + elapsedMillis + " ms");
+            assertEquals(2, attempts.get());
+            assertEquals(1, metric(fetcher, "upstream_hedges_total{upstream=\"wikipedia\"}"));
+            // The win is recorded by the hedge thread right after it hands over the content
+            awaitMetric(fetcher, "upstream_hedge_wins_total{upstream=\"wikipedia\"}", 1);
+            // The first request is cancelled instead of being waited for
+            awaitMetric(fetcher, "upstream_cancelled_total{upstream=\"wikipedia\"}", 1);
+        } finally {
+            fetcher.shutdown();
+        }
+    }
+
+    @Test
+    void appliesPerUpstreamDeadlines() {
+        server.handle("/slow", exchange -> {
+            StubHttpServer.delay(1000);
+            StubHttpServer.send(exchange, 200, "late");
+        });
+        HttpFetcher fetcher = fetcher(null,
+                policy(Map.of(Upstream.WIKIPEDIA, Duration.ofMillis(200)), 5, Duration.ofSeconds(30), false));
+        try {
+            long start = System.nanoTime();
+            assertNull(fetcher.fetch(Upstream.WIKIPEDIA, server.url("/slow")));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 900);
+            assertEquals(1, metric(fetcher, "upstream_timeouts_total{upstream=\"wikipedia\"}"));
+            // An upstream without a deadline of its own waits up to the read timeout
+            assertEquals("late", fetcher.fetch(Upstream.CENSUS, server.url("/slow")));
+        } finally {
+            fetcher.shutdown();
+        }
+    }
+
+    @Test
+    void appliesTheDeadlineToABodyThatStalls() throws IOException {
+        // The headers and the start of the body arrive at once, the rest never does
+        server.handle("/stalled", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write("<html>Ohio".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            StubHttpServer.delay(3000);
+        });
+        HttpFetcher fetcher = fetcher(null,
+                policy(Map.of(Upstream.WIKIPEDIA, Duration.ofMillis(300)), 5, Duration.ofSeconds(30), false));
+        try {
+            long start = System.nanoTime();
+            assertNull(fetcher.fetch(Upstream.WIKIPEDIA, server.url("/stalled")));
+            assertNull(fetcher.download(Upstream.WIKIPEDIA, server.url("/stalled"), new ByteArrayOutputStream()));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis < 1500, "took " + elapsedMillis + " ms");
+            assertEquals(2, metric(fetcher, "upstream_timeouts_total{upstream=\"wikipedia\"}"));
+        } finally {
+            fetcher.shutdown();
+        }
+    }
+
+    @Test
+    void givesARequestOnlyTheDeadlineItsQueueWaitLeft() throws Exception {
+        server.handle("/slow", exchange -> {
+            StubHttpServer.delay(250);
+            StubHttpServer.send(exchange, 200, "<html>Ohio</html>");
+        });
+        OutboundScheduler scheduler = new OutboundScheduler(1, 1000, Map.of());
+        HttpFetcher fetcher = new HttpFetcher(Duration.ofSeconds(2), Duration.ofSeconds(5), false, null,
+                policy(Map.of(Upstream.WIKIPEDIA, Duration.ofMillis(300)), 5, Duration.ofSeconds(30), false),
+                scheduler);
+        Thread releaser = null;
+        try {
+            // The only slot of the host is taken for 200 ms, which leaves the request 100 ms of its 300
+            OutboundScheduler.Permit held = scheduler.acquire(URI.create(server.url("/")).getRawAuthority(),
+                    Duration.ofSeconds(1));
+            releaser = new Thread(() -> {
+                StubHttpServer.delay(200);
+                held.close();
+            });
+            releaser.start();
+            long start = System.nanoTime();
+            assertNull(fetcher.fetch(Upstream.WIKIPEDIA, server.url("/slow")));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis < 450, "took " + elapsedMillis + " ms");
+            assertEquals(1, metric(fetcher, "upstream_timeouts_total{upstream=\"wikipedia\"}"));
+        } finally {
+            if (releaser != null) {
+                releaser.join();
+            }
+            fetcher.shutdown();
+        }
+    }
+
+    /**
+     * Creates a fetcher with short timeouts and a permissive scheduler.
+     */
+    static HttpFetcher fetcher(DiskPageCache cache, ResiliencePolicy policy) {
+        return new HttpFetcher(Duration.ofSeconds(2), Duration.ofSeconds(5), false, cache, policy,
+                new OutboundScheduler());
+    }
+
+    static ResiliencePolicy policy(Map<Upstream, Duration> deadlines, int failures, Duration open, boolean hedging) {
+        return new ResiliencePolicy(deadlines, failures, open, hedging);
+    }
+
+    /**
+     * Reads one sample of the fetcher's metrics output.
+     */
+    static long metric(HttpFetcher fetcher, String sample) {
+        StringWriter text = new StringWriter();
+        fetcher.getMetrics().write(new PrintWriter(text));
+        for (String line : text.toString().split("\n")) {
+            if (line.startsWith(sample + " ")) {
+                return Long.parseLong(line.substring(sample.length() + 1).trim());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Waits up to two seconds for a sample of the fetcher's metrics to reach a value.
+     */
+    static void awaitMetric(HttpFetcher fetcher, String sample, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (metric(fetcher, sample) < expected && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, metric(fetcher, sample));
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
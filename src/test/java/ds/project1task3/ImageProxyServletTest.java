@@ -0,0 +1,204 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the image proxy servlet against an image store filled from a local stub image host: the strong
+ * ETag and 304 answers, single and suffix byte ranges, If-Range, unsatisfiable ranges, and the hand-off of the
+ * file to the container's sendfile support or the transferTo copy when there is none.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageProxyServletTest {
+    private static final String IMAGE = "/wikipedia/commons/a/a4/Flag_of_Ohio.svg";
+    private static final String CONTENT = "0123456789";
+
+    private StubHttpServer server;
+    private HttpFetcher fetcher;
+    private ImageProxyServlet servlet;
+
+    @BeforeEach
+    void startServer(@TempDir Path directory) throws IOException, ServletException {
+        server = new StubHttpServer().handle("/wikipedia/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "image/svg+xml");
+            StubHttpServer.send(exchange, 200, CONTENT);
+        });
+        fetcher = HttpFetcherTest.fetcher(null,
+                HttpFetcherTest.policy(Map.of(), 5, Duration.ofSeconds(30), false));
+        UpstreamEndpoints endpoints = new UpstreamEndpoints(server.url("/census"), server.url("/wiki/"),
+                server.url("/w/api.php"), server.url(""));
+        ImageStore store = new ImageStore(directory, fetcher, endpoints);
+        store.allow(IMAGE);
+        servlet = ServletStubs.init(new ImageProxyServlet(), null, store, Map.of());
+    }
+
+    @AfterEach
+    void stopServer() {
+        fetcher.shutdown();
+        server.close();
+    }
+
+    @Test
+    void servesTheWholeImageWithAStrongETag() throws IOException {
+        ServletStubs.Exchange exchange = get();
+        assertEquals(HttpServletResponse.SC_OK, exchange.status());
+        assertEquals("image/svg+xml", exchange.contentType());
+        assertTrue(exchange.header("ETag").startsWith("\""), exchange.header("ETag"));
+        assertEquals("public, max-age=31536000, immutable", exchange.header("Cache-Control"));
+        assertEquals("bytes", exchange.header("Accept-Ranges"));
+        assertEquals(10, exchange.contentLength());
+        // Without sendfile support the file is copied into the response by transferTo
+        assertEquals(CONTENT, new String(exchange.bytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void answersNotModifiedForTheCurrentETag() throws IOException {
+        String etag = get().header("ETag");
+        ServletStubs.Exchange exchange = new ServletStubs.Exchange().path(ImageProxyServlet.PATH + IMAGE)
+                .requestHeader("If-None-Match", "\"old\", W/" + etag);
+        servlet.doGet(exchange.request, exchange.response);
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, exchange.status());
+        assertEquals(etag, exchange.header("ETag"));
+        assertEquals(0, exchange.bytes().length);
+        assertEquals(1, server.requests());
+    }
+
+    @Test
+    void servesASingleRange() throws IOException {
+        ServletStubs.Exchange exchange = get("bytes=2-5", null);
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, exchange.status());
+        assertEquals("bytes 2-5/10", exchange.header("Content-Range"));
+        assertEquals(4, exchange.contentLength());
+        assertEquals("2345", new String(exchange.bytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void servesASuffixRange() throws IOException {
+        ServletStubs.Exchange exchange = get("bytes=-3", null);
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, exchange.status());
+        assertEquals("bytes 7-9/10", exchange.header("Content-Range"));
+        assertEquals("789", new String(exchange.bytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void appliesARangeOnlyToTheVersionNamedByIfRange() throws IOException {
+        String etag = get().header("ETag");
+        ServletStubs.Exchange current = get("bytes=2-5", etag);
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, current.status());
+        assertEquals("2345", new String(current.bytes(), StandardCharsets.UTF_8));
+
+        // The client holds part of another version, so it gets the whole image
+        ServletStubs.Exchange stale = get("bytes=2-5", "\"old\"");
+        assertEquals(HttpServletResponse.SC_OK, stale.status());
+        assertNull(stale.header("Content-Range"));
+        assertEquals(CONTENT, new String(stale.bytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rejectsAnUnsatisfiableRange() throws IOException {
+        for (String range : new String[] {"bytes=10-", "bytes=-0", "bytes=5-3"}) {
+            ServletStubs.Exchange exchange = get(range, null);
+            assertEquals(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, exchange.status(), range);
+            assertEquals("bytes */10", exchange.header("Content-Range"), range);
+            assertEquals(0, exchange.bytes().length, range);
+        }
+    }
+
+    @Test
+    void sendsTheWholeImageForSeveralRanges() throws IOException {
+        ServletStubs.Exchange exchange = get("bytes=0-1,4-5", null);
+        assertEquals(HttpServletResponse.SC_OK, exchange.status());
+        assertEquals(10, exchange.contentLength());
+        assertEquals(CONTENT, new String(exchange.bytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void handsTheRangeToSendfileWhenTheContainerSupportsIt() throws IOException {
+        ServletStubs.Exchange exchange = new ServletStubs.Exchange().path(ImageProxyServlet.PATH + IMAGE)
+                .requestHeader("Range", "bytes=2-5");
+        exchange.attributes.put("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        servlet.doGet(exchange.request, exchange.response);
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, exchange.status());
+        assertEquals(4, exchange.contentLength());
+        assertTrue(Path.of((String) exchange.attributes.get("org.apache.tomcat.sendfile.filename")).isAbsolute());
+        assertEquals(2L, exchange.attributes.get("org.apache.tomcat.sendfile.start"));
+        assertEquals(6L, exchange.attributes.get("org.apache.tomcat.sendfile.end"));
+        // The container sends the bytes, the servlet writes none
+        assertEquals(0, exchange.bytes().length);
+    }
+
+    @Test
+    void answersNotFoundWithoutContactingTheImageHost() throws IOException {
+        for (String path : new String[] {"/wikipedia/commons/b/b1/Unlinked.svg", "/wikipedia/../w/api.php",
+                "/other/commons/a/a4/Flag_of_Ohio.svg"}) {
+            ServletStubs.Exchange exchange = new ServletStubs.Exchange().path(ImageProxyServlet.PATH + path);
+            servlet.doGet(exchange.request, exchange.response);
+            assertEquals(HttpServletResponse.SC_NOT_FOUND, exchange.status(), path);
+        }
+        assertEquals(0, server.requests());
+    }
+
+    @Test
+    void parsesSingleAndSuffixRanges() {
+        assertArrayEquals(new long[] {2, 5}, ImageProxyServlet.parseRange("bytes=2-5", 10));
+        assertArrayEquals(new long[] {3, 9}, ImageProxyServlet.parseRange("bytes=3-", 10));
+        assertArrayEquals(new long[] {3, 9}, ImageProxyServlet.parseRange("bytes=3-100", 10));
+        assertArrayEquals(new long[] {0, 9}, ImageProxyServlet.parseRange("bytes=-20", 10));
+        assertNull(ImageProxyServlet.parseRange("bytes=-0", 10));
+        assertNull(ImageProxyServlet.parseRange("bytes=5-3", 10));
+        assertNull(ImageProxyServlet.parseRange("bytes=10-", 10));
+        // Ranges the proxy does not support are ignored rather than rejected
+        assertArrayEquals(new long[0], ImageProxyServlet.parseRange("bytes=0-1,4-5", 10));
+        assertArrayEquals(new long[0], ImageProxyServlet.parseRange("items=0-1", 10));
+        assertArrayEquals(new long[0], ImageProxyServlet.parseRange("bytes=a-b", 10));
+    }
+
+    @Test
+    void matchesAnyListedOrWildcardETag() {
+        assertTrue(ImageProxyServlet.matches("\"a\"", "\"a\""));
+        assertTrue(ImageProxyServlet.matches("\"b\", W/\"a\"", "\"a\""));
+        assertTrue(ImageProxyServlet.matches("*", "\"a\""));
+        assertFalse(ImageProxyServlet.matches("\"b\"", "\"a\""));
+        assertFalse(ImageProxyServlet.matches(null, "\"a\""));
+    }
+
+    /**
+     * Requests the image without conditions and returns what the servlet did.
+     */
+    private ServletStubs.Exchange get() throws IOException {
+        return get(null, null);
+    }
+
+    /**
+     * Requests the image with an optional Range and If-Range header and returns what the servlet did.
+     */
+    private ServletStubs.Exchange get(String range, String ifRange) throws IOException {
+        ServletStubs.Exchange exchange = new ServletStubs.Exchange().path(ImageProxyServlet.PATH + IMAGE);
+        if (range != null) {
+            exchange.requestHeader("Range", range);
+        }
+        if (ifRange != null) {
+            exchange.requestHeader("If-Range", ifRange);
+        }
+        servlet.doGet(exchange.request, exchange.response);
+        return exchange;
+    }
+}
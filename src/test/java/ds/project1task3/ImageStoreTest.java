@@ -0,0 +1,103 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the image proxy's store against a local stub image host: only allowed paths are downloaded, and the
+ * store is capped both while it runs and when it is opened again.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageStoreTest {
+    private StubHttpServer server;
+    private HttpFetcher fetcher;
+    private UpstreamEndpoints endpoints;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubHttpServer().handle("/wikipedia/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "image/svg+xml");
+            StubHttpServer.send(exchange, 200, "<svg>" + exchange.getRequestURI().getPath() + "</svg>");
+        });
+        fetcher = HttpFetcherTest.fetcher(null,
+                HttpFetcherTest.policy(Map.of(), 5, Duration.ofSeconds(30), false));
+        endpoints = new UpstreamEndpoints(server.url("/census"), server.url("/wiki/"), server.url("/w/api.php"),
+                server.url(""));
+    }
+
+    @AfterEach
+    void stopServer() {
+        fetcher.shutdown();
+        server.close();
+    }
+
+    @Test
+    void servesOnlyAllowedPaths(@TempDir Path directory) throws IOException {
+        ImageStore store = new ImageStore(directory, fetcher, endpoints);
+        assertNull(store.get("/wikipedia/commons/a/a4/Flag_of_Ohio.svg"));
+        assertEquals(0, server.requests());
+
+        store.allow("/wikipedia/commons/a/a4/Flag_of_Ohio.svg");
+        ImageStore.Image image = store.get("/wikipedia/commons/a/a4/Flag_of_Ohio.svg");
+        assertNotNull(image);
+        assertEquals("image/svg+xml", image.contentType());
+        assertNotNull(store.get("/wikipedia/commons/a/a4/Flag_of_Ohio.svg"));
+        assertEquals(1, server.requests());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedImage(@TempDir Path directory) throws IOException {
+        ImageStore store = new ImageStore(directory, fetcher, endpoints, 2);
+        store.allow("/wikipedia/a.svg");
+        store.allow("/wikipedia/b.svg");
+        assertNotNull(store.get("/wikipedia/a.svg"));
+        assertNotNull(store.get("/wikipedia/b.svg"));
+        // Using a makes b the least recently used image
+        assertNotNull(store.get("/wikipedia/a.svg"));
+        store.allow("/wikipedia/c.svg");
+        assertNotNull(store.get("/wikipedia/c.svg"));
+
+        assertNull(store.get("/wikipedia/b.svg"));
+        assertEquals(2, count(directory, "*.img"));
+        assertEquals(2, count(directory, "*.json"));
+    }
+
+    @Test
+    void trimsImagesOfEarlierRunsToTheCap(@TempDir Path directory) throws IOException {
+        ImageStore store = new ImageStore(directory, fetcher, endpoints);
+        for (String path : new String[] {"/wikipedia/a.svg", "/wikipedia/b.svg", "/wikipedia/c.svg"}) {
+            store.allow(path);
+            assertNotNull(store.get(path));
+        }
+        assertEquals(3, count(directory, "*.img"));
+
+        new ImageStore(directory, fetcher, endpoints, 1);
+        assertEquals(1, count(directory, "*.img"));
+        assertEquals(1, count(directory, "*.json"));
+    }
+
+    private static int count(Path directory, String glob) throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+            for (Path ignored : files) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
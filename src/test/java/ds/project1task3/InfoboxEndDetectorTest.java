@@ -0,0 +1,68 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of detecting the end of the state infobox while a page is streamed in chunks of any size.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class InfoboxEndDetectorTest {
+    // A table before the infobox, the infobox with a nested table, and a table after it
+    private static final String PAGE = "<html><body><table class=\"sidebar\"><tr><td>Contents</td></tr></table>"
+            + "<table class=\"infobox ib-settlement vcard\"><tbody>"
+            + "<tr><th>Capital</th><td>Columbus</td></tr>"
+            + "<tr><td><table class=\"wikitable\"><tr><td>Delegation</td></tr></table></td></tr>"
+            + "<tr><th>Governor</th><td>Mike DeWine</td></tr>"
+            + "</tbody></table>"
+            + "<p>Ohio is a state.</p><table class=\"wikitable\"><tr><td>Counties</td></tr></table></body></html>";
+    // Length of the content once the closing tag of the infobox has been read
+    private static final int INFOBOX_END = PAGE.indexOf("</table><p>") + "</table".length();
+
+    @Test
+    void stopsRightAfterTheInfoboxInAnyChunking() {
+        for (int chunk = 1; chunk <= PAGE.length(); chunk++) {
+            int stoppedAt = stopPosition(PAGE, chunk);
+            assertTrue(stoppedAt >= INFOBOX_END, "stopped inside the infobox with chunks of " + chunk);
+            assertTrue(stoppedAt - chunk < INFOBOX_END, "read past the infobox with chunks of " + chunk);
+        }
+    }
+
+    @Test
+    void doesNotStopAtTheNestedTable() {
+        InfoboxEndDetector detector = new InfoboxEndDetector();
+        int nestedEnd = PAGE.indexOf("</table></td>") + "</table></td>".length();
+        assertFalse(detector.test(new StringBuilder(PAGE.substring(0, nestedEnd))));
+        assertTrue(detector.test(new StringBuilder(PAGE)));
+    }
+
+    @Test
+    void neverStopsOnAPageWithoutAnInfobox() {
+        String page = PAGE.replace("infobox ib-settlement", "navbox");
+        assertEquals(-1, stopPosition(page, 7));
+        assertEquals(-1, stopPosition(page, page.length()));
+    }
+
+    /**
+     * Feeds the page to a new detector a chunk at a time, like the streaming read of {@link HttpFetcher}.
+     *
+     * @return The length of the content when the detector first asked to stop, or -1 if it never did.
+     */
+    private static int stopPosition(String page, int chunk) {
+        InfoboxEndDetector detector = new InfoboxEndDetector();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < page.length(); i += chunk) {
+            content.append(page, i, Math.min(page.length(), i + chunk));
+            if (detector.test(content)) {
+                return content.length();
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of extracting the capital and the governor from the infobox of a state page: rows found by their
+ * label wherever they are, the capital label matched as a prefix and the governor label matched exactly, and
+ * the positional fallbacks of the old layout when no row carries a label.
+ */
+
+package ds.project1task3;
+
+// Import jsoup, junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+class InfoboxExtractorTest {
+    private static final int CAPITAL = InfoboxExtractor.Field.CAPITAL.ordinal();
+    private static final int GOVERNOR = InfoboxExtractor.Field.GOVERNOR.ordinal();
+
+    @Test
+    void findsTheRowsByTheirLabelInAnyOrder() {
+        String[] values = extract(infobox(
+                row("• Governor", "<span><a href=\"/wiki/Mike_DeWine\">Mike DeWine</a> (R)</span>"),
+                row("Country", link("United States")),
+                row("Capital", link("Columbus"))));
+        assertArrayEquals(new String[] {"Columbus", "Mike DeWine"}, values);
+    }
+
+    @Test
+    void matchesTheCapitalLabelAsAPrefix() {
+        String[] values = extract(infobox(row("Capital (and largest city)", link("Phoenix"))));
+        assertEquals("Phoenix", values[CAPITAL]);
+        // Non-breaking spaces and bullets in front of the label are ignored
+        assertEquals("Phoenix", extract(infobox(row("\u00a0\u2022\u00a0Capital", link("Phoenix"))))[CAPITAL]);
+    }
+
+    @Test
+    void matchesTheGovernorLabelExactly() {
+        String[] values = extract(infobox(
+                row("• Lieutenant Governor", link("Jon Husted")),
+                row("• Governor", link("Mike DeWine"))));
+        assertEquals("Mike DeWine", values[GOVERNOR]);
+        // Without a Governor row the Lieutenant Governor is not taken instead
+        assertNull(extract(infobox(row("• Lieutenant Governor", link("Jon Husted"))))[GOVERNOR]);
+    }
+
+    @Test
+    void prefersTheLinkInsideASpanForTheGovernor() {
+        String[] values = extract(infobox(row("• Governor",
+                link("Governor of Ohio") + " <span>" + link("Mike DeWine") + "</span>")));
+        assertEquals("Mike DeWine", values[GOVERNOR]);
+    }
+
+    @Test
+    void fallsBackToThePositionsOfTheOldLayout() {
+        // No row carries a label, the capital is in row 12 and the governor in row 17
+        StringBuilder rows = new StringBuilder();
+        for (int i = 1; i <= 17; i++) {
+            String cell = i == 12 ? link("Columbus") : i == 17 ? link("Mike DeWine") : "Row " + i;
+            rows.append("<tr><td>").append(cell).append("</td></tr>");
+        }
+        String page = "<div id=\"mw-content-text\"><div class=\"mw-content-ltr mw-parser-output\">"
+                + "<table class=\"infobox ib-settlement vcard\"><tbody>" + rows + "</tbody></table></div></div>";
+        assertArrayEquals(new String[] {"Columbus", "Mike DeWine"}, extract(page));
+    }
+
+    @Test
+    void findsNothingOnAPageWithoutAnInfobox() {
+        assertArrayEquals(new String[] {null, null}, extract("<p>" + link("Columbus") + "</p>"));
+        // A labelled row without a link gives nothing either
+        assertArrayEquals(new String[] {null, null}, extract(infobox(row("Capital", "Columbus"))));
+    }
+
+    private static String[] extract(String html) {
+        return InfoboxExtractor.extract(Jsoup.parse(html));
+    }
+
+    private static String infobox(String... rows) {
+        return "<table class=\"infobox ib-settlement vcard\"><tbody>" + String.join("", rows) + "</tbody></table>";
+    }
+
+    private static String row(String label, String data) {
+        return "<tr><th>" + label + "</th><td>" + data + "</td></tr>";
+    }
+
+    private static String link(String title) {
+        return "<a href=\"/wiki/" + title.replace(' ', '_') + "\">" + title + "</a>";
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of finding the first occurrence of many literal patterns in one pass, including patterns that overlap
+ * or contain each other and text outside the ASCII table of the automaton.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MultiPatternMatcherTest {
+    @Test
+    void findsOverlappingPatterns() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("he", "she", "his", "hers"));
+        // "she" and "he" end at the same character, "hers" starts inside "she"
+        assertArrayEquals(new int[] {2, 1, -1, 2}, matcher.findFirst("ushers"));
+        assertArrayEquals(new int[] {4, 3, 1, -1}, matcher.findFirst("ahishe"));
+    }
+
+    @Test
+    void findsAPatternInsideAnother() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("Seal_of_", "Great_Seal_of_", "al_"));
+        assertArrayEquals(new int[] {6, 0, 8}, matcher.findFirst("Great_Seal_of_Ohio"));
+        // Only the first occurrence of each pattern is reported
+        assertArrayEquals(new int[] {0, 9, 2}, matcher.findFirst("Seal_of_ Great_Seal_of_"));
+    }
+
+    @Test
+    void reportsMissingPatterns() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("Flag_of_", "Seal_of_"));
+        assertArrayEquals(new int[] {-1, -1}, matcher.findFirst("Coat_of_arms_of_Ohio"));
+        assertArrayEquals(new int[] {-1, -1}, matcher.findFirst(""));
+    }
+
+    @Test
+    void handlesTextBeyondTheAsciiTable() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("Flag_of_", "<img"));
+        // Characters outside the table reset the automaton without ending the scan
+        assertArrayEquals(new int[] {5, 13}, matcher.findFirst("Québ Flag_of_<img"));
+        assertArrayEquals(new int[] {8, 3}, matcher.findFirst("日本語<img Flag_of_"));
+        // A pattern interrupted by a non-ASCII character does not match, a later complete one does
+        assertArrayEquals(new int[] {9, -1}, matcher.findFirst("Flag_éof_Flag_of_"));
+        assertArrayEquals(new int[] {-1, 2}, matcher.findFirst("\uFFFF\u0080<img"));
+    }
+
+    @Test
+    void rejectsPatternsBeyondTheAsciiTable() {
+        assertThrows(IllegalArgumentException.class, () -> new MultiPatternMatcher(List.of("Flag_of_Québec")));
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the outbound scheduler: interactive requests going ahead of background ones, the concurrency limit
+ * and token bucket of a host, requests that time out in the queue, and the parsing of per-host limits.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class OutboundSchedulerTest {
+    private static final String HOST = "upstream.example:443";
+
+    @Test
+    void servesAWaitingInteractiveRequestBeforeAnEarlierBackgroundOne() throws Exception {
+        OutboundScheduler scheduler = new OutboundScheduler(1, 1000, Map.of());
+        List<OutboundScheduler.Priority> order = new CopyOnWriteArrayList<>();
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            OutboundScheduler.Permit held = scheduler.acquire(HOST, Duration.ofSeconds(1));
+            assertNotNull(held);
+            // The background request queues first, the interactive one after it
+            Future<?> background = threads.submit(() -> OutboundScheduler.callAs(OutboundScheduler.Priority.BACKGROUND,
+                    () -> acquireAndRecord(scheduler, order)));
+            awaitQueueDepth(scheduler, OutboundScheduler.Priority.BACKGROUND, 1);
+            Future<?> interactive = threads.submit(() -> acquireAndRecord(scheduler, order));
+            awaitQueueDepth(scheduler, OutboundScheduler.Priority.INTERACTIVE, 1);
+
+            held.close();
+            interactive.get(5, TimeUnit.SECONDS);
+            background.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(OutboundScheduler.Priority.INTERACTIVE, OutboundScheduler.Priority.BACKGROUND),
+                    order);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void givesUpWhenNoSlotIsFreedInTime() throws InterruptedException {
+        OutboundScheduler scheduler = new OutboundScheduler(1, 1000, Map.of());
+        OutboundScheduler.Permit held = scheduler.acquire(HOST, Duration.ofSeconds(1));
+        assertNotNull(held);
+        assertNull(scheduler.acquire(HOST, Duration.ofMillis(50)));
+        assertEquals("1", metric(scheduler, "outbound_queue_timeouts_total", OutboundScheduler.Priority.INTERACTIVE));
+        // Closing the permit frees the slot
+        held.close();
+        assertNotNull(scheduler.acquire(HOST, Duration.ofMillis(50)));
+    }
+
+    @Test
+    void givesUpWhenNoTokenIsDueInTime() throws InterruptedException {
+        // Plenty of slots but one request a second, with a burst of one
+        OutboundScheduler scheduler = new OutboundScheduler(8, 1, Map.of());
+        assertNotNull(scheduler.acquire(HOST, Duration.ofMillis(50)));
+        assertNull(scheduler.acquire(HOST, Duration.ofMillis(50)));
+        // Other hosts have buckets of their own
+        assertNotNull(scheduler.acquire("other.example:443", Duration.ofMillis(50)));
+    }
+
+    @Test
+    void appliesTheLimitsOfAHostWithOrWithoutItsPort() throws InterruptedException {
+        OutboundScheduler scheduler = new OutboundScheduler(8, 1000,
+                OutboundScheduler.parseHostLimits("upstream.example=1/1000"));
+        assertNotNull(scheduler.acquire(HOST, Duration.ofMillis(50)));
+        assertNull(scheduler.acquire(HOST, Duration.ofMillis(50)));
+    }
+
+    @Test
+    void parsesHostLimits() {
+        Map<String, double[]> limits =
+                OutboundScheduler.parseHostLimits(" api.census.gov=2/1 , en.wikipedia.org=16/50.5");
+        assertEquals(2, limits.size());
+        assertArrayEquals(new double[] {2, 1}, limits.get("api.census.gov"));
+        assertArrayEquals(new double[] {16, 50.5}, limits.get("en.wikipedia.org"));
+        assertEquals(Map.of(), OutboundScheduler.parseHostLimits(null));
+        assertThrows(IllegalArgumentException.class, () -> OutboundScheduler.parseHostLimits("api.census.gov=2"));
+        assertThrows(IllegalArgumentException.class, () -> OutboundScheduler.parseHostLimits("api.census.gov"));
+    }
+
+    /**
+     * Waits for a permit, records the priority it was granted to and closes it.
+     */
+    private static Void acquireAndRecord(OutboundScheduler scheduler, List<OutboundScheduler.Priority> order)
+            throws InterruptedException {
+        try (OutboundScheduler.Permit permit = scheduler.acquire(HOST, Duration.ofSeconds(5))) {
+            assertNotNull(permit);
+            order.add(OutboundScheduler.currentPriority());
+        }
+        return null;
+    }
+
+    private static void awaitQueueDepth(OutboundScheduler scheduler, OutboundScheduler.Priority priority, int depth)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!String.valueOf(depth).equals(metric(scheduler, "outbound_queue_depth", priority))) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("no " + priority.label() + " request queued");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * @return The value of a metric of the test host and a priority, or null if it is not reported.
+     */
+    private static String metric(OutboundScheduler scheduler, String name, OutboundScheduler.Priority priority) {
+        StringWriter text = new StringWriter();
+        scheduler.write(new PrintWriter(text));
+        String prefix = name + "{host=\"" + HOST + "\",priority=\"" + priority.label() + "\"} ";
+        for (String line : text.toString().split("\n")) {
+            if (line.startsWith(prefix)) {
+                return line.substring(prefix.length()).trim();
+            }
+        }
+        return null;
+    }
+}
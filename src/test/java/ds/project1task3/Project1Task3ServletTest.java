@@ -0,0 +1,105 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the page servlet: the asynchronous lookup of a cold state, the degraded page shown when the async
+ * timeout passes first, and the progressive page shell of a population and symbols request.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class Project1Task3ServletTest {
+    private static final String FACTS_PAGE = StateInformationServiceTest.factsPage("Columbus", "Mike DeWine");
+
+    @Test
+    void dispatchesTheLookedUpFactsOfAColdState() throws Exception {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.handle("/wiki/", exchange -> StubHttpServer.send(exchange, 200, FACTS_PAGE));
+            StateInformationService service = StateInformationServiceTest.service(server);
+            try {
+                Project1Task3Servlet servlet = ServletStubs.init(new Project1Task3Servlet(), service,
+                        Map.of(StateWarmupListener.ASYNC_TIMEOUT_PARAM, "5000"));
+                ServletStubs.Exchange exchange = facts(servlet);
+                assertEquals(5000, exchange.timeout());
+                assertEquals("/facts.jsp", exchange.page.get(5, TimeUnit.SECONDS));
+                assertEquals("Columbus", exchange.attributes.get("stateCapital"));
+                assertEquals("Mike DeWine", exchange.attributes.get("stateGovernor"));
+                assertNull(exchange.attributes.get("degraded"));
+            } finally {
+                StateInformationServiceTest.shutdown(service);
+            }
+        }
+    }
+
+    @Test
+    void showsTheDegradedPageWhenTheAsyncTimeoutPassesFirst() throws Exception {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.handle("/wiki/", exchange -> {
+                StubHttpServer.delay(500);
+                StubHttpServer.send(exchange, 200, FACTS_PAGE);
+            });
+            StateInformationService service = StateInformationServiceTest.service(server);
+            try {
+                Project1Task3Servlet servlet = ServletStubs.init(new Project1Task3Servlet(), service,
+                        Map.of(StateWarmupListener.ASYNC_TIMEOUT_PARAM, "100"));
+                ServletStubs.Exchange exchange = facts(servlet);
+                assertEquals(100, exchange.timeout());
+                // The container fires the timeout while the upstream is still answering
+                exchange.timeOut();
+                assertEquals("/facts.jsp", exchange.page.getNow(null));
+                assertEquals(Boolean.TRUE, exchange.attributes.get("degraded"));
+                assertEquals("N.A.", exchange.attributes.get("stateCapital"));
+                assertEquals("N.A.", exchange.attributes.get("stateGovernor"));
+                // The lookup that completes afterwards does not answer the request again
+                service.lookupAsync("Ohio", false, true).get(5, TimeUnit.SECONDS);
+                assertEquals("N.A.", exchange.attributes.get("stateCapital"));
+            } finally {
+                StateInformationServiceTest.shutdown(service);
+            }
+        }
+    }
+
+    @Test
+    void sendsTheProgressiveShellOfAColdSymbolsRequest() throws IOException, ServletException {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.handle("/census", exchange -> StubHttpServer.send(exchange, 200,
+                    "[[\"NAME\",\"P1_001N\",\"state\"],[\"New York\",\"20201249\",\"36\"]]"));
+            StateInformationService service = StateInformationServiceTest.service(server);
+            try {
+                service.getModel().start();
+                Project1Task3Servlet servlet = ServletStubs.init(new Project1Task3Servlet(), service, Map.of());
+                ServletStubs.Exchange exchange = new ServletStubs.Exchange()
+                        .parameter("states", "New York").parameter("InformationType", "type1");
+                servlet.doGet(exchange.request, exchange.response);
+                // Answered on the container thread, before any page or image is fetched
+                assertEquals("/populationAndSymbols.jsp", exchange.page.getNow(null));
+                assertEquals(0, exchange.timeout());
+                assertEquals("20201249", exchange.attributes.get("statePopulation"));
+                assertEquals(ServletStubs.CONTEXT_PATH + SymbolEventsServlet.PATH + "?states=New+York",
+                        exchange.attributes.get("symbolEvents"));
+                assertEquals(1, server.requests(), "only the Census table was fetched");
+            } finally {
+                StateInformationServiceTest.shutdown(service);
+            }
+        }
+    }
+
+    /**
+     * Asks the servlet for the facts of Ohio.
+     */
+    private static ServletStubs.Exchange facts(Project1Task3Servlet servlet) throws IOException, ServletException {
+        ServletStubs.Exchange exchange = new ServletStubs.Exchange()
+                .parameter("states", "Ohio").parameter("InformationType", "type2");
+        servlet.doGet(exchange.request, exchange.response);
+        return exchange;
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the record cache of live lookups against a clock the test moves by hand: the fresh, stale and
+ * negative windows, a single background refresh per stale entry, refreshes that come back incomplete, and the
+ * eviction of the least recently used record.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class RecordCacheTest {
+    private static final StateRecord COMPLETE =
+            new StateRecord("Ohio", null, null, null, null, null, "Columbus", "Mike DeWine");
+    private static final StateRecord UPDATED =
+            new StateRecord("Ohio", null, null, null, null, null, "Columbus", "Jon Husted");
+    private static final StateRecord INCOMPLETE =
+            new StateRecord("Ohio", null, null, null, null, null, "N.A.", "N.A.");
+    private static final Predicate<StateRecord> HAS_FACTS = StateRecord::hasFacts;
+    // Runs a refresh on the calling thread
+    private static final Executor DIRECT = Runnable::run;
+
+    // The time the cache sees, moved by the tests
+    private final AtomicLong now = new AtomicLong();
+    // Fresh for 10 seconds, then stale for 60, and 5 seconds for an incomplete record
+    private final RecordCache cache = new RecordCache(2, Duration.ofSeconds(10), Duration.ofSeconds(60),
+            Duration.ofSeconds(5), now::get);
+
+    @Test
+    void servesAFreshRecordWithoutLoadingIt() {
+        Loader loader = new Loader(COMPLETE);
+        Loader refresher = new Loader(UPDATED);
+        assertSame(COMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        advance(9);
+        assertSame(COMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        assertEquals(1, loader.calls);
+        assertEquals(0, refresher.calls);
+    }
+
+    @Test
+    void servesAStaleRecordWhileASingleRefreshRuns() {
+        Loader loader = new Loader(COMPLETE);
+        Loader refresher = new Loader(UPDATED);
+        QueuedExecutor executor = new QueuedExecutor();
+        cache.get("Ohio", loader, refresher, HAS_FACTS, executor);
+        advance(11);
+        // Every lookup of the stale record is answered at once, and only the first one starts a refresh
+        assertSame(COMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, executor));
+        assertSame(COMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, executor));
+        assertEquals(1, executor.tasks.size());
+        assertEquals(0, refresher.calls);
+
+        // The refresh uses its own loader and replaces the record with a fresh one
+        executor.runAll();
+        assertEquals(1, refresher.calls);
+        assertEquals(1, loader.calls);
+        advance(9);
+        assertSame(UPDATED, cache.get("Ohio", loader, refresher, HAS_FACTS, executor));
+        assertEquals(0, executor.tasks.size());
+    }
+
+    @Test
+    void loadsAgainOnceTheStaleWindowHasPassed() {
+        Loader loader = new Loader(COMPLETE);
+        Loader refresher = new Loader(UPDATED);
+        cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT);
+        advance(71);
+        loader.record = UPDATED;
+        // Too old to serve, the caller waits for a new record instead of triggering a refresh
+        assertSame(UPDATED, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        assertEquals(2, loader.calls);
+        assertEquals(0, refresher.calls);
+    }
+
+    @Test
+    void keepsAnIncompleteRecordForTheNegativeTimeOnly() {
+        Loader loader = new Loader(INCOMPLETE);
+        Loader refresher = new Loader(COMPLETE);
+        cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT);
+        advance(4);
+        assertSame(INCOMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        assertEquals(1, loader.calls);
+        // Never served stale, the next lookup assembles the state again on the caller
+        advance(2);
+        loader.record = COMPLETE;
+        assertSame(COMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        assertEquals(2, loader.calls);
+        assertEquals(0, refresher.calls);
+    }
+
+    @Test
+    void keepsTheCompleteRecordWhenARefreshComesBackIncomplete() {
+        Loader loader = new Loader(COMPLETE);
+        Loader refresher = new Loader(INCOMPLETE);
+        cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT);
+        advance(11);
+        assertSame(COMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        assertEquals(1, refresher.calls);
+
+        // The complete record is served without another refresh for the negative time
+        advance(4);
+        assertSame(COMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        assertEquals(1, refresher.calls);
+        // and is then refreshed again, here successfully
+        advance(2);
+        refresher.record = UPDATED;
+        assertSame(COMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        assertEquals(2, refresher.calls);
+        assertSame(UPDATED, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        assertEquals(1, loader.calls);
+    }
+
+    @Test
+    void stopsServingTheCompleteRecordAtTheEndOfItsStaleWindow() {
+        Loader loader = new Loader(COMPLETE);
+        Loader refresher = new Loader(INCOMPLETE);
+        cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT);
+        // Failing refreshes do not stretch the stale window
+        for (int second = 11; second < 70; second += 6) {
+            now.set(TimeUnit.SECONDS.toNanos(second));
+            assertSame(COMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        }
+        now.set(TimeUnit.SECONDS.toNanos(70));
+        loader.record = INCOMPLETE;
+        assertSame(INCOMPLETE, cache.get("Ohio", loader, refresher, HAS_FACTS, DIRECT));
+        assertEquals(2, loader.calls);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedRecord() {
+        Loader ohio = new Loader(COMPLETE);
+        Loader texas = new Loader(COMPLETE);
+        Loader utah = new Loader(COMPLETE);
+        cache.get("Ohio", ohio, ohio, HAS_FACTS, DIRECT);
+        cache.get("Texas", texas, texas, HAS_FACTS, DIRECT);
+        // Reading Ohio makes Texas the least recently used record
+        cache.get("Ohio", ohio, ohio, HAS_FACTS, DIRECT);
+        cache.get("Utah", utah, utah, HAS_FACTS, DIRECT);
+        assertEquals(2, cache.size());
+
+        cache.get("Ohio", ohio, ohio, HAS_FACTS, DIRECT);
+        assertEquals(1, ohio.calls);
+        cache.get("Texas", texas, texas, HAS_FACTS, DIRECT);
+        assertEquals(2, texas.calls);
+    }
+
+    private void advance(long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    /**
+     * Returns a record the test can change and counts its calls.
+     */
+    private static final class Loader implements Supplier<StateRecord> {
+        StateRecord record;
+        int calls;
+
+        Loader(StateRecord record) {
+            this.record = record;
+        }
+
+        @Override
+        public StateRecord get() {
+            calls++;
+            return record;
+        }
+    }
+
+    /**
+     * Holds the refreshes until the test runs them.
+     */
+    private static final class QueuedExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            List<Runnable> queued = new ArrayList<>(tasks);
+            tasks.clear();
+            queued.forEach(Runnable::run);
+        }
+    }
+}
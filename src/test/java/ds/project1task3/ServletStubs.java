@@ -0,0 +1,352 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Stand-ins for the servlet container in tests. A servlet is initialised against a context that holds the
+ * shared service, the image store and the given context parameters, and each request is an {@link Exchange}
+ * that records what the servlet did with it: the status, headers and body of the response, the page it
+ * forwarded or dispatched to, and the asynchronous listeners it added, so a test can fire the async timeout
+ * itself.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java and Jakarta Servlet API classes
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+final class ServletStubs {
+    // Context path of the stand-in application
+    static final String CONTEXT_PATH = "/app";
+
+    private ServletStubs() {
+    }
+
+    /**
+     * Initialises a servlet against a context that publishes the service like {@link StateWarmupListener}.
+     *
+     * @param servlet the servlet
+     * @param service the shared service
+     * @param initParameters the context parameters
+     * @return the servlet
+     */
+    static <T extends HttpServlet> T init(T servlet, StateInformationService service,
+                                          Map<String, String> initParameters) throws ServletException {
+        return init(servlet, service, null, initParameters);
+    }
+
+    /**
+     * Initialises a servlet against a context that publishes the service and the image store like
+     * {@link StateWarmupListener}.
+     *
+     * @param servlet the servlet
+     * @param service the shared service, or null
+     * @param images the shared image store, or null
+     * @param initParameters the context parameters
+     * @return the servlet
+     */
+    static <T extends HttpServlet> T init(T servlet, StateInformationService service, ImageStore images,
+                                          Map<String, String> initParameters) throws ServletException {
+        Map<String, Object> attributes = new ConcurrentHashMap<>();
+        if (service != null) {
+            attributes.put(StateWarmupListener.SERVICE_ATTRIBUTE, service);
+        }
+        if (images != null) {
+            attributes.put(StateWarmupListener.IMAGE_STORE_ATTRIBUTE, images);
+        }
+        ServletContext context = proxy(ServletContext.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                case "getInitParameter":
+                    return initParameters.get((String) args[0]);
+                case "getContextPath":
+                    return CONTEXT_PATH;
+                case "log":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        ServletConfig config = proxy(ServletConfig.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getServletContext":
+                    return context;
+                case "getServletName":
+                    return servlet.getClass().getSimpleName();
+                case "getInitParameter":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        servlet.init(config);
+        return servlet;
+    }
+
+    /**
+     * One request to a servlet and everything the servlet did with it.
+     */
+    static final class Exchange {
+        final HttpServletRequest request;
+        final HttpServletResponse response;
+        // Completed with the page the request was forwarded or dispatched to
+        final CompletableFuture<String> page = new CompletableFuture<>();
+        // Completed when the asynchronous request is completed without a dispatch
+        final CompletableFuture<Void> completed = new CompletableFuture<>();
+        final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        final List<AsyncListener> listeners = new CopyOnWriteArrayList<>();
+
+        private final Map<String, String[]> parameters = new HashMap<>();
+        private final Map<String, String> requestHeaders = new HashMap<>();
+        private final Map<String, String> headers = new ConcurrentHashMap<>();
+        private final StringWriter body = new StringWriter();
+        private final PrintWriter writer = new PrintWriter(body);
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private volatile String uri = CONTEXT_PATH;
+        private volatile int status = HttpServletResponse.SC_OK;
+        private volatile String contentType;
+        private volatile long contentLength = -1;
+        private volatile long timeout;
+        private volatile AsyncContext async;
+
+        Exchange() {
+            request = proxy(HttpServletRequest.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getParameter": {
+                        String[] values = parameters.get((String) args[0]);
+                        return values == null ? null : values[0];
+                    }
+                    case "getParameterValues":
+                        return parameters.get((String) args[0]);
+                    case "getAttribute":
+                        return attributes.get((String) args[0]);
+                    case "setAttribute":
+                        attributes.put((String) args[0], args[1]);
+                        return null;
+                    case "getContextPath":
+                        return CONTEXT_PATH;
+                    case "getRequestURI":
+                        return uri;
+                    case "getHeader":
+                        return requestHeaders.get((String) args[0]);
+                    case "getRequestDispatcher":
+                        return dispatcher((String) args[0]);
+                    case "startAsync":
+                        async = asyncContext();
+                        return async;
+                    case "isAsyncStarted":
+                        return async != null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+            response = proxy(HttpServletResponse.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setContentType":
+                        contentType = (String) args[0];
+                        return null;
+                    case "setStatus":
+                    case "sendError":
+                        status = (Integer) args[0];
+                        return null;
+                    case "setHeader":
+                        headers.put((String) args[0], (String) args[1]);
+                        return null;
+                    case "setContentLengthLong":
+                        contentLength = (Long) args[0];
+                        return null;
+                    case "getWriter":
+                        return writer;
+                    case "getOutputStream":
+                        return outputStream();
+                    case "flushBuffer":
+                        writer.flush();
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        /**
+         * Adds a request parameter, which may be repeated.
+         */
+        Exchange parameter(String name, String... values) {
+            parameters.put(name, values);
+            return this;
+        }
+
+        /**
+         * Sets the path of the request below the context path.
+         */
+        Exchange path(String path) {
+            uri = CONTEXT_PATH + path;
+            return this;
+        }
+
+        /**
+         * Adds a request header.
+         */
+        Exchange requestHeader(String name, String value) {
+            requestHeaders.put(name, value);
+            return this;
+        }
+
+        int status() {
+            return status;
+        }
+
+        String contentType() {
+            return contentType;
+        }
+
+        String header(String name) {
+            return headers.get(name);
+        }
+
+        /**
+         * @return The content length the servlet set, -1 if it set none.
+         */
+        long contentLength() {
+            return contentLength;
+        }
+
+        /**
+         * @return Everything written to the response's output stream so far.
+         */
+        byte[] bytes() {
+            synchronized (bytes) {
+                return bytes.toByteArray();
+            }
+        }
+
+        /**
+         * @return The async timeout the servlet set, 0 if it did not go asynchronous.
+         */
+        long timeout() {
+            return timeout;
+        }
+
+        /**
+         * @return Everything written to the response so far.
+         */
+        String body() {
+            writer.flush();
+            synchronized (body) {
+                return body.toString();
+            }
+        }
+
+        /**
+         * Tells the listeners of the asynchronous request that its timeout has passed, like the container does.
+         */
+        void timeOut() throws IOException {
+            AsyncEvent event = new AsyncEvent(async);
+            for (AsyncListener listener : listeners) {
+                listener.onTimeout(event);
+            }
+        }
+
+        private ServletOutputStream outputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    synchronized (bytes) {
+                        bytes.write(b);
+                    }
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    synchronized (bytes) {
+                        bytes.write(b, off, len);
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException("setWriteListener");
+                }
+            };
+        }
+
+        private RequestDispatcher dispatcher(String path) {
+            return proxy(RequestDispatcher.class, (proxy, method, args) -> {
+                if (method.getName().equals("forward")) {
+                    page.complete(path);
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        }
+
+        private AsyncContext asyncContext() {
+            return proxy(AsyncContext.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getRequest":
+                        return request;
+                    case "getResponse":
+                        return response;
+                    case "setTimeout":
+                        timeout = (Long) args[0];
+                        return null;
+                    case "addListener":
+                        listeners.add((AsyncListener) args[0]);
+                        return null;
+                    case "dispatch":
+                        page.complete((String) args[args.length - 1]);
+                        return null;
+                    case "complete":
+                        completed.complete(null);
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ServletStubs.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    // Identity semantics for the methods every object has
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return type.getSimpleName() + " stub";
+                        default:
+                            return handler.invoke(proxy, method, args);
+                    }
+                }));
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of collapsing concurrent calls for the same key, and of waiters outliving the caller that ran the work.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+    @Test
+    void collapsesConcurrentCalls() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = callers.submit(() -> flights.execute("Ohio", () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "record";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> waiter = callers.submit(() -> flights.execute("Ohio", () -> "second run"));
+            waitForCollapsed(flights, 1);
+            release.countDown();
+            assertEquals("record", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("record", waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitersRunAgainWhenTheLeaderIsCancelled() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            // The leader's work gives up with null once its thread is interrupted, like a cancelled fetch
+            Future<String> leader = callers.submit(() -> flights.execute("Ohio", () -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                    return "too late";
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> waiter = callers.submit(() -> flights.execute("Ohio", () -> "record"));
+            waitForCollapsed(flights, 1);
+            leader.cancel(true);
+            assertEquals("record", waiter.get(5, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void doesNotCacheResults() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        assertNull(flights.execute("Ohio", () -> null));
+        assertEquals("record", flights.execute("Ohio", () -> "record"));
+        assertEquals(2, flights.getCalls());
+    }
+
+    static void waitForCollapsed(SingleFlight<?, ?> flights, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flights.getCollapsed() < expected && System.nanoTime() - deadline < 0) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, flights.getCollapsed());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of how a snapshot rebuild combines a freshly assembled record with the previous one, and of live
+ * lookups against stub upstreams.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class StateInformationServiceTest {
+    private static final StateRecord COMPLETE =
+            new StateRecord("Ohio", "11799448", "flag.svg", "Alice", "seal.svg", "Bob", "Columbus", "Mike DeWine");
+    // A record assembled while every upstream failed
+    private static final StateRecord DEGRADED =
+            new StateRecord("Ohio", "N.A.", "N.A.", "N.A.", "N.A.", "N.A.", "N.A.", "N.A.");
+
+    @Test
+    void keepsThePreviousRecordWhenEveryUpstreamFailed() {
+        StateRecord merged = StateInformationService.merge(DEGRADED, COMPLETE);
+        assertTrue(merged.hasPopulationAndSymbols());
+        assertTrue(merged.hasFacts());
+        assertEquals("Columbus", merged.getCapital());
+    }
+
+    @Test
+    void takesEachCompleteFieldGroupFromTheFreshRecord() {
+        StateRecord fresh =
+                new StateRecord("Ohio", "11800000", "flag2.svg", "Carol", "seal2.svg", "Dan", null, null);
+        StateRecord merged = StateInformationService.merge(fresh, COMPLETE);
+        assertEquals("11800000", merged.getPopulation());
+        assertEquals("flag2.svg", merged.getFlagURL());
+        assertEquals("Mike DeWine", merged.getGovernor());
+    }
+
+    @Test
+    void publishesTheFreshRecordWithoutAPreviousOne() {
+        assertSame(DEGRADED, StateInformationService.merge(DEGRADED, null));
+        assertSame(COMPLETE, StateInformationService.merge(COMPLETE, DEGRADED));
+    }
+
+    @Test
+    void showsNotAvailableForAPageWithoutSymbolImages() throws IOException {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.handle("/wiki/", exchange -> StubHttpServer.send(exchange, 200,
+                    "<table class=\"infobox ib-settlement vcard\"><tr><td>No images</td></tr></table>"));
+            StateInformationService service = service(server);
+            try {
+                StateRecord record = service.lookup("Ohio", true, false);
+                assertEquals("N.A.", record.getFlagURL());
+                assertEquals("N.A.", record.getSealURL());
+            } finally {
+                shutdown(service);
+            }
+        }
+    }
+
+    @Test
+    void showsNotAvailableForAPopulationTheCensusDidNotHave() throws IOException {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.handle("/census", exchange -> StubHttpServer.send(exchange, 200,
+                    "[[\"NAME\",\"P1_001N\",\"state\"],[\"Texas\",\"29145505\",\"48\"]]"));
+            StateInformationService service = service(server);
+            try {
+                service.getModel().start();
+                assertEquals("29145505", service.lookup("Texas", true, false).getPopulation());
+                // Like every other field, a missing population is shown as N.A. and not as null
+                assertEquals("N.A.", service.lookup("Ohio", true, false).getPopulation());
+            } finally {
+                shutdown(service);
+            }
+        }
+    }
+
+    @Test
+    void degradesOnlyTheFieldsOfAnUpstreamThatMissesTheDeadline() throws IOException {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.handle("/census", exchange -> StubHttpServer.send(exchange, 200,
+                    "[[\"NAME\",\"P1_001N\",\"state\"],[\"Ohio\",\"11799448\",\"39\"]]"));
+            server.handle("/wiki/", exchange -> StubHttpServer.send(exchange, 200,
+                    factsPage("Columbus", "Mike DeWine").replace("<tbody>", "<tbody><tr><td>"
+                            + SymbolImageExtractorTest.image("Flag_of_Ohio.svg")
+                            + SymbolImageExtractorTest.image("Seal_of_Ohio.svg") + "</td></tr>")));
+            // Commons answers long after the lookup has given up on it
+            server.handle("/w/api.php", exchange -> {
+                StubHttpServer.delay(3000);
+                StubHttpServer.send(exchange, 200, "{}");
+            });
+            StateInformationService service = service(server, Duration.ofMillis(500));
+            try {
+                service.getModel().start();
+                long start = System.nanoTime();
+                StateRecord record = service.lookup("Ohio", true, true);
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                assertTrue(elapsedMillis < 1000, "took " + elapsedMillis + " ms");
+                assertEquals("11799448", record.getPopulation());
+                assertNotEquals("N.A.", record.getFlagURL());
+                assertNotEquals("N.A.", record.getSealURL());
+                assertEquals("Columbus", record.getCapital());
+                assertEquals("Mike DeWine", record.getGovernor());
+                assertEquals("N.A.", record.getFlagCredit());
+                assertEquals("N.A.", record.getSealCredit());
+            } finally {
+                shutdown(service);
+            }
+        }
+    }
+
+    /**
+     * Builds a state page whose infobox labels its capital and governor rows.
+     */
+    static String factsPage(String capital, String governor) {
+        return "<table class=\"infobox ib-settlement vcard\"><tbody>"
+                + "<tr><th>Capital</th><td>" + link(capital) + "</td></tr>"
+                + "<tr><th>• Governor</th><td>" + link(governor) + "</td></tr>"
+                + "</tbody></table>";
+    }
+
+    private static String link(String title) {
+        return "<a href=\"/wiki/" + title.replace(' ', '_') + "\">" + title + "</a>";
+    }
+
+    /**
+     * Creates a service whose upstreams all live on the stub server, under /census, /wiki/, /w/api.php and
+     * /images. The population table is not loaded until the model is started.
+     */
+    static StateInformationService service(StubHttpServer server) {
+        return service(server, Duration.ofSeconds(5));
+    }
+
+    /**
+     * Creates a service like {@link #service(StubHttpServer)} whose lookups give up on the upstreams after the
+     * given time.
+     */
+    static StateInformationService service(StubHttpServer server, Duration deadline) {
+        HttpFetcher fetcher = HttpFetcherTest.fetcher(null,
+                HttpFetcherTest.policy(Map.of(), 100, Duration.ofSeconds(30), false));
+        UpstreamEndpoints endpoints = new UpstreamEndpoints(server.url("/census"), server.url("/wiki/"),
+                server.url("/w/api.php"), server.url("/images"));
+        Project1Task3Model model = new Project1Task3Model(Project1Task3Model.DEFAULT_POPULATION_TTL, fetcher, true,
+                endpoints, null, null);
+        return new StateInformationService(model, 4, deadline);
+    }
+
+    /**
+     * Stops a service created by {@link #service(StubHttpServer)} and its model.
+     */
+    static void shutdown(StateInformationService service) {
+        service.shutdown();
+        service.getModel().shutdown();
+    }
+}
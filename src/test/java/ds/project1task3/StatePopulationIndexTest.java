@@ -0,0 +1,53 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the in-memory Census population table: matching rows to states and retrying a failed first load.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class StatePopulationIndexTest {
+    private static final String CENSUS = "[[\"NAME\",\"P1_001N\",\"state\"],"
+            + "[\"New York\",\"20201249\",\"36\"],[\"District of Columbia\",\"689545\",\"11\"],"
+            + "[\"Ohio\",\"11799448\",\"39\"]]";
+
+    @Test
+    void matchesRowsByFipsCode() {
+        StatePopulationIndex index = new StatePopulationIndex(() -> CENSUS, Duration.ofDays(1));
+        assertTrue(index.refresh());
+        assertEquals("20201249", index.getByName("New York"));
+        assertEquals("11799448", index.getByFips("39"));
+        assertNull(index.getByName("District of Columbia"));
+        assertNull(index.getByName("Texas"));
+    }
+
+    @Test
+    void retriesAFailedFirstLoadBeforeTheTtl() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        // The first load fails, the retry after the initial backoff succeeds
+        StatePopulationIndex index = new StatePopulationIndex(
+                () -> calls.incrementAndGet() == 1 ? null : CENSUS, Duration.ofDays(1));
+        index.start();
+        try {
+            assertFalse(index.isLoaded());
+            long deadline = System.nanoTime() + StatePopulationIndex.INITIAL_RETRY.toNanos() * 3;
+            while (!index.isLoaded() && System.nanoTime() - deadline < 0) {
+                Thread.sleep(50);
+            }
+            assertTrue(index.isLoaded());
+            assertEquals(2, calls.get());
+        } finally {
+            index.stop();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the state table: the round trip of every name, FIPS code and ordinal, names and codes that are not
+ * states, including a name with the hash of a state, and the special Wikipedia titles and Commons file names.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class StateRegistryTest {
+    @Test
+    void roundTripsEveryNameFipsCodeAndOrdinal() {
+        assertEquals(50, StateRegistry.COUNT);
+        assertEquals(StateRegistry.COUNT, StateRegistry.names().size());
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < StateRegistry.COUNT; i++) {
+            String name = StateRegistry.name(i);
+            assertEquals(name, StateRegistry.names().get(i));
+            assertEquals(i, StateRegistry.ordinal(name), name);
+            assertEquals(i, StateRegistry.ordinalOfFips(StateRegistry.fips(i)), name);
+            assertTrue(codes.add(StateRegistry.fips(i)), "duplicate FIPS code of " + name);
+        }
+        // The ordinals follow the alphabetical order of index.jsp
+        List<String> sorted = new ArrayList<>(StateRegistry.names());
+        sorted.sort(null);
+        assertEquals(sorted, StateRegistry.names());
+    }
+
+    @Test
+    void mapsTheCensusFipsCodes() {
+        assertEquals("01", StateRegistry.fips(StateRegistry.ordinal("Alabama")));
+        assertEquals("36", StateRegistry.fips(StateRegistry.ordinal("New York")));
+        assertEquals("39", StateRegistry.fips(StateRegistry.ordinal("Ohio")));
+        assertEquals("56", StateRegistry.fips(StateRegistry.ordinal("Wyoming")));
+        // The District of Columbia, Puerto Rico and unused codes are not states
+        for (String code : new String[] {"11", "72", "00", "03", "99"}) {
+            assertEquals(-1, StateRegistry.ordinalOfFips(code), code);
+        }
+        for (String code : new String[] {null, "", "1", "039", "3a", " 1", "-1"}) {
+            assertEquals(-1, StateRegistry.ordinalOfFips(code), code);
+        }
+    }
+
+    @Test
+    void findsNoOrdinalForANameThatIsNotAState() {
+        for (String name : new String[] {null, "", "ohio", "OHIO", "Ohio ", "New_York", "District of Columbia"}) {
+            assertEquals(-1, StateRegistry.ordinal(name), name);
+        }
+        // Same hash as "Ohio", so the lookup probes the slot of Ohio and must compare the names
+        assertEquals("Ohio".hashCode(), "PIio".hashCode());
+        assertEquals(-1, StateRegistry.ordinal("PIio"));
+    }
+
+    @Test
+    void qualifiesTheTitlesOfStatesThatShareTheirName() {
+        assertEquals("Georgia_(U.S._state)", StateRegistry.wikipediaTitle(StateRegistry.ordinal("Georgia")));
+        assertEquals("New_York_(state)", StateRegistry.wikipediaTitle(StateRegistry.ordinal("New York")));
+        assertEquals("Washington_(state)", StateRegistry.wikipediaTitle(StateRegistry.ordinal("Washington")));
+        assertEquals("West_Virginia", StateRegistry.wikipediaTitle(StateRegistry.ordinal("West Virginia")));
+        assertEquals("Ohio", StateRegistry.wikipediaTitle(StateRegistry.ordinal("Ohio")));
+    }
+
+    @Test
+    void namesTheCommonsFilesAfterTheTitles() {
+        assertEquals("Flag_of_the_State_of_Georgia.svg", commonsFile("Georgia", SymbolImageExtractor.Symbol.FLAG));
+        assertEquals("Seal_of_the_State_of_Georgia.svg", commonsFile("Georgia", SymbolImageExtractor.Symbol.SEAL));
+        assertEquals("Flag_of_New_York_(state).svg", commonsFile("New York", SymbolImageExtractor.Symbol.FLAG));
+        assertEquals("Seal_of_Washington_(state).svg", commonsFile("Washington", SymbolImageExtractor.Symbol.SEAL));
+        assertEquals("Flag_of_North_Dakota.svg", commonsFile("North Dakota", SymbolImageExtractor.Symbol.FLAG));
+    }
+
+    private static String commonsFile(String state, SymbolImageExtractor.Symbol symbol) {
+        return StateRegistry.commonsFile(StateRegistry.ordinal(state), symbol);
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the bulk JSON API: rejecting unknown states and fields, and answering every requested state with
+ * the requested fields, in the requested order, from stub upstreams.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class StatesApiServletTest {
+    @Test
+    void rejectsAnUnknownStateOrFieldBeforeAnyLookup() throws IOException, ServletException {
+        try (StubHttpServer server = new StubHttpServer()) {
+            StateInformationService service = StateInformationServiceTest.service(server);
+            try {
+                StatesApiServlet servlet = ServletStubs.init(new StatesApiServlet(), service, Map.of());
+
+                ServletStubs.Exchange state = new ServletStubs.Exchange().parameter("states", "Ohio,Atlantis");
+                servlet.doGet(state.request, state.response);
+                assertEquals(400, state.status());
+                assertEquals("{\"error\":\"Unknown state: Atlantis\"}", state.body());
+
+                ServletStubs.Exchange field = new ServletStubs.Exchange()
+                        .parameter("states", "Ohio").parameter("fields", "capital", "motto");
+                servlet.doGet(field.request, field.response);
+                assertEquals(400, field.status());
+                assertEquals("{\"error\":\"Unknown field: motto\"}", field.body());
+                assertEquals(0, server.requests());
+            } finally {
+                StateInformationServiceTest.shutdown(service);
+            }
+        }
+    }
+
+    @Test
+    void answersEveryStateWithTheRequestedFieldsInOrder() throws IOException, ServletException {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.handle("/census", exchange -> StubHttpServer.send(exchange, 200,
+                    "[[\"NAME\",\"P1_001N\",\"state\"],[\"Ohio\",\"11799448\",\"39\"],"
+                            + "[\"Texas\",\"29145505\",\"48\"]]"));
+            // Each page names its capital after the page title
+            server.handle("/wiki/", exchange -> {
+                String title = exchange.getRequestURI().getPath().substring("/wiki/".length());
+                StubHttpServer.send(exchange, 200,
+                        StateInformationServiceTest.factsPage("Capital of " + title, "Nobody"));
+            });
+            StateInformationService service = StateInformationServiceTest.service(server);
+            try {
+                service.getModel().start();
+                StatesApiServlet servlet = ServletStubs.init(new StatesApiServlet(), service, Map.of());
+
+                // Repeated and comma separated values are combined, without duplicates
+                ServletStubs.Exchange exchange = new ServletStubs.Exchange()
+                        .parameter("states", "Texas", "Ohio,Texas").parameter("fields", "capital,population");
+                servlet.doGet(exchange.request, exchange.response);
+                assertEquals(200, exchange.status());
+                assertEquals("application/json;charset=UTF-8", exchange.contentType());
+                assertEquals("{\"states\":["
+                        + "{\"state\":\"Texas\",\"capital\":\"Capital of Texas\",\"population\":\"29145505\"},"
+                        + "{\"state\":\"Ohio\",\"capital\":\"Capital of Ohio\",\"population\":\"11799448\"}]}",
+                        exchange.body());
+            } finally {
+                StateInformationServiceTest.shutdown(service);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Date: 10/16/2026
+ *
+ * A local stand-in for an upstream API in tests, on an ephemeral port of the loopback interface. Each path is
+ * answered by a handler that the test registers, and every request is counted so a test can check how many
+ * calls actually reached the upstream.
+ */
+
+package ds.project1task3;
+
+// Import the necessary Java classes
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class StubHttpServer implements AutoCloseable {
+    private final HttpServer server;
+    // Requests answered, over every path
+    private final AtomicInteger requests = new AtomicInteger();
+
+    StubHttpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // Slow handlers sleep, so every request gets its own thread
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stub-http-server");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+    }
+
+    /**
+     * Answers the requests under a path with a handler.
+     */
+    StubHttpServer handle(String path, HttpHandler handler) {
+        server.createContext(path, exchange -> {
+            requests.incrementAndGet();
+            try {
+                handler.handle(exchange);
+            } finally {
+                exchange.close();
+            }
+        });
+        return this;
+    }
+
+    /**
+     * @return The URL of a path on this server.
+     */
+    String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * @return The number of requests answered so far.
+     */
+    int requests() {
+        return requests.get();
+    }
+
+    /**
+     * Sends a text body with the given status.
+     */
+    static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Sleeps in a handler to simulate a slow upstream, giving up quietly if the server is stopped.
+     */
+    static void delay(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of the symbol event stream: rejecting an unknown state, sending the images, the credits and the end of
+ * the stream of a looked up state, and ending the stream with every missing field N.A. when the async timeout
+ * passes first.
+ */
+
+package ds.project1task3;
+
+// Import gson, junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SymbolEventsServletTest {
+    private static final String SYMBOLS_PAGE = "<table class=\"infobox ib-settlement vcard\"><tr><td>"
+            + SymbolImageExtractorTest.image("Flag_of_Ohio.svg") + SymbolImageExtractorTest.image("Seal_of_Ohio.svg")
+            + "</td></tr></table>";
+
+    @Test
+    void rejectsAnUnknownState() throws IOException, ServletException {
+        try (StubHttpServer server = new StubHttpServer()) {
+            StateInformationService service = StateInformationServiceTest.service(server);
+            try {
+                SymbolEventsServlet servlet = ServletStubs.init(new SymbolEventsServlet(), service, Map.of());
+                ServletStubs.Exchange exchange = new ServletStubs.Exchange().parameter("states", "Atlantis");
+                servlet.doGet(exchange.request, exchange.response);
+                assertEquals(400, exchange.status());
+                assertEquals(0, exchange.timeout());
+            } finally {
+                StateInformationServiceTest.shutdown(service);
+            }
+        }
+    }
+
+    @Test
+    void streamsTheImagesThenTheCreditsOfAState() throws Exception {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.handle("/wiki/", exchange -> StubHttpServer.send(exchange, 200, SYMBOLS_PAGE));
+            StateInformationService service = StateInformationServiceTest.service(server);
+            try {
+                SymbolEventsServlet servlet = ServletStubs.init(new SymbolEventsServlet(), service,
+                        Map.of(StateWarmupListener.ASYNC_TIMEOUT_PARAM, "5000"));
+                ServletStubs.Exchange exchange = new ServletStubs.Exchange().parameter("states", "Ohio");
+                servlet.doGet(exchange.request, exchange.response);
+                assertEquals("text/event-stream;charset=UTF-8", exchange.contentType());
+                assertEquals("no-cache", exchange.header("Cache-Control"));
+                assertEquals(5000, exchange.timeout());
+
+                exchange.completed.get(5, TimeUnit.SECONDS);
+                Map<String, JsonObject> events = events(exchange.body());
+                assertEquals(List.of("images", "credits", "done"), new ArrayList<>(events.keySet()));
+                assertTrue(events.get("images").get("flag").getAsString().contains("Flag_of_Ohio.svg"));
+                assertTrue(events.get("images").get("seal").getAsString().contains("Seal_of_Ohio.svg"));
+                assertTrue(events.get("credits").has("flagCredit"));
+                assertFalse(events.get("done").get("degraded").getAsBoolean());
+            } finally {
+                StateInformationServiceTest.shutdown(service);
+            }
+        }
+    }
+
+    @Test
+    void endsTheStreamDegradedWhenTheAsyncTimeoutPassesFirst() throws Exception {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.handle("/wiki/", exchange -> {
+                StubHttpServer.delay(500);
+                StubHttpServer.send(exchange, 200, SYMBOLS_PAGE);
+            });
+            StateInformationService service = StateInformationServiceTest.service(server);
+            try {
+                SymbolEventsServlet servlet = ServletStubs.init(new SymbolEventsServlet(), service,
+                        Map.of(StateWarmupListener.ASYNC_TIMEOUT_PARAM, "100"));
+                ServletStubs.Exchange exchange = new ServletStubs.Exchange().parameter("states", "Ohio");
+                servlet.doGet(exchange.request, exchange.response);
+                exchange.timeOut();
+                assertTrue(exchange.completed.isDone());
+                // The lookup that completes afterwards sends nothing more
+                service.lookupAsync("Ohio", true, false).get(5, TimeUnit.SECONDS);
+                Map<String, JsonObject> events = events(exchange.body());
+                assertEquals(List.of("images", "credits", "done"), new ArrayList<>(events.keySet()));
+                assertEquals("N.A.", events.get("images").get("flag").getAsString());
+                assertEquals("N.A.", events.get("credits").get("sealCredit").getAsString());
+                assertTrue(events.get("done").get("degraded").getAsBoolean());
+            } finally {
+                StateInformationServiceTest.shutdown(service);
+            }
+        }
+    }
+
+    /**
+     * Parses the Server-Sent Events of a stream, failing if an event is sent twice.
+     *
+     * @return The data of every event by event name, in the order they were sent.
+     */
+    private static Map<String, JsonObject> events(String stream) {
+        Map<String, JsonObject> events = new LinkedHashMap<>();
+        for (String event : stream.split("\n\n")) {
+            String[] lines = event.split("\n");
+            assertEquals(2, lines.length, event);
+            assertTrue(lines[0].startsWith("event: ") && lines[1].startsWith("data: "), event);
+            String name = lines[0].substring("event: ".length());
+            JsonObject data = JsonParser.parseString(lines[1].substring("data: ".length())).getAsJsonObject();
+            assertNull(events.put(name, data), "sent twice: " + name);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of extracting the flag and seal image URLs of a page in one pass: the priority of the anchors of a
+ * symbol, the special seal file names, pages with text outside ASCII and pages without a symbol image.
+ */
+
+package ds.project1task3;
+
+// Import junit
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class SymbolImageExtractorTest {
+    private static final int FLAG = SymbolImageExtractor.Symbol.FLAG.ordinal();
+    private static final int SEAL = SymbolImageExtractor.Symbol.SEAL.ordinal();
+
+    @Test
+    void extractsTheFlagAndSeal() {
+        String html = "<table class=\"infobox ib-settlement vcard\"><tr><td>"
+                + image("Flag_of_Ohio.svg") + image("Seal_of_Ohio.svg") + "</td></tr></table>";
+        assertArrayEquals(new String[] {url("Flag_of_Ohio.svg"), url("Seal_of_Ohio.svg")},
+                SymbolImageExtractor.extract(html));
+    }
+
+    @Test
+    void prefersTheHigherPriorityAnchorWhereverItIs() {
+        // The bordered flag is listed first, the plain one is only a fallback even when it comes first
+        String flags = image("Flag_of_Ohio_plain.svg") + "<div class=\"ib-settlement-cols-cell\">"
+                + "<span class=\"mw-image-border\" typeof=\"mw:File\"><a href=\"/wiki/File:Flag_of_Ohio.svg\">"
+                + "<img src=\"" + url("Flag_of_Ohio.svg") + "\"></a></span></div>";
+        // "Seal_of_" is listed before "Great_Seal_of_"
+        String seals = image("Great_Seal_of_Ohio.svg") + image("Seal_of_Ohio.svg");
+        String[] urls = SymbolImageExtractor.extract(flags + seals);
+        assertEquals(url("Flag_of_Ohio.svg"), urls[FLAG]);
+        assertEquals(url("Seal_of_Ohio.svg"), urls[SEAL]);
+        // Without the higher priority anchors the fallbacks are used
+        assertEquals(url("Great_Seal_of_Ohio.svg"),
+                SymbolImageExtractor.extract(image("Great_Seal_of_Ohio.svg"))[SEAL]);
+    }
+
+    @Test
+    void extractsTheSpecialSealFileNames() {
+        assertEquals(url("Arizona_state_seal.svg"),
+                SymbolImageExtractor.extract(image("Arizona_state_seal.svg"))[SEAL]);
+        assertEquals(url("Wyoming-StateSeal.svg"),
+                SymbolImageExtractor.extract(image("Wyoming-StateSeal.svg"))[SEAL]);
+    }
+
+    @Test
+    void extractsFromAPageWithTextBeyondAscii() {
+        String html = "<p>Hawaiʻi – Mānoa 日本語</p>" + image("Flag_of_Hawaiʻi.svg") + "<p>é</p>"
+                + image("Seal_of_Hawaiʻi.svg");
+        assertArrayEquals(new String[] {url("Flag_of_Hawaiʻi.svg"), url("Seal_of_Hawaiʻi.svg")},
+                SymbolImageExtractor.extract(html));
+    }
+
+    @Test
+    void findsNothingOnAPageWithoutASymbolImage() {
+        String html = "<table class=\"infobox ib-settlement vcard\"><tr><td>" + image("Map_of_Ohio.svg")
+                + "</td></tr></table>";
+        assertArrayEquals(new String[] {null, null}, SymbolImageExtractor.extract(html));
+        // An anchor without an image after it gives nothing either
+        String cut = "<div class=\"ib-settlement-cols-cell\"><span typeof=\"mw:File\"><a href=\"/wiki/File:Flag_of_";
+        assertArrayEquals(new String[] {null, null}, SymbolImageExtractor.extract(cut));
+    }
+
+    /**
+     * Builds the infobox cell of a symbol image as Wikipedia renders it.
+     */
+    static String image(String file) {
+        return "<div class=\"ib-settlement-cols-cell\"><span typeof=\"mw:File\"><a href=\"/wiki/File:" + file
+                + "\" class=\"mw-file-description\"><img src=\"" + url(file) + "\" width=\"100\"></a></span></div>";
+    }
+
+    static String url(String file) {
+        return "//upload.wikimedia.org/wikipedia/commons/thumb/" + file + "/100px-" + file + ".png";
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Date: 10/16/2026
+ *
+ * Tests of sharing one fetched Wikipedia page between concurrent callers, of callers that wait on a fetch
+ * whose caller gives up, and of what is kept between calls.
+ */
+
+package ds.project1task3;
+
+// Import junit and the necessary Java classes
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class WikipediaPageProviderTest {
+    private static final String URL = "https://en.wikipedia.org/wiki/Ohio";
+
+    @Test
+    void sharesOneFetchBetweenConcurrentCallers() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WikipediaPageProvider provider = new WikipediaPageProvider(url -> {
+            fetches.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+            return "<html>Ohio</html>";
+        }, Duration.ofMinutes(10));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            Future<WikipediaPageProvider.Page> leader = callers.submit(() -> provider.get(URL));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<WikipediaPageProvider.Page> waiter = callers.submit(() -> provider.get(URL));
+            SingleFlightTest.waitForCollapsed(provider.getFlights(), 1);
+            release.countDown();
+            WikipediaPageProvider.Page page = leader.get(5, TimeUnit.SECONDS);
+            assertSame(page, waiter.get(5, TimeUnit.SECONDS));
+            // The page is reused until it expires
+            assertSame(page, provider.get(URL));
+            assertEquals(1, fetches.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitersFetchAgainWhenTheLeaderIsInterrupted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger fetches = new AtomicInteger();
+        // The first fetch blocks until it is interrupted and then fails like a cancelled request
+        WikipediaPageProvider provider = new WikipediaPageProvider(url -> {
+            if (fetches.incrementAndGet() > 1) {
+                return "<html>Ohio</html>";
+            }
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+                return "too late";
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }, Duration.ofMinutes(10));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            Future<WikipediaPageProvider.Page> leader = callers.submit(() -> provider.get(URL));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<WikipediaPageProvider.Page> waiter = callers.submit(() -> provider.get(URL));
+            SingleFlightTest.waitForCollapsed(provider.getFlights(), 1);
+            leader.cancel(true);
+            // The waiter is not handed the leader's null, it fetches the page itself
+            WikipediaPageProvider.Page page = waiter.get(5, TimeUnit.SECONDS);
+            assertNotNull(page);
+            assertEquals("<html>Ohio</html>", page.html());
+            assertEquals(2, fetches.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void doesNotKeepFailedFetchesOrExpiredPages() {
+        AtomicInteger fetches = new AtomicInteger();
+        WikipediaPageProvider provider = new WikipediaPageProvider(
+                url -> fetches.incrementAndGet() == 1 ? null : "<html>" + fetches.get() + "</html>", Duration.ZERO);
+        assertNull(provider.get(URL));
+        assertEquals("<html>2</html>", provider.get(URL).html());
+        // With no TTL every call fetches again
+        assertEquals("<html>3</html>", provider.get(URL).html());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}